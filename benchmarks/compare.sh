@@ -0,0 +1,24 @@
+#!/bin/sh
+# Prints the relative change of every benchmark score between two JMH JSON result files.
+# Secondary results (such as TaskWireFormatBenchmark's payload "bytes") are listed as benchmark:name and compared
+# by their median per-iteration value, since JMH sums counters over the iterations in the score.
+# Usage: benchmarks/compare.sh baseline.json candidate.json   (requires jq)
+set -eu
+
+printf 'benchmark\tbaseline\tcandidate\tunit\tchange\n'
+
+jq -rn --slurpfile base "$1" --slurpfile new "$2" '
+  def params: if .params then " " + (.params | to_entries | map("\(.key)=\(.value)") | join(",")) else "" end;
+  def results: . as $r
+    | [{key: ($r.benchmark + params), value: {score: $r.primaryMetric.score, unit: $r.primaryMetric.scoreUnit}}]
+      + [($r.secondaryMetrics // {}) | to_entries[]
+         | {key: ($r.benchmark + ":" + .key + ($r | params)),
+            value: {score: .value.scorePercentiles["50.0"], unit: .value.scoreUnit}}]
+    | .[];
+  ($base[0] | map(results) | from_entries) as $b
+  | $new[0][]
+  | results
+  | select($b[.key] != null and $b[.key].score != 0)
+  | [.key, $b[.key].score, .value.score, .value.unit,
+     ((.value.score - $b[.key].score) / $b[.key].score * 100 | . * 10 | round / 10 | tostring) + "%"]
+  | @tsv'
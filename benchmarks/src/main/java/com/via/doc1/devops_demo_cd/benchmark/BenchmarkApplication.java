@@ -0,0 +1,57 @@
+package com.via.doc1.devops_demo_cd.benchmark;
+
+import com.via.doc1.devops_demo_cd.DevopsDemoCdApplication;
+import com.via.doc1.devops_demo_cd.model.BatchItemResult;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.service.TaskService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Boots the real application against a private in-memory H2 database for one benchmark trial
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... extraArgs) {
+        // Passed as command-line arguments so they take precedence over application.properties
+        String[] defaults = {
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"
+        };
+        String[] args = Stream.concat(Stream.of(defaults), Stream.of(extraArgs)).toArray(String[]::new);
+        return new SpringApplicationBuilder(DevopsDemoCdApplication.class)
+                .web(webApplicationType)
+                .run(args);
+    }
+
+    // Inserts count tasks through the batch API and returns their ids
+    static long[] seed(TaskService taskService, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int offset = 0; offset < count; offset += 1000) {
+            List<Task> chunk = new ArrayList<>();
+            for (int i = offset; i < Math.min(count, offset + 1000); i++) {
+                chunk.add(sampleTask(i));
+            }
+            taskService.createTasks(chunk).stream().map(BatchItemResult::id).forEach(ids::add);
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    static Task sampleTask(int i) {
+        return new Task("Benchmark task " + i,
+                "Description of benchmark task " + i + " with enough text to resemble a real task description");
+    }
+}
@@ -0,0 +1,103 @@
+package com.via.doc1.devops_demo_cd.benchmark;
+
+import com.via.doc1.devops_demo_cd.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+// Full MVC path (dispatching, TaskController, Jackson, GlobalExceptionHandler) without network I/O
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskApiBenchmark {
+
+    @Param({"10000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private TaskService taskService;
+    private long[] ids;
+    private final Queue<String> createdLocations = new ConcurrentLinkedQueue<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        taskService = context.getBean(TaskService.class);
+        ids = BenchmarkApplication.seed(taskService, tableSize);
+    }
+
+    // Deletes what createTask inserted, so every iteration starts from the same table size
+    @TearDown(Level.Iteration)
+    public void deleteCreatedTasks() {
+        List<Long> created = createdLocations.stream()
+                .map(location -> Long.valueOf(location.substring(location.lastIndexOf('/') + 1)))
+                .toList();
+        createdLocations.clear();
+        for (int offset = 0; offset < created.size(); offset += 1000) { // TaskController.MAX_BATCH_SIZE
+            taskService.deleteTasks(created.subList(offset, Math.min(created.size(), offset + 1000)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    @Benchmark
+    public MvcResult getTask() throws Exception {
+        return mockMvc.perform(get("/api/v1/tasks/{id}", randomId())).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getMissingTask() throws Exception {
+        return mockMvc.perform(get("/api/v1/tasks/{id}", -1L)).andReturn(); // 404 through GlobalExceptionHandler
+    }
+
+    @Benchmark
+    public MvcResult getTasksPage() throws Exception {
+        return mockMvc.perform(get("/api/v1/tasks").param("limit", "100")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createTask() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Benchmark task\",\"description\":\"Created through MockMvc\"}"))
+                .andReturn();
+        createdLocations.add(result.getResponse().getHeader(HttpHeaders.LOCATION));
+        return result;
+    }
+
+    @Benchmark
+    public MvcResult updateTask() throws Exception {
+        return mockMvc.perform(put("/api/v1/tasks/{id}", randomId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Updated task\",\"description\":\"Updated through MockMvc\"}"))
+                .andReturn();
+    }
+}
@@ -0,0 +1,64 @@
+package com.via.doc1.devops_demo_cd.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.via.doc1.devops_demo_cd.model.Task;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson (de)serialization of Task and List<Task>, configured like Spring Boot's ObjectMapper
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    @Param({"100", "1000"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private Task task;
+    private List<Task> tasks;
+    private byte[] taskJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Task.class));
+        tasks = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            Task t = BenchmarkApplication.sampleTask(i);
+            t.setId((long) i + 1);
+            t.setLastModified(LocalDateTime.now().minusMinutes(i));
+            tasks.add(t);
+        }
+        task = tasks.get(0);
+        taskJson = objectMapper.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public byte[] serializeTask() throws Exception {
+        return objectMapper.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public Task deserializeTask() throws Exception {
+        return objectMapper.readValue(taskJson, Task.class);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList() throws Exception {
+        return listWriter.writeValueAsBytes(tasks);
+    }
+}
@@ -0,0 +1,90 @@
+package com.via.doc1.devops_demo_cd.benchmark;
+
+import com.via.doc1.devops_demo_cd.model.BatchItemResult;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskPage;
+import com.via.doc1.devops_demo_cd.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// TaskServiceImpl CRUD paths through the Spring proxies (transactions, cache) against embedded H2
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    // "none" measures the database path of getTaskById, "caffeine" the cache-hit path
+    @Param({"caffeine", "none"})
+    public String cacheType;
+
+    @Param({"10000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE, "--spring.cache.type=" + cacheType);
+        taskService = context.getBean(TaskService.class);
+        ids = BenchmarkApplication.seed(taskService, tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    @Benchmark
+    public Optional<Task> getTaskById() {
+        return taskService.getTaskById(randomId());
+    }
+
+    @Benchmark
+    public TaskPage getTasksPage() {
+        return taskService.getTasksPage(null, 100);
+    }
+
+    // Ranked search for one task's number; H2 runs the in-memory index, PostgreSQL the GIN-indexed tsvector query
+    @Benchmark
+    public List<Task> searchTasks() {
+        return taskService.searchTasks("benchmark " + ThreadLocalRandom.current().nextInt(tableSize), 20, 0);
+    }
+
+    @Benchmark
+    public Optional<Task> updateTask() {
+        return taskService.updateTask(randomId(), new Task("Updated task", "Updated by benchmark"));
+    }
+
+    // Create and delete together so the table size stays constant across iterations
+    @Benchmark
+    public boolean createAndDeleteTask() {
+        Task created = taskService.createTask(new Task("Short-lived task", "Created by benchmark"));
+        return taskService.deleteTask(created.getId());
+    }
+
+    @Benchmark
+    public List<BatchItemResult> createAndDeleteBatchOf100() {
+        List<Task> batch = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            batch.add(BenchmarkApplication.sampleTask(i));
+        }
+        List<Long> created = taskService.createTasks(batch).stream().map(BatchItemResult::id).toList();
+        return taskService.deleteTasks(created);
+    }
+}
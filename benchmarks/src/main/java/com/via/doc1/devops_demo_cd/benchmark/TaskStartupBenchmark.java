@@ -0,0 +1,179 @@
+package com.via.doc1.devops_demo_cd.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+// Cold start as a new pod sees it: every measurement launches a fresh JVM with the packaged application and times
+// it from process start until GET /api/v1/tasks answers 200 (time-to-first-request). The jar from mvn package
+// (mvn -Paot package for springAot=true) runs in the extracted layout the Dockerfile uses, against in-memory H2.
+// Point -Dstartup.jar=... at another build to compare releases.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0) // Every iteration is a cold start; there is nothing to warm up
+@Measurement(iterations = 5)
+@Fork(1)
+public class TaskStartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.via.doc1.devops_demo_cd.DevopsDemoCdApplication";
+    private static final String AOT_INITIALIZER =
+            "BOOT-INF/classes/com/via/doc1/devops_demo_cd/DevopsDemoCdApplication__ApplicationContextInitializer.class";
+    private static final long STARTUP_TIMEOUT_SECONDS = 120;
+
+    @Param({"false", "true"})
+    public boolean springAot; // Spring AOT initializers instead of runtime bean definition processing
+
+    @Param({"false", "true"})
+    public boolean classCache; // JDK AOT cache (JDK 25+) or dynamic CDS archive, recorded by a training run
+
+    // migrations: Flyway, then Hibernate with ddl-auto=none (the default); static: the same without Hibernate reading
+    // JDBC metadata (the static-schema profile, with the H2 dialect); update: the former ddl-auto=update, no Flyway
+    @Param({"migrations", "static", "update"})
+    public String schema;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Path appDir;
+    private List<String> command;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path jar = Path.of(System.getProperty("startup.jar", "../target/devops-demo-cd-v1.0.0.jar")).toAbsolutePath();
+        if (springAot && !hasAotInitializer(jar)) {
+            throw new IllegalStateException(jar + " has no Spring AOT code; build it with mvn -Paot package");
+        }
+        appDir = Files.createTempDirectory("startup-benchmark");
+        run(List.of(java(), "-Djarmode=tools", "-jar", jar.toString(), "extract", "--destination", appDir.toString()));
+
+        // The extracted jar lists its libraries in its manifest; H2 comes from this module's classpath
+        List<String> jvm = new ArrayList<>(List.of(java(),
+                "-cp", appDir.resolve(jar.getFileName()) + File.pathSeparator + h2Jar()));
+        if (springAot) {
+            jvm.add("-Dspring.aot.enabled=true");
+        }
+        if (classCache) {
+            Path cache = appDir.resolve("app.aot");
+            boolean aotCache = Runtime.version().feature() >= 25;
+            List<String> training = new ArrayList<>(jvm);
+            training.add(aotCache ? "-XX:AOTCacheOutput=" + cache : "-XX:ArchiveClassesAtExit=" + cache);
+            training.add("-Dspring.context.exit=onRefresh"); // Same training run as the Dockerfile
+            training.add(MAIN_CLASS);
+            training.addAll(applicationArgs(0));
+            run(training);
+            jvm.add(aotCache ? "-XX:AOTCache=" + cache : "-XX:SharedArchiveFile=" + cache);
+        }
+        jvm.add(MAIN_CLASS);
+        command = jvm;
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws Exception {
+        int port = freePort();
+        List<String> launch = new ArrayList<>(command);
+        launch.addAll(applicationArgs(port));
+        Path log = appDir.resolve("application.log");
+        process = new ProcessBuilder(launch).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/tasks")).build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(STARTUP_TIMEOUT_SECONDS);
+        while (true) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    return status;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("No response within " + STARTUP_TIMEOUT_SECONDS + "s, see " + log);
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopApplication() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(appDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // Same schema work on startup as production, on a database of its own: each start migrates (or updates) an empty one
+    private List<String> applicationArgs(int port) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--server.port=" + port,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        if ("static".equals(schema)) {
+            args.add("--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+            args.add("--spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false");
+        } else if ("update".equals(schema)) {
+            args.add("--spring.flyway.enabled=false");
+            args.add("--spring.jpa.hibernate.ddl-auto=update");
+        }
+        return args;
+    }
+
+    private static boolean hasAotInitializer(Path jar) throws IOException {
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            return zip.getEntry(AOT_INITIALIZER) != null;
+        }
+    }
+
+    private static String h2Jar() {
+        return Stream.of(System.getProperty("java.class.path").split(File.pathSeparator))
+                .filter(entry -> Path.of(entry).getFileName().toString().startsWith("h2-"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("H2 is not on the benchmark classpath"));
+    }
+
+    private static String java() {
+        return ProcessHandle.current().info().command().orElse("java"); // The JVM running the benchmark
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void run(List<String> command) throws IOException, InterruptedException {
+        Process step = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        if (step.waitFor() != 0) {
+            throw new IllegalStateException("Failed (exit " + step.exitValue() + "): " + String.join(" ", command));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.via.doc1.devops_demo_cd.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.via.doc1.devops_demo_cd.model.Task;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Encoding cost and payload size of a task list per negotiable format, with and without gzip.
+// Payload sizes are reported as the encode benchmark's secondary "bytes" result, next to its score.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskWireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"none", "gzip"})
+    public String compression;
+
+    @Param({"1000"})
+    public int listSize;
+
+    private ObjectWriter listWriter;
+    private ObjectReader listReader;
+    private List<Task> tasks;
+    private byte[] wire;
+
+    @Setup
+    public void setUp() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS); // As configured by Spring Boot
+        switch (format) {
+            case "cbor" -> builder.factory(new CBORFactory());
+            case "smile" -> builder.factory(new SmileFactory());
+            default -> { }
+        }
+        ObjectMapper mapper = builder.build();
+        listWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Task.class));
+        listReader = mapper.readerFor(mapper.getTypeFactory().constructCollectionType(List.class, Task.class));
+        tasks = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            Task t = BenchmarkApplication.sampleTask(i);
+            t.setId((long) i + 1);
+            t.setLastModified(LocalDateTime.now().minusMinutes(i));
+            tasks.add(t);
+        }
+        wire = wire();
+    }
+
+    // Size of the last encoded payload. Assigned rather than counted, so the result is the size itself.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long bytes;
+    }
+
+    // What goes on the wire: the encoded list, gzipped when compression=gzip
+    @Benchmark
+    public byte[] encode(Payload payload) throws IOException {
+        byte[] body = wire();
+        payload.bytes = body.length;
+        return body;
+    }
+
+    // The receiving side: inflate if needed, then parse
+    @Benchmark
+    public List<Task> decode() throws IOException {
+        return "gzip".equals(compression)
+                ? listReader.readValue(new GZIPInputStream(new ByteArrayInputStream(wire)))
+                : listReader.readValue(wire);
+    }
+
+    private byte[] wire() throws IOException {
+        byte[] body = listWriter.writeValueAsBytes(tasks);
+        return "gzip".equals(compression) ? gzip(body) : body;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
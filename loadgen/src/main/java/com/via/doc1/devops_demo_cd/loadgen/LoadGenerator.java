@@ -0,0 +1,308 @@
+package com.via.doc1.devops_demo_cd.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.via.doc1.devops_demo_cd.DevopsDemoCdApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load generator: requests are sent on a fixed schedule (Poisson or evenly spaced arrivals) whether or
+// not earlier ones have been answered, as real clients do. Latency is measured from the scheduled send time, so a
+// stalled server shows up in the percentiles instead of silently lowering the request rate (coordinated omission).
+//
+// Options are name=value; arguments starting with -- go to the embedded application (e.g. --tasks.write-behind.enabled=true):
+//   scenario=read-heavy|write-heavy|list-heavy|all   rate=200 (requests/s)   duration=30s   warmup=10s
+//   arrivals=poisson|uniform   seed=<tasks to create first, default per scenario>   max-in-flight=2000
+//   target=http://host:8080 (an already running instance instead of the embedded one)   result=<json file>
+public final class LoadGenerator {
+
+    private static final PrintStream OUT = System.out;
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SEED_BATCH = 1000; // TaskController.MAX_BATCH_SIZE
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private LoadGenerator(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                applicationArgs.add(arg);
+            } else if (arg.contains("=")) {
+                options.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                throw new IllegalArgumentException("Expected name=value or --application.property=value, got " + arg);
+            }
+        }
+        LoadGenerator generator = new LoadGenerator(options);
+        String scenarioOption = options.getOrDefault("scenario", "all");
+        List<Scenario> scenarios = scenarioOption.equals("all") ? List.of(Scenario.values()) : List.of(Scenario.of(scenarioOption));
+
+        ArrayNode results = MAPPER.createArrayNode();
+        for (Scenario scenario : scenarios) {
+            if (options.containsKey("target")) {
+                generator.run(scenario, URI.create(options.get("target")), results);
+            } else {
+                try (ConfigurableApplicationContext context = startApplication(applicationArgs)) { // Fresh database per scenario
+                    URI base = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+                    generator.run(scenario, base, results);
+                }
+            }
+        }
+        Path result = Path.of(options.getOrDefault("result", "target/loadgen-result.json"));
+        Files.createDirectories(result.toAbsolutePath().getParent());
+        MAPPER.writeValue(result.toFile(), results);
+        OUT.println("Results written to " + result);
+    }
+
+    // Same setup as the benchmarks' BenchmarkApplication: a private in-memory H2 database on a random port.
+    // Load shedding is off unless asked for: at a fixed arrival rate its fast 503s would stand in for latency.
+    private static ConfigurableApplicationContext startApplication(List<String> extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:loadgen-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--tasks.concurrency-limit.enabled=false"));
+        args.addAll(extraArgs); // Later arguments win
+        return new SpringApplicationBuilder(DevopsDemoCdApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private void run(Scenario scenario, URI base, ArrayNode results) throws Exception {
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "30s"));
+        Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        boolean poisson = !options.getOrDefault("arrivals", "poisson").equals("uniform");
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+        int seedTasks = Integer.parseInt(options.getOrDefault("seed", Integer.toString(scenario.seedTasks)));
+
+        TaskPool pool = new TaskPool();
+        seed(base, pool, seedTasks);
+        OUT.printf("%n%s: %d tasks, %.0f requests/s (%s arrivals), %ds warm-up, %ds measured%n", scenario.label,
+                pool.size(), rate, poisson ? "poisson" : "uniform", warmup.toSeconds(), duration.toSeconds());
+
+        Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : scenario.operations()) {
+            stats.put(operation, new Stats());
+        }
+        SplittableRandom random = new SplittableRandom(42); // Same request sequence on every run
+        Set<InFlight> inFlight = ConcurrentHashMap.newKeySet();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        double offset = 0; // Schedule relative to start; a double keeps fractional intervals from drifting
+        while (start + (long) offset < end) {
+            long intended = start + (long) offset;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } // Behind schedule: send at once; the delay still counts, as latency is taken from `intended`
+            Operation operation = scenario.pick(random);
+            Stats operationStats = intended >= measureFrom ? stats.get(operation) : null; // Null during warm-up
+            if (inFlight.size() >= maxInFlight) {
+                if (operationStats != null) {
+                    operationStats.error("not-sent"); // The server is this far behind; more requests only measure the generator
+                }
+            } else {
+                InFlight sent = new InFlight(intended, operationStats);
+                inFlight.add(sent);
+                HttpRequest request = operation.request(base, pool, random);
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+                    long now = System.nanoTime();
+                    inFlight.remove(sent);
+                    if (response != null) {
+                        operation.onResponse(pool, response);
+                    }
+                    sent.record(now, response != null ? Integer.toString(response.statusCode())
+                            : failure.getClass().getSimpleName());
+                });
+            }
+            offset += poisson ? -Math.log(1 - random.nextDouble()) * meanIntervalNanos : meanIntervalNanos;
+        }
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (!inFlight.isEmpty() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        long now = System.nanoTime(); // Still unanswered: the slowest requests of all, so leaving them out would flatter the tail
+        inFlight.forEach(unanswered -> unanswered.record(now, "timeout"));
+        report(scenario, rate, duration, stats, results);
+    }
+
+    // Creates the starting data set through the batch endpoint, so it also works against a remote target
+    private void seed(URI base, TaskPool pool, int count) throws IOException, InterruptedException {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int offset = 0; offset < count; offset += SEED_BATCH) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = offset; i < Math.min(count, offset + SEED_BATCH); i++) {
+                body.append(i > offset ? "," : "").append(TaskPool.taskJson(i, random));
+            }
+            HttpRequest request = HttpRequest.newBuilder(base.resolve("/api/v1/tasks/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.append(']').toString()))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+            }
+            for (JsonNode item : MAPPER.readTree(response.body())) {
+                if (item.hasNonNull("id")) {
+                    pool.addId(item.get("id").asLong());
+                }
+            }
+        }
+    }
+
+    // Prints a percentile table and appends the scores to the result file in JMH's JSON layout, so
+    // benchmarks/compare.sh can diff two runs. The full distribution of each scenario goes to an .hgrm file.
+    private void report(Scenario scenario, double rate, Duration duration, Map<Operation, Stats> stats, ArrayNode results)
+            throws IOException {
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        Map<String, Long> totalErrors = new TreeMap<>();
+        OUT.printf("%-16s %9s %9s %9s %9s %9s %9s %9s  %s%n",
+                "operation", "count", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            Map<String, Long> errors = entry.getValue().errors();
+            total.add(histogram);
+            errors.forEach((status, count) -> totalErrors.merge(status, count, Long::sum));
+            print(entry.getKey().label, histogram, duration, errors);
+            addResults(results, scenario.label + "." + entry.getKey().label, rate, histogram, duration, errors);
+        }
+        print("total", total, duration, totalErrors);
+        addResults(results, scenario.label + ".total", rate, total, duration, totalErrors);
+
+        Path distribution = Path.of(options.getOrDefault("result", "target/loadgen-result.json")).toAbsolutePath()
+                .resolveSibling("loadgen-" + scenario.label + ".hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(distribution))) {
+            total.outputPercentileDistribution(out, 1000.0); // In milliseconds
+        }
+    }
+
+    private static void print(String label, Histogram histogram, Duration duration, Map<String, Long> errors) {
+        OUT.printf("%-16s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n", label, histogram.getTotalCount(),
+                histogram.getTotalCount() / (double) duration.toSeconds(), millis(histogram, 50), millis(histogram, 90),
+                millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0,
+                errors.isEmpty() ? "" : errors);
+    }
+
+    private static void addResults(ArrayNode results, String benchmark, double rate, Histogram histogram,
+                                   Duration duration, Map<String, Long> errors) {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        scores.put("p50", millis(histogram, 50));
+        scores.put("p99", millis(histogram, 99));
+        scores.put("p99.9", millis(histogram, 99.9));
+        scores.put("max", histogram.getMaxValue() / 1000.0);
+        scores.forEach((percentile, score) -> {
+            ObjectNode result = results.addObject();
+            result.put("benchmark", "loadgen." + benchmark);
+            result.put("mode", "latency");
+            result.putObject("params").put("percentile", percentile).put("rate", rateLabel(rate));
+            result.putObject("primaryMetric").put("score", score).put("scoreUnit", "ms");
+            result.put("count", histogram.getTotalCount());
+            result.set("errors", MAPPER.valueToTree(errors));
+        });
+        ObjectNode throughput = results.addObject();
+        throughput.put("benchmark", "loadgen." + benchmark);
+        throughput.put("mode", "thrpt");
+        throughput.putObject("params").put("percentile", "none").put("rate", rateLabel(rate));
+        throughput.putObject("primaryMetric")
+                .put("score", histogram.getTotalCount() / (double) duration.toSeconds())
+                .put("scoreUnit", "ops/s");
+    }
+
+    private static String rateLabel(double rate) {
+        return rate == Math.rint(rate) ? Long.toString((long) rate) : Double.toString(rate); // "200", not "200.0"
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    // A sent request, recorded once: when it is answered, or as a timeout if still unanswered when the report is made
+    private static final class InFlight {
+
+        private final long intended;
+        private final Stats stats; // Null during warm-up
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        InFlight(long intended, Stats stats) {
+            this.intended = intended;
+            this.stats = stats;
+        }
+
+        void record(long now, String outcome) {
+            if (stats != null && recorded.compareAndSet(false, true)) {
+                stats.record(TimeUnit.NANOSECONDS.toMicros(now - intended), outcome);
+            }
+        }
+    }
+
+    // Latencies of all sent requests (answered or timed out) and counts of the non-2xx/3xx outcomes
+    private static final class Stats {
+
+        final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        void record(long micros, String outcome) {
+            histogram.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            if (!outcome.startsWith("2") && !outcome.startsWith("3")) {
+                error(outcome);
+            }
+        }
+
+        void error(String outcome) {
+            errors.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        }
+
+        Map<String, Long> errors() {
+            Map<String, Long> counts = new TreeMap<>();
+            errors.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.via.doc1.devops_demo_cd.loadgen;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.random.RandomGenerator;
+
+// One kind of request against /api/v1/tasks. request() runs on the dispatching thread, onResponse() on the
+// HTTP client's threads, so both only touch the thread-safe TaskPool.
+enum Operation {
+
+    GET_BY_ID("get-by-id") {
+        @Override
+        HttpRequest request(URI base, TaskPool pool, RandomGenerator random) {
+            return get(base, "/api/v1/tasks/" + pool.randomId(random));
+        }
+    },
+    LIST_PAGE("list-page") { // First keyset page
+        @Override
+        HttpRequest request(URI base, TaskPool pool, RandomGenerator random) {
+            return get(base, "/api/v1/tasks?limit=" + PAGE_SIZE);
+        }
+    },
+    LIST_NEXT_PAGE("list-next-page") { // A later page, from a cursor an earlier listing returned
+        @Override
+        HttpRequest request(URI base, TaskPool pool, RandomGenerator random) {
+            String cursor = pool.randomCursor(random);
+            return cursor == null ? LIST_PAGE.request(base, pool, random)
+                    : get(base, "/api/v1/tasks?limit=" + PAGE_SIZE + "&cursor=" + cursor);
+        }
+    },
+    LIST_FIELDS("list-fields") { // Large projected page: only id and name are read
+        @Override
+        HttpRequest request(URI base, TaskPool pool, RandomGenerator random) {
+            return get(base, "/api/v1/tasks?fields=id,name&limit=1000");
+        }
+    },
+    SEARCH("search") {
+        @Override
+        HttpRequest request(URI base, TaskPool pool, RandomGenerator random) {
+            return get(base, "/api/v1/tasks/search?q=" + TaskPool.randomWord(random));
+        }
+    },
+    CREATE("create") {
+        @Override
+        HttpRequest request(URI base, TaskPool pool, RandomGenerator random) {
+            return send(base, "/api/v1/tasks", "POST", TaskPool.taskJson(random.nextInt(1_000_000), random));
+        }
+    },
+    UPDATE("update") {
+        @Override
+        HttpRequest request(URI base, TaskPool pool, RandomGenerator random) {
+            long id = pool.randomId(random);
+            return send(base, "/api/v1/tasks/" + id, "PUT", TaskPool.taskJson(random.nextInt(1_000_000), random));
+        }
+    },
+    DELETE("delete") {
+        @Override
+        HttpRequest request(URI base, TaskPool pool, RandomGenerator random) {
+            // Taken out of the pool first, so no later request in this run targets the deleted task
+            return HttpRequest.newBuilder(base.resolve("/api/v1/tasks/" + pool.takeId(random))).DELETE().build();
+        }
+    };
+
+    static final int PAGE_SIZE = 100;
+
+    final String label; // Name in the report and the result file
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    abstract HttpRequest request(URI base, TaskPool pool, RandomGenerator random);
+
+    // Feeds what a response tells about the data set back into the pool
+    void onResponse(TaskPool pool, HttpResponse<String> response) {
+        if (this == CREATE && response.statusCode() == 201) {
+            pool.addId(TaskPool.idOf(response.body()));
+        }
+        response.headers().firstValue("X-Next-Cursor").ifPresent(pool::addCursor);
+    }
+
+    private static HttpRequest get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).header("Accept", "application/json").GET().build();
+    }
+
+    private static HttpRequest send(URI base, String path, String method, String json) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
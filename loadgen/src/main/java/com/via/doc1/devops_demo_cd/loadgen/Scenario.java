@@ -0,0 +1,57 @@
+package com.via.doc1.devops_demo_cd.loadgen;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+import static com.via.doc1.devops_demo_cd.loadgen.Operation.*;
+
+// Request mixes; weights are relative. seedTasks is the table size the scenario starts from unless seed=... is given.
+enum Scenario {
+
+    READ_HEAVY("read-heavy", 10_000,
+            GET_BY_ID, 70, LIST_PAGE, 10, SEARCH, 10, CREATE, 5, UPDATE, 5),
+    WRITE_HEAVY("write-heavy", 10_000,
+            CREATE, 40, UPDATE, 30, DELETE, 10, GET_BY_ID, 20),
+    LIST_HEAVY("list-heavy", 200_000, // Large table: paging and projections, where query plans matter
+            LIST_PAGE, 30, LIST_NEXT_PAGE, 40, LIST_FIELDS, 20, GET_BY_ID, 10);
+
+    final String label;
+    final int seedTasks;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    Scenario(String label, int seedTasks, Object... mix) {
+        this.label = label;
+        this.seedTasks = seedTasks;
+        this.operations = new Operation[mix.length / 2];
+        this.cumulativeWeights = new int[mix.length / 2];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = (Operation) mix[2 * i];
+            total += (Integer) mix[2 * i + 1];
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Operation pick(RandomGenerator random) {
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    Operation[] operations() {
+        return operations.clone();
+    }
+
+    static Scenario of(String label) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.label.equals(label))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown scenario " + label + ", expected one of "
+                        + Arrays.stream(values()).map(scenario -> scenario.label).toList()));
+    }
+}
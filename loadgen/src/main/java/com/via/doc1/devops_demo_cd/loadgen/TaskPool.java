@@ -0,0 +1,77 @@
+package com.via.doc1.devops_demo_cd.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.random.RandomGenerator;
+
+// Ids of the tasks that exist in the application, and recently seen page cursors, for picking request targets
+final class TaskPool {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] WORDS = {"deploy", "review", "invoice", "backup", "release", "report", "migrate", "audit"};
+
+    private long[] ids = new long[1024];
+    private int size; // Guarded by this
+    private final AtomicReferenceArray<String> cursors = new AtomicReferenceArray<>(256); // Ring of recent cursors
+    private final AtomicInteger nextCursor = new AtomicInteger();
+
+    synchronized void addId(long id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+
+    synchronized long randomId(RandomGenerator random) {
+        return size == 0 ? 0 : ids[random.nextInt(size)]; // 0 never exists: an empty pool shows up as 404s
+    }
+
+    synchronized long takeId(RandomGenerator random) {
+        if (size == 0) {
+            return 0;
+        }
+        int index = random.nextInt(size);
+        long id = ids[index];
+        ids[index] = ids[--size];
+        return id;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    void addCursor(String cursor) {
+        cursors.set(Math.floorMod(nextCursor.getAndIncrement(), cursors.length()), cursor);
+    }
+
+    String randomCursor(RandomGenerator random) {
+        return cursors.get(random.nextInt(cursors.length())); // Null until enough pages were listed
+    }
+
+    static String randomWord(RandomGenerator random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    // A task body with a few searchable words and a realistic description length
+    static String taskJson(int i, RandomGenerator random) {
+        ObjectNode task = MAPPER.createObjectNode()
+                .put("name", "Load task " + i + " " + randomWord(random))
+                .put("description", "Generated to " + randomWord(random) + " and " + randomWord(random)
+                        + " the task list under load, with enough text to resemble a real task description " + i);
+        return task.toString();
+    }
+
+    static long idOf(String taskJson) {
+        try {
+            return MAPPER.readTree(taskJson).path("id").asLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+#!/bin/sh
+# Compares throughput and latency of platform threads vs. virtual threads at high concurrency.
+#
+# Prerequisites: a running PostgreSQL (docker compose up -d db), a packaged jar (mvn package
+# -Dmaven.test.skip) and the 'hey' load generator (https://github.com/rakyll/hey) on the PATH.
+#
+# Usage: scripts/compare-threading.sh [concurrency] [duration]
+#
+# Load shedding is turned off, so every request waits for its turn as it would without a limiter; with it on,
+# most of the load would be answered by fast 503s and counted as throughput. The status code counts are printed
+# with the results, so any responses other than 200 still show.
+set -eu
+
+CONCURRENCY=${1:-400}
+DURATION=${2:-60s}
+JAR=${JAR:-target/devops-demo-cd-v1.0.0.jar}
+BASE_URL=http://localhost:8080/api/v1/tasks
+# A keyset page always reaches the database; single-task reads would mostly be cache hits
+TARGET_URL=${TARGET_URL:-$BASE_URL?limit=50}
+
+wait_for_app() {
+    for _ in $(seq 1 60); do
+        curl -sf http://localhost:8080/actuator/health > /dev/null && return 0
+        sleep 1
+    done
+    echo "Application did not start" >&2
+    exit 1
+}
+
+seed_tasks() {
+    for i in $(seq 1 200); do
+        curl -sf -o /dev/null -H 'Content-Type: application/json' \
+            -d "{\"name\":\"Load task $i\",\"description\":\"Seeded by compare-threading.sh\"}" "$BASE_URL"
+    done
+}
+
+run() {
+    mode=$1
+    profiles=$2
+    echo "=== $mode threads (profiles: ${profiles:-default})"
+    SPRING_PROFILES_ACTIVE=$profiles java -jar "$JAR" --tasks.concurrency-limit.enabled=false \
+        > "target/compare-$mode.log" 2>&1 &
+    app_pid=$!
+    wait_for_app
+    [ "$mode" = platform ] && seed_tasks
+    hey -z 10s -c "$CONCURRENCY" "$TARGET_URL" > /dev/null # Warm-up (JIT, pools)
+    hey -z "$DURATION" -c "$CONCURRENCY" "$TARGET_URL" | tee "target/compare-$mode.txt" \
+        | grep -E 'Requests/sec|  (50|99)% in|^  \[[0-9]+\]' # Throughput, latency, responses per status code
+    kill "$app_pid"
+    wait "$app_pid" 2> /dev/null || true
+}
+
+mkdir -p target
+run platform ""
+run virtual virtual-threads
+echo "Full reports: target/compare-platform.txt, target/compare-virtual.txt"
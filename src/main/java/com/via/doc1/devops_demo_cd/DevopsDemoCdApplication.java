@@ -2,14 +2,26 @@ package com.via.doc1.devops_demo_cd;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.auditing.DateTimeProvider;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 
 @SpringBootApplication
-@EnableJpaAuditing
 public class DevopsDemoCdApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(DevopsDemoCdApplication.class, args);
 	}
 
+	// Audit timestamps at the precision the database stores (microseconds), so values read back
+	// compare equal to the ones written, e.g. when used as keyset pagination cursors.
+	// Also the clock of the plain JDBC and R2DBC writes, which bypass JPA auditing.
+	@Bean
+	public DateTimeProvider auditingDateTimeProvider() {
+		return () -> Optional.of(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+	}
+
 }
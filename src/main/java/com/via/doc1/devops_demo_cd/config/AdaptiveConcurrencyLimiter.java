@@ -0,0 +1,90 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Gradient concurrency limit, after Gradient2 in Netflix's concurrency-limits: it compares the latency of recent
+// requests with a slow long-term average. While they agree the limit may grow by about sqrt(limit) per request;
+// once recent requests get slower than tolerance x the average (requests queueing for a Hikari connection),
+// the limit shrinks in proportion. No fixed latency target is needed.
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 10;  // Requests in the recent latency average
+    private static final double LONG_WINDOW = 600;  // Requests in the long-term latency average
+    private static final double SMOOTHING = 0.2;    // Share of each new estimate that goes into the limit
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+
+    private volatile double limit;
+    private double shortRtt; // Guarded by this
+    private double longRtt;  // Guarded by this
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                      MeterRegistry meterRegistry) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        Gauge.builder("tasks.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Concurrent requests allowed before new ones get 503")
+                .tag("kind", name)
+                .register(meterRegistry);
+        Gauge.builder("tasks.concurrency.in-flight", inFlight, AtomicInteger::get)
+                .description("Requests currently being handled")
+                .tag("kind", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("tasks.concurrency.rejected")
+                .description("Requests answered with 503 because the limit was reached")
+                .tag("kind", name)
+                .register(meterRegistry);
+    }
+
+    // Takes a slot, or counts a rejection and returns false when the limit is reached
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Gives the slot back and feeds the request's latency into the limit
+    public void release(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        onSample(rttNanos, current);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized void onSample(long rttNanos, int inFlightAtCompletion) {
+        if (longRtt == 0) {
+            shortRtt = longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) / SHORT_WINDOW;
+        longRtt += (shortRtt - longRtt) / LONG_WINDOW;
+        if (longRtt > 2 * shortRtt) { // Latency fell well below the average (e.g. after an outage); catch up faster
+            longRtt *= 0.95;
+        }
+        if (inFlightAtCompletion < limit / 2) {
+            return; // Far below the limit: latency says nothing about whether it is too high or too low
+        }
+        double gradient = Math.clamp(tolerance * longRtt / shortRtt, 0.5, 1.0);
+        double estimate = limit * gradient + Math.sqrt(limit); // sqrt(limit): headroom to probe upwards
+        limit = Math.clamp(limit * (1 - SMOOTHING) + estimate * SMOOTHING, minLimit, maxLimit);
+    }
+}
@@ -0,0 +1,29 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.via.doc1.devops_demo_cd.repository.TaskRepository;
+import com.via.doc1.devops_demo_cd.service.TaskBatchLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@Profile("!reactive & !log-store")
+@EnableConfigurationProperties(BatchLoaderProperties.class)
+public class BatchLoaderConfig {
+
+    // Each batch query runs in a read-only transaction of its own (on a replica when replicas are enabled);
+    // the entities it returns are detached when it commits and can be handed to every waiting caller
+    @Bean
+    public TaskBatchLoader taskBatchLoader(TaskRepository taskRepository, PlatformTransactionManager transactionManager,
+                                           BatchLoaderProperties properties, MeterRegistry meterRegistry) {
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+        transactions.setReadOnly(true);
+        transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return new TaskBatchLoader(taskRepository, transactions, properties, meterRegistry);
+    }
+}
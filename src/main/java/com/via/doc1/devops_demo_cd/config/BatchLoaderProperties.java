@@ -0,0 +1,15 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// tasks.batch-loader.* - micro-batching of task lookups by id (TaskBatchLoader)
+@ConfigurationProperties("tasks.batch-loader")
+public record BatchLoaderProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2ms") Duration window,     // How long the first lookup of a batch waits for others to join
+        @DefaultValue("100") int maxBatchSize     // Ids per IN (...) query; a full batch is sent without waiting
+) {
+}
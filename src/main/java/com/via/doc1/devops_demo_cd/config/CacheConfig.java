@@ -0,0 +1,15 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+// Ordering the cache interceptor outside the transaction interceptor (only the service timer runs earlier)
+// means a cache hit returns before a transaction (and a pooled connection) is opened
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE + 1)
+public class CacheConfig {
+
+    // Task entities by id; size, TTL and stats recording come from spring.cache.caffeine.spec
+    public static final String TASKS_CACHE = "tasks";
+}
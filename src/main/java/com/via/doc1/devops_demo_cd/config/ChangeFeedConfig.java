@@ -0,0 +1,12 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// The services prune tombstones on a schedule (pruneTombstones, every tasks.changes.prune-interval)
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ChangeFeedProperties.class)
+public class ChangeFeedConfig {
+}
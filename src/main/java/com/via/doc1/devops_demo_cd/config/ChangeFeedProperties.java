@@ -0,0 +1,15 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// tasks.changes.* - bounds of the delta sync feed (GET /api/v1/tasks/changes)
+@ConfigurationProperties("tasks.changes")
+public record ChangeFeedProperties(
+        @DefaultValue("5s") Duration settleTime,          // Longest write transaction: younger changes wait for the next poll
+        @DefaultValue("30d") Duration tombstoneRetention, // How long deletions stay in the feed; older positions get 410
+        @DefaultValue("1h") Duration pruneInterval        // How often tombstones past the retention are removed
+) {
+}
@@ -0,0 +1,32 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                                                                 ObjectMapper objectMapper,
+                                                                                 MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter reads = new AdaptiveConcurrencyLimiter("read", properties.readLimit(),
+                properties.minLimit(), properties.maxLimit(), properties.tolerance(), meterRegistry);
+        AdaptiveConcurrencyLimiter writes = new AdaptiveConcurrencyLimiter("write", properties.writeLimit(),
+                properties.minLimit(), properties.maxLimit(), properties.tolerance(), meterRegistry);
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(reads, writes, properties.retryAfter(), objectMapper));
+        registration.addUrlPatterns("/api/v1/tasks", "/api/v1/tasks/*"); // Actuator and health checks are never shed
+        registration.setEnabled(properties.enabled());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE); // Shed before any other work is done for the request
+        return registration;
+    }
+}
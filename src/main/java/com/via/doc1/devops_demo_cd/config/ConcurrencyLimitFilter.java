@@ -0,0 +1,121 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Load shedding for the task API: requests beyond the adaptive limit are answered 503 right away instead of
+// waiting in a Tomcat thread for a connection while Postgres is slow. Reads and writes have separate limits,
+// so a write backlog does not starve reads (or the other way round).
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final String CHANGE_FEED_PATH = "/api/v1/tasks/changes";
+    private static final Set<String> TRANSFER_PATHS = Set.of("/api/v1/tasks/export", "/api/v1/tasks/import");
+
+    private final AdaptiveConcurrencyLimiter reads;
+    private final AdaptiveConcurrencyLimiter writes;
+    private final Duration retryAfter;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter reads, AdaptiveConcurrencyLimiter writes,
+                                  Duration retryAfter, ObjectMapper objectMapper) {
+        this.reads = reads;
+        this.writes = writes;
+        this.retryAfter = retryAfter;
+        this.objectMapper = objectMapper;
+    }
+
+    // The change feed stays open for as long as the client listens, and an export or import takes minutes: they
+    // would hold a slot and skew the latency the limits adapt to. Only the event stream itself is exempt on the
+    // changes path: other requests are limited whatever their Accept header says.
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (TRANSFER_PATHS.contains(path)) {
+            return true;
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (!"GET".equals(request.getMethod()) || accept == null || !CHANGE_FEED_PATH.equals(path)) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream().anyMatch(MediaType.TEXT_EVENT_STREAM::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) { // Answered 406 further down, counted like any other request
+            return false;
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = SAFE_METHODS.contains(request.getMethod()) ? reads : writes;
+        if (!limiter.tryAcquire()) {
+            reject(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = isAsyncStarted(request);
+        } finally {
+            if (async) { // NDJSON streaming: the database work runs after this thread has returned
+                request.getAsyncContext().addListener(new ReleaseOnComplete(limiter, start));
+            } else {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    // Same body as GlobalExceptionHandler's errors; the request never reaches MVC, so it is written here
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "Service Unavailable");
+        body.put("message", "Too many concurrent requests, retry later");
+        body.put("path", request.getRequestURI());
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, retryAfter.toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private record ReleaseOnComplete(AdaptiveConcurrencyLimiter limiter, long start) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) { // Also follows onTimeout and onError
+            limiter.release(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// tasks.concurrency-limit.* - adaptive limits on concurrent task API requests, one for reads and one for writes
+@ConfigurationProperties("tasks.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") int readLimit,      // Starting limits; each adapts to measured latency from there
+        @DefaultValue("10") int writeLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("200") int maxLimit,      // No point above the Tomcat worker thread count
+        @DefaultValue("2.0") double tolerance,  // Latency may reach this multiple of its long-term average before limits shrink
+        @DefaultValue("1s") Duration retryAfter // Retry-After on 503 responses
+) {
+}
@@ -0,0 +1,58 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.stat.Statistics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+// Exports Hibernate's Statistics (enabled with hibernate.generate_statistics) as hibernate.* meters.
+// Hibernate 6.6 no longer ships hibernate-micrometer, so Spring Boot's own binding is not available.
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetrics(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "hibernate.statements", "JDBC statements prepared", Statistics::getPrepareStatementCount);
+        counter(registry, "hibernate.flushes", "Session flushes", Statistics::getFlushCount);
+        counter(registry, "hibernate.transactions", "Completed transactions", Statistics::getTransactionCount);
+        counter(registry, "hibernate.sessions.open", "Sessions opened", Statistics::getSessionOpenCount);
+        counter(registry, "hibernate.connections.obtained", "JDBC connections obtained", Statistics::getConnectCount);
+
+        counter(registry, "hibernate.query.executions", "Executed HQL/JPQL and native queries", Statistics::getQueryExecutionCount);
+        TimeGauge.builder("hibernate.query.executions.max", statistics, TimeUnit.MILLISECONDS, Statistics::getQueryExecutionMaxTime)
+                .description("Slowest query execution since startup")
+                .register(registry);
+
+        entityCounter(registry, "load", Statistics::getEntityLoadCount);
+        entityCounter(registry, "fetch", Statistics::getEntityFetchCount);
+        entityCounter(registry, "insert", Statistics::getEntityInsertCount);
+        entityCounter(registry, "update", Statistics::getEntityUpdateCount);
+        entityCounter(registry, "delete", Statistics::getEntityDeleteCount);
+        counter(registry, "hibernate.optimistic.failures", "StaleObjectStateExceptions", Statistics::getOptimisticFailureCount);
+
+        Gauge.builder("hibernate.sessions.active", statistics, s -> s.getSessionOpenCount() - s.getSessionCloseCount())
+                .description("Sessions currently open")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description, ToDoubleFunction<Statistics> value) {
+        FunctionCounter.builder(name, statistics, value).description(description).register(registry);
+    }
+
+    private void entityCounter(MeterRegistry registry, String operation, ToDoubleFunction<Statistics> value) {
+        FunctionCounter.builder("hibernate.entities", statistics, value)
+                .description("Entity operations")
+                .tag("operation", operation)
+                .register(registry);
+    }
+}
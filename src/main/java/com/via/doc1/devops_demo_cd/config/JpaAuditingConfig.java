@@ -0,0 +1,13 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+// Fills Task.lastModified on JPA saves. Kept off the application class because auditing needs an
+// EntityManagerFactory, and the reactive and log-store profiles run without JPA.
+@Configuration
+@Profile("!reactive & !log-store")
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
+public class JpaAuditingConfig {
+}
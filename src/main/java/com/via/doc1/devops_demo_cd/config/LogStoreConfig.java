@@ -0,0 +1,30 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.via.doc1.devops_demo_cd.repository.InMemoryTaskSearchRepository;
+import com.via.doc1.devops_demo_cd.repository.TaskLogStore;
+import com.via.doc1.devops_demo_cd.repository.TaskSearchRepository;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.auditing.DateTimeProvider;
+
+// The log-store profile: tasks in an embedded, memory-mapped log (TaskLogStore) instead of a database.
+// The profile's properties leave out the JDBC/JPA auto-configuration; the servlet web stack is unchanged.
+@Configuration
+@Profile("log-store")
+@EnableConfigurationProperties(LogStoreProperties.class)
+public class LogStoreConfig {
+
+    // Opening replays the log; closing (on shutdown) flushes it. Bound to the registry as a MeterBinder.
+    @Bean
+    public TaskLogStore taskLogStore(LogStoreProperties properties, DateTimeProvider auditingDateTimeProvider) {
+        return new TaskLogStore(properties, auditingDateTimeProvider);
+    }
+
+    // No full-text search without a database: the in-process index, built from the log on first search
+    @Bean
+    public TaskSearchRepository taskSearchRepository(TaskLogStore taskLogStore) {
+        return new InMemoryTaskSearchRepository(taskLogStore::findAll);
+    }
+}
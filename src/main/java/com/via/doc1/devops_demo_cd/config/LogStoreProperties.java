@@ -0,0 +1,20 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// tasks.log-store.* - the embedded task log used by the log-store profile instead of a database
+@ConfigurationProperties("tasks.log-store")
+public record LogStoreProperties(
+        @DefaultValue("data/tasks") Path directory,        // Holds tasks.log; created if missing
+        @DefaultValue("64MB") DataSize initialSize,        // Mapped up front; doubled whenever it fills up (2GB at most)
+        @DefaultValue("true") boolean sync,                // Flush each write to disk before answering
+        @DefaultValue("0.5") double compactionThreshold,   // Compact once superseded records are this share of the log...
+        @DefaultValue("16MB") DataSize compactionMinSize,  // ...and the log has grown past this size
+        @DefaultValue("30s") Duration compactionInterval   // How often the background compactor checks
+) {
+}
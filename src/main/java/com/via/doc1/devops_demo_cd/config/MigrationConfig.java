@@ -0,0 +1,22 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Whether Flyway migrates at startup (tasks.migrations.enabled, on by default). Decided when the context starts, not
+// when it is built: Spring AOT fixes spring.flyway.enabled's condition at build time, so the AOT training run
+// (application-training.properties) switches migrations off here instead.
+@Configuration
+public class MigrationConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${tasks.migrations.enabled:true}") boolean enabled) {
+        return flyway -> {
+            if (enabled) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+@Configuration
+@Profile("!reactive & !log-store") // Both run without a JDBC DataSource
+@ConditionalOnProperty(name = "tasks.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class QueryBudgetConfig {
+
+    // Wraps the DataSource that JPA, JdbcTemplate and the transaction manager use (with read replicas, the routing
+    // proxy in front of all pools), so every statement is seen exactly once. Static: post-processors are created
+    // before the other beans of this class.
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(new QueryCounter()).build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(QueryBudgetProperties properties) {
+        FilterRegistrationBean<QueryBudgetFilter> registration = new FilterRegistrationBean<>(
+                new QueryBudgetFilter(properties.headers(), properties.maxStatements(), properties.maxDbTime()));
+        registration.addUrlPatterns("/api/v1/tasks", "/api/v1/tasks/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20); // Around everything that could touch the database
+        return registration;
+    }
+}
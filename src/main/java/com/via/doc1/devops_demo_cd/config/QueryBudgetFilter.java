@@ -0,0 +1,114 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.Locale;
+
+// Counts the JDBC statements and database time of each request (QueryCounter) and logs requests over budget.
+// With headers on, the counts go out as X-DB-Statements and Server-Timing (db;dur=<ms>, shown by browser dev tools).
+// Headers cannot follow the body, so they are set when the body is first written, or at the end if there is none.
+// Streamed bodies (NDJSON, SSE, export) are written by other threads once this one has returned, and their
+// statements are not counted: those requests are left out of the budget, and their headers only cover the work
+// done before the stream started.
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    static final String STATEMENTS_HEADER = "X-DB-Statements";
+    static final String TIMING_HEADER = "Server-Timing";
+
+    private final boolean headers;
+    private final int maxStatements;
+    private final Duration maxDbTime;
+
+    public QueryBudgetFilter(boolean headers, int maxStatements, Duration maxDbTime) {
+        this.headers = headers;
+        this.maxStatements = maxStatements;
+        this.maxDbTime = maxDbTime;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.Counts counts = QueryCounter.start();
+        HeaderWritingResponse counted = headers ? new HeaderWritingResponse(response, counts) : null;
+        boolean streamed = false;
+        try {
+            filterChain.doFilter(request, counted != null ? counted : response);
+            streamed = isAsyncStarted(request);
+        } finally {
+            QueryCounter.stop();
+            if (counted != null) {
+                counted.writeHeaders(); // Responses without a body (204, 304), and streams not yet written to
+            }
+            if (!streamed && (counts.statements() > maxStatements || counts.millis() > maxDbTime.toMillis())) {
+                log.warn("Query budget exceeded: {} {} ran {} statements in {} ms of database time (budget: {} statements, {} ms)",
+                        request.getMethod(), request.getRequestURI(), counts.statements(), format(counts.millis()),
+                        maxStatements, maxDbTime.toMillis());
+            }
+        }
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.2f", millis);
+    }
+
+    private static final class HeaderWritingResponse extends HttpServletResponseWrapper {
+
+        private final QueryCounter.Counts counts;
+        private boolean written;
+
+        HeaderWritingResponse(HttpServletResponse response, QueryCounter.Counts counts) {
+            super(response);
+            this.counts = counts;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, Integer.toString(counts.statements()));
+            addHeader(TIMING_HEADER, "db;dur=" + format(counts.millis()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+    }
+}
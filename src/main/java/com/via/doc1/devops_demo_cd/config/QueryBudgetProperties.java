@@ -0,0 +1,16 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// tasks.query-budget.* - JDBC statements and database time per task API request, and the budget they are held to
+@ConfigurationProperties("tasks.query-budget")
+public record QueryBudgetProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("false") boolean headers,       // X-DB-Statements and Server-Timing on every response (debugging)
+        @DefaultValue("10") int maxStatements,        // A request over either limit is logged as a warning
+        @DefaultValue("200ms") Duration maxDbTime
+) {
+}
@@ -0,0 +1,58 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+// Counts the JDBC statements a thread executes, and their time, between start() and stop(). Registered with the
+// datasource-proxy wrapper around the application's DataSource; QueryBudgetFilter brackets each request with it.
+// A batch (executeBatch) is one statement: one round trip. Statements run by other threads are not counted, such as
+// the write-behind flusher; a batched lookup counts toward the request whose thread leads the batch.
+public class QueryCounter implements QueryExecutionListener {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    public static Counts start() {
+        Counts counts = new Counts();
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    public static void stop() {
+        CURRENT.remove(); // Worker threads are reused
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.startedAt = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements++;
+            counts.nanos += System.nanoTime() - counts.startedAt;
+        }
+    }
+
+    // Only touched by the thread it was started on
+    public static final class Counts {
+        private int statements;
+        private long nanos;
+        private long startedAt;
+
+        public int statements() {
+            return statements;
+        }
+
+        public double millis() {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.via.doc1.devops_demo_cd.repository.R2dbcTaskRepository;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+// The reactive profile: WebFlux functional endpoints (TaskRouter) on R2DBC instead of Spring MVC on JPA.
+// The profile's properties switch the web application type and leave out the JDBC/JPA auto-configuration.
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    // Reactor Netty, not Tomcat: spring-boot-starter-web keeps Tomcat on the classpath, and Boot would otherwise
+    // prefer it for the reactive server too. server.* settings (port, compression) still apply.
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    // The database is told by the connection factory's metadata, so choosing costs no connection
+    @Bean
+    public R2dbcTaskRepository r2dbcTaskRepository(DatabaseClient databaseClient, DateTimeProvider auditingDateTimeProvider) {
+        boolean postgres = "PostgreSQL".equals(databaseClient.getConnectionFactory().getMetadata().getName());
+        return new R2dbcTaskRepository(databaseClient, auditingDateTimeProvider, postgres);
+    }
+}
@@ -0,0 +1,61 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+// Read-your-writes on top of replica routing: a write request gets a cookie holding "read from the primary until",
+// and while a client presents an unexpired one its read-only transactions skip the replicas, which may not have
+// replayed that write yet. The writing request itself is pinned too.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "tasks-read-primary-until";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) { // Before the chain runs: the response may be committed by the time it returns
+            Cookie cookie = new Cookie(COOKIE, Long.toString(now + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+        }
+        ReplicaDataSource.pinToPrimary(write || recentlyWrote(request, now));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaDataSource.pinToPrimary(false); // Worker threads are reused
+        }
+    }
+
+    // The expiry is checked here as well: non-browser clients may keep sending a cookie past its Max-Age
+    private static boolean recentlyWrote(HttpServletRequest request, long now) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(cookie.getValue()) > now;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The read-only side of the routing DataSource (see ReplicaRoutingConfig). Hands out a connection from a healthy
+// replica, picked round-robin or by fewest connections in use. Falls back to the primary when every replica is
+// down, and while the current request is pinned to the primary for read-your-writes.
+// A replica whose pool fails to connect is taken out at once; a background check puts it back once it answers again.
+public class ReplicaDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final DataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final ReplicaProperties.Selection selection;
+    private final Set<HikariDataSource> down = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-health-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaDataSource(DataSource primary, List<HikariDataSource> replicas, ReplicaProperties.Selection selection,
+                             Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        long interval = healthCheckInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // Set per request by ReadYourWritesFilter; always cleared again in a finally block
+    public static void pinToPrimary(boolean pinned) {
+        if (pinned) {
+            PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        } else {
+            PINNED_TO_PRIMARY.remove();
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED_TO_PRIMARY.get());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        HikariDataSource replica = isPinnedToPrimary() ? null : select();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) { // Unreachable or pool exhausted: fail over now, let the health check bring it back
+            down.add(replica);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica pools use their configured credentials");
+    }
+
+    List<String> healthyReplicas() {
+        return replicas.stream().filter(replica -> !down.contains(replica)).map(HikariDataSource::getPoolName).toList();
+    }
+
+    private HikariDataSource select() {
+        List<HikariDataSource> healthy = replicas.stream().filter(replica -> !down.contains(replica)).toList();
+        if (healthy.isEmpty()) {
+            return null;
+        }
+        return switch (selection) {
+            case ROUND_ROBIN -> healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+            case LEAST_CONNECTIONS -> healthy.stream().min(Comparator.comparingInt(ReplicaDataSource::inUse)).orElseThrow();
+        };
+    }
+
+    private static int inUse(HikariDataSource replica) {
+        HikariPoolMXBean pool = replica.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+    }
+
+    void checkHealth() {
+        for (HikariDataSource replica : replicas) {
+            try (Connection connection = replica.getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    down.remove(replica);
+                } else {
+                    down.add(replica);
+                }
+            } catch (SQLException e) {
+                down.add(replica);
+            }
+        }
+    }
+
+    // tasks.datasource.replica.up{pool=replica-N}: 1 while the replica receives reads, 0 while failed over
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (HikariDataSource replica : replicas) {
+            Gauge.builder("tasks.datasource.replica.up", () -> down.contains(replica) ? 0 : 1)
+                    .description("Whether the replica is serving read-only transactions")
+                    .tag("pool", replica.getPoolName())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,27 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+// tasks.replicas.* - read-only transactions served by read replicas (off unless enabled)
+@ConfigurationProperties("tasks.replicas")
+public record ReplicaProperties(
+        boolean enabled,
+        @DefaultValue List<String> urls,                  // JDBC URLs of the replicas; none means all reads use the primary
+        String username,                                  // Defaults to spring.datasource.username
+        String password,                                  // Defaults to spring.datasource.password
+        @DefaultValue("ROUND_ROBIN") Selection selection, // How a read picks among the healthy replicas
+        @DefaultValue("10") int maximumPoolSize,          // Per replica
+        @DefaultValue("2s") Duration connectionTimeout,   // Short, so a dead replica costs little before failing over
+        @DefaultValue("5s") Duration healthCheckInterval, // How often replicas that failed are retried
+        @DefaultValue("0s") Duration readYourWrites       // > 0: a client's reads go to the primary this long after its write
+) {
+
+    public enum Selection {
+        ROUND_ROBIN,      // Rotate through the replicas
+        LEAST_CONNECTIONS // The replica with the fewest connections in use or awaited
+    }
+}
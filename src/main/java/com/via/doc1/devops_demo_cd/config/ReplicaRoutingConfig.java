@@ -0,0 +1,78 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Read-replica routing, only with tasks.replicas.enabled=true. TaskServiceImpl runs reads in
+// @Transactional(readOnly = true); the transaction manager marks those connections read-only, and the lazy
+// proxy below only fetches a physical connection at the first statement, by which time it knows which pool to use.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "tasks.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+
+    // Boot backs off from its own pool once a DataSource bean exists; build the same one from spring.datasource.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, DataSourceProperties dataSourceProperties,
+                                               ReplicaProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.urls().size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (i + 1));
+            config.setJdbcUrl(properties.urls().get(i));
+            config.setUsername(properties.username() != null ? properties.username() : dataSourceProperties.determineUsername());
+            config.setPassword(properties.password() != null ? properties.password() : dataSourceProperties.determinePassword());
+            config.setMaximumPoolSize(properties.maximumPoolSize());
+            config.setConnectionTimeout(properties.connectionTimeout().toMillis());
+            config.setInitializationFailTimeout(-1); // Start even while a replica is down; it joins once it answers
+            config.setReadOnly(true);
+            meterRegistry.ifAvailable(registry -> config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, properties.selection(), properties.healthCheckInterval());
+    }
+
+    // The DataSource JPA, JdbcTemplate and the transaction manager use: read-only transactions get a replica
+    // connection, everything else (and anything outside a transaction) the primary
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.readYourWrites()));
+        registration.setEnabled(properties.readYourWrites().isPositive()); // Optional: off with the 0s default
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10); // Before anything that could touch the database
+        return registration;
+    }
+}
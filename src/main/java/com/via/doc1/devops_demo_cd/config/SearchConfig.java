@@ -0,0 +1,30 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.via.doc1.devops_demo_cd.repository.InMemoryTaskSearchRepository;
+import com.via.doc1.devops_demo_cd.repository.PostgresTaskSearchRepository;
+import com.via.doc1.devops_demo_cd.repository.TaskRepository;
+import com.via.doc1.devops_demo_cd.repository.TaskSearchRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@Profile("!reactive & !log-store")
+public class SearchConfig {
+
+    // PostgreSQL searches a GIN-indexed tsvector column; other databases (embedded H2) fall back to an
+    // in-process inverted index. The database is told by Hibernate's dialect, so choosing costs no connection.
+    @Bean
+    public TaskSearchRepository taskSearchRepository(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+                                                     TaskRepository taskRepository) {
+        boolean postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        return postgres
+                ? new PostgresTaskSearchRepository(jdbcTemplate)
+                : new InMemoryTaskSearchRepository(taskRepository);
+    }
+}
@@ -0,0 +1,34 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.via.doc1.devops_demo_cd.repository.JdbcTaskTransferRepository;
+import com.via.doc1.devops_demo_cd.repository.PostgresTaskTransferRepository;
+import com.via.doc1.devops_demo_cd.repository.TaskRepository;
+import com.via.doc1.devops_demo_cd.repository.TaskTransferRepository;
+import com.via.doc1.devops_demo_cd.service.TaskServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@Profile("!reactive & !log-store")
+public class TaskTransferConfig {
+
+    // Bulk export/import: COPY on PostgreSQL, streamed result sets and chunked JDBC batches elsewhere (embedded H2).
+    // As in SearchConfig, Hibernate's dialect tells the database apart without a connection.
+    @Bean
+    public TaskTransferRepository taskTransferRepository(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+                                                         TaskRepository taskRepository, ObjectMapper objectMapper,
+                                                         DateTimeProvider auditingDateTimeProvider) {
+        boolean postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        return postgres
+                ? new PostgresTaskTransferRepository(jdbcTemplate, auditingDateTimeProvider, TaskServiceImpl::validate)
+                : new JdbcTaskTransferRepository(jdbcTemplate, taskRepository, objectMapper, TaskServiceImpl::validate);
+    }
+}
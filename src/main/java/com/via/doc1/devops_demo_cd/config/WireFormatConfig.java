@@ -0,0 +1,81 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Configuration
+public class WireFormatConfig {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    // Binary alternatives to JSON, selected with Accept / Content-Type: application/cbor or application/x-jackson-smile.
+    // Built from Spring Boot's Jackson builder (a fresh prototype per call) so spring.jackson.* settings apply to
+    // every format; Boot puts these converter beans in place of Spring MVC's default CBOR/Smile converters.
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    // The same formats for WebFlux in the reactive profile, which has no CBOR codec by default
+    @Bean
+    public CodecCustomizer binaryCodecsCustomizer(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        ObjectMapper cbor = builders.getObject().factory(new CBORFactory()).build();
+        ObjectMapper smile = builders.getObject().factory(new SmileFactory()).build();
+        // The media types must be named: these constructors otherwise default to JSON's
+        return configurer -> {
+            configurer.customCodecs().register(explicitCborEncoder(cbor));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile, APPLICATION_SMILE));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile, APPLICATION_SMILE));
+        };
+    }
+
+    // Jackson2CborEncoder as WebFlux needs it. Custom codecs are consulted before the default JSON one, which must
+    // stay the format of a body that names none; and its encode() rejects every publisher, although each response
+    // body here is a single value.
+    private static Jackson2CborEncoder explicitCborEncoder(ObjectMapper cbor) {
+        return new Jackson2CborEncoder(cbor, MediaType.APPLICATION_CBOR) {
+            @Override
+            public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+                return mimeType != null && mimeType.isConcrete() && super.canEncode(elementType, mimeType);
+            }
+
+            @Override
+            public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                           ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+                if (inputStream instanceof Mono<?> value) {
+                    return value.map(body -> encodeValue(body, bufferFactory, elementType, mimeType, hints)).flux();
+                }
+                return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+            }
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.via.doc1.devops_demo_cd.service.TaskService;
+import com.via.doc1.devops_demo_cd.service.TaskWriteBehindQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(WriteBehindProperties.class)
+public class WriteBehindConfig {
+
+    // Always defined so TaskController can ask isEnabled(); the flusher thread only runs when enabled
+    @Bean
+    public TaskWriteBehindQueue taskWriteBehindQueue(TaskService taskService, WriteBehindProperties properties,
+                                                     MeterRegistry meterRegistry) {
+        return new TaskWriteBehindQueue(taskService, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,17 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// tasks.write-behind.* - asynchronous ingestion for POST /api/v1/tasks (off unless enabled)
+@ConfigurationProperties("tasks.write-behind")
+public record WriteBehindProperties(
+        boolean enabled,
+        @DefaultValue("10000") int capacity,          // Queued tasks before POSTs get 429
+        @DefaultValue("500") int batchSize,           // Flush as soon as this many tasks are waiting...
+        @DefaultValue("200ms") Duration maxDelay,     // ...or when the oldest one has waited this long
+        @DefaultValue("10m") Duration statusRetention // How long ingestion status URLs keep answering
+) {
+}
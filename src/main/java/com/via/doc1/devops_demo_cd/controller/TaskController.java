@@ -1,46 +1,293 @@
 package com.via.doc1.devops_demo_cd.controller;
 
 import com.via.doc1.devops_demo_cd.model.Task; // Importing the Task entity
+import com.via.doc1.devops_demo_cd.service.TaskChangeFeed;
 import com.via.doc1.devops_demo_cd.service.TaskService; // Importing the Task service
+import com.via.doc1.devops_demo_cd.service.TaskWriteBehindQueue;
 import com.via.doc1.devops_demo_cd.exception.ResourceNotFoundException; // Custom exception for not found resources
+import com.via.doc1.devops_demo_cd.exception.InvalidRequestException;
+import com.via.doc1.devops_demo_cd.model.BatchItemResult;
+import com.via.doc1.devops_demo_cd.model.IngestionStatus;
+import com.via.doc1.devops_demo_cd.model.TaskChanges;
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskPage;
+import com.via.doc1.devops_demo_cd.model.TaskProjection;
+import com.via.doc1.devops_demo_cd.model.TaskProjectionPage;
+import com.via.doc1.devops_demo_cd.model.TaskQuery;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @RestController // Combines @Controller and @ResponseBody, handles JSON conversion
+@Profile("!reactive") // The reactive profile serves the same routes from TaskRouter
 @RequestMapping("/api/v1/tasks") // Base path for all endpoints in this controller
 @RequiredArgsConstructor // Lombok: Constructor injection for TaskService
 public class TaskController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final int MAX_SEARCH_LIMIT = 100;
+    static final int MAX_SEARCH_OFFSET = 10_000; // Ranked results are not worth paging through beyond this
+    static final List<String> QUERY_PARAMS = List.of("namePrefix", "nameContains", "modifiedSince", "modifiedBefore", "sort");
+
     private final TaskService taskService;
+    private final TaskWriteBehindQueue writeBehindQueue; // Only used when tasks.write-behind.enabled=true
+    private final TaskChangeFeed changeFeed; // Server-Sent Events subscribers
+    private final ObjectMapper objectMapper; // Spring's configured mapper, used for NDJSON streaming
 
-    // GET /api/v1/tasks - List all tasks
+    // GET /api/v1/tasks - One keyset page of tasks (limit defaults to DEFAULT_PAGE_SIZE); X-Next-Cursor leads to the
+    // next one, so no listing returns the whole table at once (the NDJSON stream and /export return all of it).
+    // ?namePrefix=&nameContains=&modifiedSince=&modifiedBefore=&sort=-name filter and sort in the database.
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks() {
-        List<Task> tasks = taskService.getAllTasks();
-        return ResponseEntity.ok(tasks); // 200 OK with list in body
+    public ResponseEntity<List<Task>> getAllTasks(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  @RequestParam(required = false) String namePrefix,
+                                                  @RequestParam(required = false) String nameContains,
+                                                  @RequestParam(required = false) String modifiedSince,
+                                                  @RequestParam(required = false) String modifiedBefore,
+                                                  @RequestParam(required = false) String sort,
+                                                  WebRequest request) {
+        TaskQuery query = taskQuery(namePrefix, nameContains, modifiedSince, modifiedBefore, sort);
+        int pageSize = pageSize(limit);
+        TaskPage page = query == null
+                ? taskService.getTasksPage(cursor, pageSize)
+                : taskService.findTasks(query, cursor, pageSize);
+        String etag = TaskEtags.forTasks(page.tasks());
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified, body is not serialized
+        }
+        return pageResponse(etag, page.nextCursor(), pageSize).body(page.tasks()); // 200 OK with the page in body
+    }
+
+    // Filters and sort of a listing, or null when none is given (the plain listing in lastModified order)
+    static TaskQuery taskQuery(String namePrefix, String nameContains, String modifiedSince, String modifiedBefore,
+                               String sort) {
+        if (namePrefix == null && nameContains == null && modifiedSince == null && modifiedBefore == null && sort == null) {
+            return null;
+        }
+        return TaskQuery.of(namePrefix, nameContains, modifiedSince, modifiedBefore, sort);
+    }
+
+    // The other listings (fields, ids) do not filter; rejected rather than silently returning unfiltered rows
+    static void checkNoQuery(Function<String, Optional<String>> parameter, String listing) {
+        if (QUERY_PARAMS.stream().anyMatch(name -> parameter.apply(name).isPresent())) {
+            throw new InvalidRequestException(listing + " cannot be combined with " + String.join(", ", QUERY_PARAMS));
+        }
+    }
+
+    // GET /api/v1/tasks?fields=id,name,lastModified - Same paged listing, reduced to the requested fields.
+    // Only those columns are read from the database and no entities are loaded.
+    @GetMapping(params = {"fields", "!ids"})
+    public ResponseEntity<List<TaskProjection>> getTaskFields(@RequestParam String fields,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              WebRequest request) {
+        checkNoQuery(name -> Optional.ofNullable(request.getParameter(name)), "fields");
+        Set<TaskField> selected = TaskField.parse(fields);
+        int pageSize = pageSize(limit);
+        TaskProjectionPage page = taskService.getTasksPage(cursor, pageSize, selected);
+        String etag = TaskEtags.forProjections(page.tasks(), selected);
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+        return pageResponse(etag, page.nextCursor(), pageSize).body(page.tasks());
+    }
+
+    // GET /api/v1/tasks?ids=1,2,3 - The tasks with these ids, in the order given; ids that do not exist are left out.
+    // Concurrent multi-gets and single-task reads share batched IN (...) queries, see TaskBatchLoader.
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<Task>> getTasksByIds(@RequestParam String ids,
+                                                    @RequestParam(required = false) String fields,
+                                                    WebRequest request) {
+        if (fields != null) {
+            throw new InvalidRequestException("fields cannot be combined with ids");
+        }
+        checkNoQuery(name -> Optional.ofNullable(request.getParameter(name)), "ids");
+        List<Task> tasks = taskService.getTasksByIds(parseIds(ids));
+        String etag = TaskEtags.forTasks(tasks);
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+        return ResponseEntity.ok().eTag(etag).body(tasks);
+    }
+
+    static List<Long> parseIds(String ids) {
+        List<Long> parsed = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            if (!id.isBlank()) {
+                try {
+                    parsed.add(Long.parseLong(id.strip()));
+                } catch (NumberFormatException e) {
+                    throw new InvalidRequestException("ids must be a comma-separated list of task ids");
+                }
+            }
+        }
+        if (parsed.isEmpty() || parsed.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("ids must list between 1 and " + MAX_BATCH_SIZE + " task ids");
+        }
+        return parsed;
+    }
+
+    static int pageSize(Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return pageSize;
+    }
+
+    // 200 with the ETag and, unless this is the last page, the cursor of the next one (header and Link)
+    private static ResponseEntity.BodyBuilder pageResponse(String etag, String nextCursor, int pageSize) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (nextCursor != null) {
+            URI next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", nextCursor)
+                    .replaceQueryParam("limit", pageSize)
+                    .build()
+                    .toUri();
+            response.header(NEXT_CURSOR_HEADER, nextCursor)
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response;
+    }
+
+    // GET /api/v1/tasks (Accept: application/x-ndjson) - Stream all tasks, one JSON document per line
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTasks() {
+        ObjectWriter writer = objectMapper.writerFor(Task.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE); // Let the response buffer decide when to flush
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // The container owns the response stream
+                generator.setRootValueSeparator(null); // Lines are separated explicitly below
+                taskService.streamAllTasks(task -> {
+                    try {
+                        writer.writeValue(generator, task);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // GET /api/v1/tasks/search?q=words&limit=20&offset=0 - Ranked full-text search over name and description
+    @GetMapping("/search")
+    public ResponseEntity<List<Task>> searchTasks(@RequestParam(required = false) String q,
+                                                  @RequestParam(defaultValue = "" + DEFAULT_SEARCH_LIMIT) int limit,
+                                                  @RequestParam(defaultValue = "0") int offset) {
+        checkSearch(q, limit, offset);
+        List<Task> results = taskService.searchTasks(q, limit, offset);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasNextSearchPage(results, limit, offset)) {
+            URI next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("offset", offset + limit)
+                    .replaceQueryParam("limit", limit)
+                    .build()
+                    .toUri();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(results); // 200 OK with the matches, best first
+    }
+
+    static void checkSearch(String q, int limit, int offset) {
+        if (q == null || q.isBlank()) {
+            throw new InvalidRequestException("q must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        if (offset < 0 || offset > MAX_SEARCH_OFFSET) {
+            throw new InvalidRequestException("offset must be between 0 and " + MAX_SEARCH_OFFSET);
+        }
+    }
+
+    static boolean hasNextSearchPage(List<Task> results, int limit, int offset) {
+        return results.size() == limit && offset + limit <= MAX_SEARCH_OFFSET; // A full page: there may be more
+    }
+
+    // GET /api/v1/tasks/changes?since=...&limit=100 - Delta sync: tasks created or updated and tombstones of tasks
+    // deleted after `since` (a previous response's `since`, or an ISO-8601 timestamp; omitted for everything).
+    // 410 Gone when `since` is older than tasks.changes.tombstone-retention: the client has to resync from scratch.
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChanges> getChanges(@RequestParam(required = false) String since,
+                                                  @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskService.getChanges(since, pageSize(limit), false)); // Malformed since: 400 from TaskCursor
     }
 
-    // GET /api/v1/tasks/{id} - Get a single task by ID
+    // GET /api/v1/tasks/changes (Accept: text/event-stream) - Live "saved"/"deleted" events; a reconnect with
+    // Last-Event-ID (or a first request with ?since=) replays the changes made after that position first
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                    @RequestParam(required = false) String since) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    // GET /api/v1/tasks/{id} - Get a single task by ID, honoring If-None-Match / If-Modified-Since
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<Task> getTaskById(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            // Conditional request: compare against the stored timestamp before loading the entity
+            Optional<LocalDateTime> version = taskService.getTaskVersion(id);
+            if (version.isPresent()
+                    && request.checkNotModified(TaskEtags.forTask(id, version.get()), TaskEtags.epochMillis(version.get()))) {
+                return null; // 304 Not Modified
+            }
+        }
         Task task = taskService.getTaskById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
-        return ResponseEntity.ok(task); // 200 OK with task in body
+        // Validators come from the task actually served, which may be a cached copy
+        return ResponseEntity.ok()
+                .eTag(TaskEtags.forTask(task.getId(), task.getLastModified()))
+                .lastModified(TaskEtags.epochMillis(task.getLastModified()))
+                .body(task); // 200 OK with task in body
     }
 
-    // POST /api/v1/tasks - Add a new task
+    // POST /api/v1/tasks - Add a new task (202 Accepted with a status URL in write-behind mode)
     @PostMapping
-    public ResponseEntity<Task> createTask(@RequestBody Task task) {
+    public ResponseEntity<?> createTask(@RequestBody Task task) {
         // Basic validation (could be enhanced with @Valid and validation annotations)
         if (task.getName() == null || task.getName().trim().isEmpty()) {
              return ResponseEntity.badRequest().build(); // Or throw specific validation exception
         }
+        if (writeBehindQueue.isEnabled()) {
+            String ticket = writeBehindQueue.submit(task); // 429 when the queue is full
+            URI status = ServletUriComponentsBuilder
+                    .fromCurrentRequest()
+                    .path("/ingestion/{ticket}")
+                    .buildAndExpand(ticket)
+                    .toUri();
+            return ResponseEntity.accepted().location(status).body(IngestionStatus.pending(ticket));
+        }
         Task createdTask = taskService.createTask(task);
 
         // Build the location URI for the newly created resource
@@ -53,6 +300,14 @@ public class TaskController {
         return ResponseEntity.created(location).body(createdTask); // 201 Created with location header and task body
     }
 
+    // GET /api/v1/tasks/ingestion/{ticket} - Outcome of a write-behind POST (PENDING, CREATED with taskId, or FAILED)
+    @GetMapping("/ingestion/{ticket}")
+    public ResponseEntity<IngestionStatus> getIngestionStatus(@PathVariable String ticket) {
+        IngestionStatus status = writeBehindQueue.status(ticket)
+                .orElseThrow(() -> new ResourceNotFoundException("Unknown or expired ingestion ticket: " + ticket));
+        return ResponseEntity.ok(status);
+    }
+
     // PUT /api/v1/tasks/{id} - Update an existing task
     @PutMapping("/{id}")
     public ResponseEntity<Task> updateTask(@PathVariable Long id, @RequestBody Task taskDetails) {
@@ -64,6 +319,17 @@ public class TaskController {
         return ResponseEntity.ok(updatedTask); // 200 OK with updated task
     }
 
+    // PATCH /api/v1/tasks/{id} - Update only the fields present in the body (null/absent = unchanged)
+    @PatchMapping("/{id}")
+    public ResponseEntity<Task> patchTask(@PathVariable Long id, @RequestBody Task changes) {
+        if (changes.getName() != null && changes.getName().trim().isEmpty()) {
+            return ResponseEntity.badRequest().build(); // A name may be omitted, but not blanked
+        }
+        Task patchedTask = taskService.patchTask(id, changes)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+        return ResponseEntity.ok(patchedTask); // 200 OK with the full updated task
+    }
+
     // DELETE /api/v1/tasks/{id} - Delete a task by ID
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
@@ -73,4 +339,48 @@ public class TaskController {
         }
         return ResponseEntity.noContent().build(); // 204 No Content
     }
-}
+
+    // DELETE /api/v1/tasks?modifiedBefore=2025-01-01T00:00:00 - Delete every task last modified before the cutoff.
+    // The filter is required, so a bare DELETE on the collection cannot wipe the table.
+    @DeleteMapping
+    public ResponseEntity<Map<String, Integer>> deleteTasksModifiedBefore(@RequestParam(required = false) String modifiedBefore) {
+        if (modifiedBefore == null) {
+            throw new InvalidRequestException("modifiedBefore is required");
+        }
+        LocalDateTime cutoff;
+        try {
+            cutoff = LocalDateTime.parse(modifiedBefore);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("modifiedBefore must be an ISO-8601 local date-time");
+        }
+        int deleted = taskService.deleteTasksModifiedBefore(cutoff);
+        return ResponseEntity.ok(Map.of("deleted", deleted)); // 200 OK with the number of deleted tasks
+    }
+
+    // POST /api/v1/tasks/batch - Create many tasks in one transaction
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> createTasks(@RequestBody List<Task> tasks) {
+        checkBatchSize(tasks);
+        return ResponseEntity.ok(taskService.createTasks(tasks)); // 200 OK with one result per item
+    }
+
+    // PUT /api/v1/tasks/batch - Update many tasks (each carrying its id) in one transaction
+    @PutMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> updateTasks(@RequestBody List<Task> tasks) {
+        checkBatchSize(tasks);
+        return ResponseEntity.ok(taskService.updateTasks(tasks));
+    }
+
+    // DELETE /api/v1/tasks/batch - Delete many tasks by id in one transaction
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> deleteTasks(@RequestBody List<Long> ids) {
+        checkBatchSize(ids);
+        return ResponseEntity.ok(taskService.deleteTasks(ids));
+    }
+
+    static void checkBatchSize(List<?> items) {
+        if (items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " items");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.via.doc1.devops_demo_cd.controller;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskProjection;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Validators for conditional GETs. They are derived from (id, lastModified) only, which changes on every
+// write, so they can be computed without serializing the body.
+final class TaskEtags {
+
+    private TaskEtags() {
+    }
+
+    // Strong ETag of a single task; quotes are added by ResponseEntity/checkNotModified
+    static String forTask(Long id, LocalDateTime lastModified) {
+        return id + "-" + micros(lastModified);
+    }
+
+    // Strong ETag of a list response: a digest over the (id, lastModified) pairs in response order,
+    // so it also changes when a task drops out of the list
+    static String forTasks(List<Task> tasks) {
+        return digest("tasks", tasks, Task::getId, Task::getLastModified);
+    }
+
+    // Same for a projection; the field list is part of the tag because it changes the representation
+    static String forProjections(List<TaskProjection> tasks, Set<TaskField> fields) {
+        String prefix = fields.stream().map(TaskField::attribute).collect(Collectors.joining(".", "tasks[", "]"));
+        return digest(prefix, tasks, TaskProjection::id, TaskProjection::lastModified);
+    }
+
+    private static <T> String digest(String prefix, List<T> tasks, Function<T, Long> id, Function<T, LocalDateTime> lastModified) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer pair = ByteBuffer.allocate(2 * Long.BYTES);
+            for (T task : tasks) {
+                pair.clear();
+                pair.putLong(id.apply(task)).putLong(micros(lastModified.apply(task)));
+                digest.update(pair.array());
+            }
+            return prefix + "-" + tasks.size() + "-" + HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be available", e);
+        }
+    }
+
+    // Auditing timestamps are LocalDateTime in the JVM's zone
+    static long epochMillis(LocalDateTime lastModified) {
+        return lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long micros(LocalDateTime lastModified) {
+        return lastModified.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + lastModified.getNano() / 1_000;
+    }
+}
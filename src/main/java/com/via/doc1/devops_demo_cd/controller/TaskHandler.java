@@ -0,0 +1,334 @@
+package com.via.doc1.devops_demo_cd.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.via.doc1.devops_demo_cd.config.WireFormatConfig;
+import com.via.doc1.devops_demo_cd.exception.InvalidRequestException;
+import com.via.doc1.devops_demo_cd.exception.ResourceNotFoundException;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskQuery;
+import com.via.doc1.devops_demo_cd.service.ReactiveTaskChangeFeed;
+import com.via.doc1.devops_demo_cd.service.ReactiveTaskService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// TaskController's endpoints as WebFlux handler functions, routed by TaskRouter in the reactive profile.
+// Parameters, validation, status codes, headers and bodies are the same; the limits and checks are TaskController's.
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class TaskHandler {
+
+    private static final ParameterizedTypeReference<List<Task>> TASK_LIST = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<List<Long>> ID_LIST = new ParameterizedTypeReference<>() {
+    };
+    // Response formats in order of preference, as negotiated for TaskController by WireFormatConfig's converters
+    private static final List<MediaType> BODY_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            WireFormatConfig.APPLICATION_SMILE);
+
+    private final ReactiveTaskService taskService;
+    private final ReactiveTaskChangeFeed changeFeed; // Server-Sent Events subscribers
+    private final ObjectMapper objectMapper; // Spring's configured mapper, used for NDJSON streaming
+
+    // GET /api/v1/tasks - One keyset page of tasks (cursor/limit), a filtered and sorted page (see TaskController),
+    // a projected page (fields) or a multi-get (ids)
+    public Mono<ServerResponse> getAllTasks(ServerRequest request) {
+        Optional<String> ids = request.queryParam("ids");
+        if (ids.isPresent()) {
+            TaskController.checkNoQuery(request::queryParam, "ids");
+            return getTasksByIds(request, ids.get());
+        }
+        Optional<String> fields = request.queryParam("fields");
+        if (fields.isPresent()) {
+            TaskController.checkNoQuery(request::queryParam, "fields");
+            return getTaskFields(request, fields.get());
+        }
+        String cursor = request.queryParam("cursor").orElse(null);
+        Integer limit = intParam(request, "limit");
+        TaskQuery query = TaskController.taskQuery(request.queryParam("namePrefix").orElse(null),
+                request.queryParam("nameContains").orElse(null), request.queryParam("modifiedSince").orElse(null),
+                request.queryParam("modifiedBefore").orElse(null), request.queryParam("sort").orElse(null));
+        int pageSize = TaskController.pageSize(limit);
+        return (query == null ? taskService.getTasksPage(cursor, pageSize) : taskService.findTasks(query, cursor, pageSize))
+                .flatMap(page -> pageResponse(request, TaskEtags.forTasks(page.tasks()), page.nextCursor(), pageSize, page.tasks()));
+    }
+
+    private Mono<ServerResponse> getTaskFields(ServerRequest request, String fields) {
+        Set<TaskField> selected = TaskField.parse(fields);
+        String cursor = request.queryParam("cursor").orElse(null);
+        Integer limit = intParam(request, "limit");
+        int pageSize = TaskController.pageSize(limit);
+        return taskService.getTasksPage(cursor, pageSize, selected)
+                .flatMap(page -> pageResponse(request, TaskEtags.forProjections(page.tasks(), selected),
+                        page.nextCursor(), pageSize, page.tasks()));
+    }
+
+    private Mono<ServerResponse> getTasksByIds(ServerRequest request, String ids) {
+        if (request.queryParam("fields").isPresent()) {
+            throw new InvalidRequestException("fields cannot be combined with ids");
+        }
+        return taskService.getTasksByIds(TaskController.parseIds(ids)).collectList()
+                .flatMap(tasks -> withEtag(request, TaskEtags.forTasks(tasks), tasks));
+    }
+
+    // GET /api/v1/tasks (Accept: application/x-ndjson) - Every task, one JSON document per line. Rows are read
+    // as the client takes them: the connection's demand flows back to the database query.
+    public Mono<ServerResponse> streamAllTasks(ServerRequest request) {
+        ObjectWriter writer = objectMapper.writerFor(Task.class);
+        BodyInserter<Flux<Task>, ReactiveHttpOutputMessage> lines = (message, context) ->
+                message.writeWith(taskService.streamAllTasks().map(task -> line(message.bufferFactory(), writer, task)));
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(lines);
+    }
+
+    private static DataBuffer line(DataBufferFactory bufferFactory, ObjectWriter writer, Task task) {
+        try {
+            byte[] json = writer.writeValueAsBytes(task);
+            return bufferFactory.allocateBuffer(json.length + 1).write(json).write((byte) '\n');
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // GET /api/v1/tasks/search?q=words&limit=20&offset=0 - Ranked full-text search over name and description
+    public Mono<ServerResponse> searchTasks(ServerRequest request) {
+        String q = request.queryParam("q").orElse(null);
+        Integer limitParam = intParam(request, "limit");
+        Integer offsetParam = intParam(request, "offset");
+        int limit = limitParam != null ? limitParam : TaskController.DEFAULT_SEARCH_LIMIT;
+        int offset = offsetParam != null ? offsetParam : 0;
+        TaskController.checkSearch(q, limit, offset);
+        return taskService.searchTasks(q, limit, offset).collectList().flatMap(results -> {
+            ServerResponse.BodyBuilder response = ok(request);
+            if (TaskController.hasNextSearchPage(results, limit, offset)) {
+                URI next = UriComponentsBuilder.fromUri(request.uri())
+                        .replaceQueryParam("offset", offset + limit)
+                        .replaceQueryParam("limit", limit)
+                        .build(true)
+                        .toUri();
+                response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+            return response.bodyValue(results); // 200 OK with the matches, best first
+        });
+    }
+
+    // GET /api/v1/tasks/changes?since=...&limit=100 - Delta sync
+    public Mono<ServerResponse> getChanges(ServerRequest request) {
+        int limit = TaskController.pageSize(intParam(request, "limit"));
+        return taskService.getChanges(request.queryParam("since").orElse(null), limit, false)
+                .flatMap(changes -> ok(request).bodyValue(changes));
+    }
+
+    // GET /api/v1/tasks/changes (Accept: text/event-stream) - Live events, after a replay from Last-Event-ID or ?since=
+    public Mono<ServerResponse> streamChanges(ServerRequest request) {
+        String lastEventId = request.headers().firstHeader("Last-Event-ID");
+        String since = lastEventId != null ? lastEventId : request.queryParam("since").orElse(null);
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(BodyInserters.fromServerSentEvents(changeFeed.subscribe(since)));
+    }
+
+    // GET /api/v1/tasks/{id} - One task, honoring If-None-Match / If-Modified-Since
+    public Mono<ServerResponse> getTaskById(ServerRequest request) {
+        Long id = taskId(request);
+        Mono<ServerResponse> notModified = Mono.empty();
+        if (request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.headers().firstHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            // Conditional request: compare against the stored timestamp before loading the row
+            notModified = taskService.getTaskVersion(id).flatMap(version ->
+                    request.checkNotModified(instant(version), TaskEtags.forTask(id, version)));
+        }
+        return notModified.switchIfEmpty(Mono.defer(() -> taskService.getTaskById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Task not found with id: " + id)))
+                .flatMap(task -> ok(request)
+                        .eTag(TaskEtags.forTask(task.getId(), task.getLastModified()))
+                        .lastModified(instant(task.getLastModified()))
+                        .bodyValue(task))));
+    }
+
+    // POST /api/v1/tasks - Add a new task. Write-behind is servlet-only: here every create is synchronous (201).
+    public Mono<ServerResponse> createTask(ServerRequest request) {
+        return request.bodyToMono(Task.class).defaultIfEmpty(new Task()).flatMap(task -> {
+            if (task.getName() == null || task.getName().trim().isEmpty()) {
+                return ServerResponse.badRequest().build();
+            }
+            return taskService.createTask(task).flatMap(created -> ServerResponse
+                    .created(request.uriBuilder().path("/{id}").build(created.getId()))
+                    .contentType(bodyType(request))
+                    .bodyValue(created)); // 201 Created with location header and task body
+        });
+    }
+
+    // GET /api/v1/tasks/ingestion/{ticket} - No write-behind tickets are ever issued in the reactive profile
+    public Mono<ServerResponse> getIngestionStatus(ServerRequest request) {
+        throw new ResourceNotFoundException("Unknown or expired ingestion ticket: " + request.pathVariable("ticket"));
+    }
+
+    // PUT /api/v1/tasks/{id} - Update an existing task
+    public Mono<ServerResponse> updateTask(ServerRequest request) {
+        Long id = taskId(request);
+        return request.bodyToMono(Task.class).defaultIfEmpty(new Task()).flatMap(taskDetails -> {
+            if (taskDetails.getName() == null || taskDetails.getName().trim().isEmpty()) {
+                return ServerResponse.badRequest().build();
+            }
+            return found(request, id, taskService.updateTask(id, taskDetails));
+        });
+    }
+
+    // PATCH /api/v1/tasks/{id} - Update only the fields present in the body (null/absent = unchanged)
+    public Mono<ServerResponse> patchTask(ServerRequest request) {
+        Long id = taskId(request);
+        return request.bodyToMono(Task.class).defaultIfEmpty(new Task()).flatMap(changes -> {
+            if (changes.getName() != null && changes.getName().trim().isEmpty()) {
+                return ServerResponse.badRequest().build(); // A name may be omitted, but not blanked
+            }
+            return found(request, id, taskService.patchTask(id, changes));
+        });
+    }
+
+    // DELETE /api/v1/tasks/{id} - Delete a task by ID
+    public Mono<ServerResponse> deleteTask(ServerRequest request) {
+        Long id = taskId(request);
+        return taskService.deleteTask(id).flatMap(deleted -> {
+            if (!deleted) {
+                return Mono.error(new ResourceNotFoundException("Task not found with id: " + id));
+            }
+            return ServerResponse.noContent().build(); // 204 No Content
+        });
+    }
+
+    // DELETE /api/v1/tasks?modifiedBefore=2025-01-01T00:00:00 - Delete every task last modified before the cutoff
+    public Mono<ServerResponse> deleteTasksModifiedBefore(ServerRequest request) {
+        String modifiedBefore = request.queryParam("modifiedBefore")
+                .orElseThrow(() -> new InvalidRequestException("modifiedBefore is required"));
+        LocalDateTime cutoff;
+        try {
+            cutoff = LocalDateTime.parse(modifiedBefore);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("modifiedBefore must be an ISO-8601 local date-time");
+        }
+        return taskService.deleteTasksModifiedBefore(cutoff)
+                .flatMap(deleted -> ok(request).bodyValue(Map.of("deleted", deleted)));
+    }
+
+    // POST /api/v1/tasks/batch - Create many tasks in one transaction
+    public Mono<ServerResponse> createTasks(ServerRequest request) {
+        return request.bodyToMono(TASK_LIST).defaultIfEmpty(List.of()).flatMap(tasks -> {
+            TaskController.checkBatchSize(tasks);
+            return taskService.createTasks(tasks);
+        }).flatMap(results -> ok(request).bodyValue(results)); // 200 OK with one result per item
+    }
+
+    // PUT /api/v1/tasks/batch - Update many tasks (each carrying its id) in one transaction
+    public Mono<ServerResponse> updateTasks(ServerRequest request) {
+        return request.bodyToMono(TASK_LIST).defaultIfEmpty(List.of()).flatMap(tasks -> {
+            TaskController.checkBatchSize(tasks);
+            return taskService.updateTasks(tasks);
+        }).flatMap(results -> ok(request).bodyValue(results));
+    }
+
+    // DELETE /api/v1/tasks/batch - Delete many tasks by id in one transaction
+    public Mono<ServerResponse> deleteTasks(ServerRequest request) {
+        return request.bodyToMono(ID_LIST).defaultIfEmpty(List.of()).flatMap(ids -> {
+            TaskController.checkBatchSize(ids);
+            return taskService.deleteTasks(ids);
+        }).flatMap(results -> ok(request).bodyValue(results));
+    }
+
+    private static Mono<ServerResponse> found(ServerRequest request, Long id, Mono<Task> task) {
+        return task.switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Task not found with id: " + id)))
+                .flatMap(updated -> ok(request).bodyValue(updated)); // 200 OK with the updated task
+    }
+
+    // 200 with the ETag, or 304 Not Modified when the client's If-None-Match matches it
+    private static Mono<ServerResponse> withEtag(ServerRequest request, String etag, Object body) {
+        return request.checkNotModified(etag)
+                .switchIfEmpty(Mono.defer(() -> ok(request).eTag(etag).bodyValue(body)));
+    }
+
+    // Same, plus the cursor of the next page (header and Link) unless this is the last page
+    private static Mono<ServerResponse> pageResponse(ServerRequest request, String etag, String nextCursor, int pageSize,
+                                                     Object body) {
+        return request.checkNotModified(etag).switchIfEmpty(Mono.defer(() -> {
+            ServerResponse.BodyBuilder response = ok(request).eTag(etag);
+            if (nextCursor != null) {
+                URI next = UriComponentsBuilder.fromUri(request.uri())
+                        .replaceQueryParam("cursor", nextCursor)
+                        .replaceQueryParam("limit", pageSize)
+                        .build(true) // The request URI is already encoded; cursors are URL-safe Base64
+                        .toUri();
+                response.header(TaskController.NEXT_CURSOR_HEADER, nextCursor)
+                        .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+            return response.bodyValue(body);
+        }));
+    }
+
+    private static ServerResponse.BodyBuilder ok(ServerRequest request) {
+        return ServerResponse.ok().contentType(bodyType(request));
+    }
+
+    // Handler functions do no content negotiation of their own: pick the most preferred acceptable format
+    private static MediaType bodyType(ServerRequest request) {
+        List<MediaType> accepted = new ArrayList<>(request.headers().accept());
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType acceptable : accepted) {
+            for (MediaType bodyType : BODY_TYPES) {
+                if (acceptable.isCompatibleWith(bodyType)) {
+                    return bodyType;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON; // No Accept, or nothing acceptable: JSON, as TaskController does
+    }
+
+    private static Integer intParam(ServerRequest request, String name) {
+        Optional<String> value = request.queryParam(name);
+        try {
+            return value.map(Integer::valueOf).orElse(null);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException(name + " must be an integer");
+        }
+    }
+
+    private static Long taskId(ServerRequest request) {
+        String id = request.pathVariable("id");
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid task id: " + id);
+        }
+    }
+
+    private static Instant instant(LocalDateTime lastModified) {
+        return Instant.ofEpochMilli(TaskEtags.epochMillis(lastModified));
+    }
+}
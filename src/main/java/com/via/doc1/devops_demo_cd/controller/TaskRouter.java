@@ -0,0 +1,71 @@
+package com.via.doc1.devops_demo_cd.controller;
+
+import com.via.doc1.devops_demo_cd.exception.ChangesExpiredException;
+import com.via.doc1.devops_demo_cd.exception.GlobalExceptionHandler;
+import com.via.doc1.devops_demo_cd.exception.InvalidRequestException;
+import com.via.doc1.devops_demo_cd.exception.ResourceNotFoundException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+// Routes of TaskController for the reactive profile. Routes are tried in order, so the literal paths come
+// before /{id} and the streaming variants before the plain GETs they share a path with.
+@Configuration
+@Profile("reactive")
+public class TaskRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> taskRoutes(TaskHandler handler) {
+        return RouterFunctions.route()
+                .path("/api/v1/tasks", tasks -> tasks
+                        .GET("", accepts(MediaType.APPLICATION_NDJSON), handler::streamAllTasks)
+                        .GET("", handler::getAllTasks)
+                        .POST("", handler::createTask)
+                        .DELETE("", handler::deleteTasksModifiedBefore)
+                        .GET("/search", handler::searchTasks)
+                        .GET("/changes", accepts(MediaType.TEXT_EVENT_STREAM), handler::streamChanges)
+                        .GET("/changes", handler::getChanges)
+                        .GET("/ingestion/{ticket}", handler::getIngestionStatus)
+                        .POST("/batch", handler::createTasks)
+                        .PUT("/batch", handler::updateTasks)
+                        .DELETE("/batch", handler::deleteTasks)
+                        .GET("/{id}", handler::getTaskById)
+                        .PUT("/{id}", handler::updateTask)
+                        .PATCH("/{id}", handler::patchTask)
+                        .DELETE("/{id}", handler::deleteTask))
+                .filter(TaskRouter::mapErrors)
+                .build();
+    }
+
+    // Like produces= on TaskController: only an explicit Accept of the type selects the route, not */*
+    private static RequestPredicate accepts(MediaType mediaType) {
+        return request -> request.headers().accept().stream().anyMatch(mediaType::equalsTypeAndSubtype);
+    }
+
+    // GlobalExceptionHandler's responses; handlers may throw before returning a Mono, hence the defer
+    private static Mono<ServerResponse> mapErrors(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        return Mono.defer(() -> next.handle(request)).onErrorResume(error -> switch (error) {
+            case ResourceNotFoundException e -> error(request, HttpStatus.NOT_FOUND, e.getMessage());
+            case InvalidRequestException e -> error(request, HttpStatus.BAD_REQUEST, e.getMessage());
+            case ChangesExpiredException e -> error(request, HttpStatus.GONE, e.getMessage());
+            case ServerWebInputException e -> error(request, HttpStatus.BAD_REQUEST, e.getReason()); // Unreadable body
+            default -> error(request, HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred: " + error.getMessage());
+        });
+    }
+
+    private static Mono<ServerResponse> error(ServerRequest request, HttpStatus status, String message) {
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(GlobalExceptionHandler.errorBody(status, message, request.path()));
+    }
+}
@@ -0,0 +1,51 @@
+package com.via.doc1.devops_demo_cd.controller;
+
+import com.via.doc1.devops_demo_cd.model.TaskTransferFormat;
+import com.via.doc1.devops_demo_cd.service.TaskTransferService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+@RestController
+@Profile("!reactive & !log-store") // Only the JDBC stack: COPY needs a pgjdbc connection
+@RequestMapping("/api/v1/tasks")
+@RequiredArgsConstructor
+public class TaskTransferController {
+
+    private final TaskTransferService taskTransferService;
+
+    // GET /api/v1/tasks/export?format=csv|ndjson - Every task, streamed from the database as it is read
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(defaultValue = "csv") String format) {
+        TaskTransferFormat transferFormat = TaskTransferFormat.parse(format);
+        StreamingResponseBody body = out -> taskTransferService.exportTasks(transferFormat, out);
+        return ResponseEntity.ok()
+                .contentType(transferFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("tasks." + transferFormat.extension()).build().toString())
+                .body(body);
+    }
+
+    // POST /api/v1/tasks/import (Content-Type: text/csv or application/x-ndjson) - Creates a task per record,
+    // all or nothing; the body is read as a stream, never buffered whole
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Map<String, Long>> importTasks(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                         InputStream body) throws IOException {
+        long imported = taskTransferService.importTasks(TaskTransferFormat.of(contentType), body);
+        return ResponseEntity.ok(Map.of("imported", imported)); // 200 OK with the number of created tasks
+    }
+}
@@ -4,29 +4,82 @@ import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
 @ControllerAdvice // Makes this class handle exceptions globally
+@Profile("!reactive") // The reactive stack maps errors in TaskRouter, to the same body
 public class GlobalExceptionHandler {
 
+    // Error response body: timestamp, status, error (reason phrase), message and the request path
+    public static Map<String, Object> errorBody(HttpStatus status, String message, String path) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        body.put("path", path);
+        return body;
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Object> handleResourceNotFoundException(
             ResourceNotFoundException ex, WebRequest request) {
 
-        Map<String, Object> body = new LinkedHashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.NOT_FOUND.value());
-        body.put("error", "Not Found");
-        body.put("message", ex.getMessage());
-        body.put("path", request.getDescription(false).replace("uri=", "")); // Get requested path
+        Map<String, Object> body = errorBody(HttpStatus.NOT_FOUND, ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")); // Get requested path
 
         return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<Object> handleInvalidRequestException(
+            InvalidRequestException ex, WebRequest request) {
+
+        Map<String, Object> body = errorBody(HttpStatus.BAD_REQUEST, ex.getMessage(),
+                request.getDescription(false).replace("uri=", ""));
+
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ChangesExpiredException.class)
+    public ResponseEntity<Object> handleChangesExpiredException(
+            ChangesExpiredException ex, WebRequest request) {
+
+        Map<String, Object> body = errorBody(HttpStatus.GONE, ex.getMessage(),
+                request.getDescription(false).replace("uri=", ""));
+
+        return new ResponseEntity<>(body, HttpStatus.GONE);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Object> handleTooManyRequestsException(
+            TooManyRequestsException ex, WebRequest request) {
+
+        Map<String, Object> body = errorBody(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(),
+                request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1") // Seconds; the queue drains continuously
+                .body(body);
+    }
+
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class) // A body type the endpoint does not consume
+    public ResponseEntity<Object> handleHttpMediaTypeNotSupportedException(
+            HttpMediaTypeNotSupportedException ex, WebRequest request) {
+
+        Map<String, Object> body = errorBody(HttpStatus.UNSUPPORTED_MEDIA_TYPE, ex.getMessage(),
+                request.getDescription(false).replace("uri=", ""));
+
+        return new ResponseEntity<>(body, ex.getHeaders(), HttpStatus.UNSUPPORTED_MEDIA_TYPE); // Accept lists the supported types
+    }
+
     // Add handlers for other exceptions (e.g., ValidationException, DataIntegrityViolationException) if needed
     /*
     @ExceptionHandler(MethodArgumentNotValidException.class) // Example for validation
@@ -41,12 +94,9 @@ public class GlobalExceptionHandler {
      public ResponseEntity<Object> handleGenericException(
              Exception ex, WebRequest request) {
 
-         Map<String, Object> body = new LinkedHashMap<>();
-         body.put("timestamp", LocalDateTime.now());
-         body.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-         body.put("error", "Internal Server Error");
-         body.put("message", "An unexpected error occurred: " + ex.getMessage()); // Avoid exposing too much detail in prod
-         body.put("path", request.getDescription(false).replace("uri=", ""));
+         Map<String, Object> body = errorBody(HttpStatus.INTERNAL_SERVER_ERROR,
+                 "An unexpected error occurred: " + ex.getMessage(), // Avoid exposing too much detail in prod
+                 request.getDescription(false).replace("uri=", ""));
 
          // Log the full stack trace for debugging
          // log.error("Unhandled exception:", ex);
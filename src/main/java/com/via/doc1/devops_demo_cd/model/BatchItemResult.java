@@ -0,0 +1,16 @@
+package com.via.doc1.devops_demo_cd.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Outcome of one item in a batch request; status mirrors the HTTP status the single-item endpoint would return
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(int index, Long id, int status, Task task, String error) {
+
+    public static BatchItemResult success(int index, Long id, int status, Task task) {
+        return new BatchItemResult(index, id, status, task, null);
+    }
+
+    public static BatchItemResult failure(int index, Long id, int status, String error) {
+        return new BatchItemResult(index, id, status, null, error);
+    }
+}
@@ -0,0 +1,22 @@
+package com.via.doc1.devops_demo_cd.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// State of a task accepted by the write-behind queue; taskId is set once it was created, error once it failed
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record IngestionStatus(String ticket, State state, Long taskId, String error) {
+
+    public enum State { PENDING, CREATED, FAILED }
+
+    public static IngestionStatus pending(String ticket) {
+        return new IngestionStatus(ticket, State.PENDING, null, null);
+    }
+
+    public static IngestionStatus created(String ticket, Long taskId) {
+        return new IngestionStatus(ticket, State.CREATED, taskId, null);
+    }
+
+    public static IngestionStatus failed(String ticket, String error) {
+        return new IngestionStatus(ticket, State.FAILED, null, error);
+    }
+}
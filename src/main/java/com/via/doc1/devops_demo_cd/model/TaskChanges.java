@@ -0,0 +1,9 @@
+package com.via.doc1.devops_demo_cd.model;
+
+import java.util.List;
+
+// One page of GET /api/v1/tasks/changes: tasks created or updated and tombstones of tasks deleted after the
+// requested position, in change order. "since" is the position to pass on the next poll; hasMore means
+// more changes are already waiting and the client should poll again right away.
+public record TaskChanges(List<Task> changed, List<TaskTombstone> deleted, String since, boolean hasMore) {
+}
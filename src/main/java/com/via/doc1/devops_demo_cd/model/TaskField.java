@@ -0,0 +1,40 @@
+package com.via.doc1.devops_demo_cd.model;
+
+import com.via.doc1.devops_demo_cd.exception.InvalidRequestException;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Task attributes a client can select with ?fields=; the names are the JSON (and JPA attribute) names
+public enum TaskField {
+    ID("id"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    LAST_MODIFIED("lastModified");
+
+    private final String attribute;
+
+    TaskField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    // Parses "id,name,lastModified" into the requested fields, in request order
+    public static Set<TaskField> parse(String fields) {
+        Set<TaskField> parsed = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            parsed.add(Arrays.stream(values())
+                    .filter(field -> field.attribute.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidRequestException("Unknown field '" + trimmed + "'; allowed: "
+                            + Arrays.stream(values()).map(TaskField::attribute).collect(Collectors.joining(",")))));
+        }
+        return parsed;
+    }
+}
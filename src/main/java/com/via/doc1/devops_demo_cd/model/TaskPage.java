@@ -0,0 +1,7 @@
+package com.via.doc1.devops_demo_cd.model;
+
+import java.util.List;
+
+// One page of a keyset-paginated task listing; nextCursor is null on the last page
+public record TaskPage(List<Task> tasks, String nextCursor) {
+}
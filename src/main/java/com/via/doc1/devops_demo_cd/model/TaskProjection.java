@@ -0,0 +1,11 @@
+package com.via.doc1.devops_demo_cd.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// A task reduced to the requested fields. id and lastModified are always read (for ETags and cursors),
+// but only the fields map is serialized.
+public record TaskProjection(Long id, LocalDateTime lastModified, @JsonValue Map<String, Object> fields) {
+}
@@ -0,0 +1,7 @@
+package com.via.doc1.devops_demo_cd.model;
+
+import java.util.List;
+
+// One keyset page of projected tasks; nextCursor is null on the last page
+public record TaskProjectionPage(List<TaskProjection> tasks, String nextCursor) {
+}
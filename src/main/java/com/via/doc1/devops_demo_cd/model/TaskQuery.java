@@ -0,0 +1,95 @@
+package com.via.doc1.devops_demo_cd.model;
+
+import com.via.doc1.devops_demo_cd.exception.InvalidRequestException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Filters and sort order of a GET /api/v1/tasks listing; null filters are not applied.
+// namePrefix is case-sensitive (an index range), nameContains ignores case; modifiedSince is inclusive and
+// modifiedBefore exclusive. Results are ordered by sortBy, then id in the same direction.
+public record TaskQuery(String namePrefix, String nameContains, LocalDateTime modifiedSince,
+                        LocalDateTime modifiedBefore, TaskField sortBy, boolean descending) {
+
+    // Only columns with an index that returns rows in (column, id) order
+    public static final Set<TaskField> SORTABLE = Set.of(TaskField.ID, TaskField.NAME, TaskField.LAST_MODIFIED);
+
+    // "name" or "-name" (descending); null for the paging order, lastModified
+    public static TaskQuery of(String namePrefix, String nameContains, String modifiedSince, String modifiedBefore,
+                               String sort) {
+        boolean descending = sort != null && sort.startsWith("-");
+        TaskField sortBy = sort == null ? TaskField.LAST_MODIFIED : sortField(descending ? sort.substring(1) : sort);
+        return new TaskQuery(blankToNull(namePrefix), blankToNull(nameContains), timestamp("modifiedSince", modifiedSince),
+                timestamp("modifiedBefore", modifiedBefore), sortBy, descending);
+    }
+
+    private static TaskField sortField(String attribute) {
+        return SORTABLE.stream()
+                .filter(field -> field.attribute().equals(attribute.trim()))
+                .findFirst()
+                .orElseThrow(() -> new InvalidRequestException("Cannot sort by '" + attribute + "'; allowed: "
+                        + SORTABLE.stream().map(TaskField::attribute).sorted().collect(Collectors.joining(","))));
+    }
+
+    private static LocalDateTime timestamp(String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException(name + " must be an ISO-8601 local date-time");
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    // The sort parameter this query was parsed from; cursors carry it to detect a change of order
+    public String sort() {
+        return (descending ? "-" : "") + sortBy.attribute();
+    }
+
+    // The same filters in memory, for stores without a query language
+    public boolean matches(Task task) {
+        return (namePrefix == null || task.getName().startsWith(namePrefix))
+                && (nameContains == null
+                    || task.getName().toLowerCase(Locale.ROOT).contains(nameContains.toLowerCase(Locale.ROOT)))
+                && (modifiedSince == null || !task.getLastModified().isBefore(modifiedSince))
+                && (modifiedBefore == null || task.getLastModified().isBefore(modifiedBefore));
+    }
+
+    @SuppressWarnings("unchecked")
+    public Comparator<Task> comparator() {
+        Comparator<Task> bySortValue = (a, b) -> sortValue(a).compareTo(sortValue(b));
+        Comparator<Task> order = bySortValue.thenComparing(Task::getId);
+        return descending ? order.reversed() : order;
+    }
+
+    // The value of the sort column: Long, String or LocalDateTime
+    @SuppressWarnings("rawtypes")
+    public Comparable sortValue(Task task) {
+        return switch (sortBy) {
+            case ID -> task.getId();
+            case NAME -> task.getName();
+            case LAST_MODIFIED -> task.getLastModified();
+            default -> throw new IllegalStateException("Not sortable: " + sortBy);
+        };
+    }
+
+    // Inverse of String.valueOf(sortValue(task)), for cursors
+    @SuppressWarnings("rawtypes")
+    public Comparable parseSortValue(String value) {
+        return switch (sortBy) {
+            case ID -> Long.valueOf(value);
+            case NAME -> value;
+            case LAST_MODIFIED -> LocalDateTime.parse(value);
+            default -> throw new IllegalStateException("Not sortable: " + sortBy);
+        };
+    }
+}
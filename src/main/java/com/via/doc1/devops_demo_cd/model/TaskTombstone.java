@@ -0,0 +1,24 @@
+package com.via.doc1.devops_demo_cd.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Change log entry for a deleted task: the task row is gone, so this is all a delta sync can report about it
+@Entity
+@Table(name = "task_tombstones", indexes = @Index(name = "idx_task_tombstones_deleted_at", columnList = "deleted_at, task_id"))
+@Data
+@NoArgsConstructor // Required by JPA
+@AllArgsConstructor
+public class TaskTombstone {
+
+    @Id // Ids are generated by an identity column and never reused, so one tombstone per task id is enough
+    @Column(name = "task_id")
+    private Long id;
+
+    @Column(name = "deleted_at", nullable = false) // Same clock and precision as Task.lastModified
+    private LocalDateTime deletedAt;
+}
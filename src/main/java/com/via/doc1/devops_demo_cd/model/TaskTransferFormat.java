@@ -0,0 +1,83 @@
+package com.via.doc1.devops_demo_cd.model;
+
+import com.via.doc1.devops_demo_cd.exception.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Formats of bulk export and import (/api/v1/tasks/export, /import). Both carry id, name, description and
+// lastModified per task; CSV has a header row with those names.
+public enum TaskTransferFormat {
+    CSV(new MediaType("text", "csv"), "csv"),
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+    public static final List<String> COLUMNS = List.of("id", "name", "description", "lastModified");
+    // Export timestamps: ISO-8601 with microseconds, the precision of the column, on every database
+    public static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSSSS");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    TaskTransferFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    // ?format=csv or ?format=ndjson
+    public static TaskTransferFormat parse(String format) {
+        return Arrays.stream(values())
+                .filter(value -> value.extension.equals(format.toLowerCase(Locale.ROOT)))
+                .findFirst()
+                .orElseThrow(() -> new InvalidRequestException("format must be csv or ndjson"));
+    }
+
+    // The format of an import body, by its Content-Type (parameters such as charset are ignored)
+    public static TaskTransferFormat of(MediaType contentType) {
+        return Arrays.stream(values())
+                .filter(value -> value.mediaType.equalsTypeAndSubtype(contentType))
+                .findFirst()
+                .orElseThrow(() -> new InvalidRequestException("Content-Type must be text/csv or application/x-ndjson"));
+    }
+
+    // Reads the CSV header line, and nothing beyond it, so the rest of the stream can go to COPY or a CSV parser.
+    // Columns are matched by name and may come in any order; name is required, id and lastModified are ignored.
+    public static List<String> readCsvHeader(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        for (int b = in.read(); b != -1 && b != '\n'; b = in.read()) {
+            line.write(b);
+        }
+        String header = line.toString(StandardCharsets.UTF_8).strip();
+        if (header.startsWith("\uFEFF")) { // Byte order mark, as written by spreadsheet tools
+            header = header.substring(1);
+        }
+        List<String> columns = new ArrayList<>();
+        for (String column : header.split(",", -1)) {
+            String name = column.strip().replace("\"", "");
+            if (!COLUMNS.contains(name) || columns.contains(name)) {
+                throw new InvalidRequestException("CSV header must name each of " + String.join(",", COLUMNS)
+                        + " at most once, found: " + header);
+            }
+            columns.add(name);
+        }
+        if (!columns.contains("name")) {
+            throw new InvalidRequestException("CSV header must include name, found: " + header);
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,122 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.service.TaskChangeEvent;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+// In-process inverted index for databases without full-text search (H2 in tests and benchmarks), and for the
+// log-store profile, which has no database. Built from all tasks on first search, then kept current from
+// committed TaskChangeEvents.
+public class InMemoryTaskSearchRepository implements TaskSearchRepository {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NAME_WEIGHT = 2; // Name hits outrank description hits, like weights A/B in PostgreSQL
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final Supplier<List<Task>> allTasks; // Read once, on the first search
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>(); // term -> (task id -> weighted term count)
+    private final Map<Long, Task> tasks = new HashMap<>();
+    private final Map<Long, Set<String>> termsByTask = new HashMap<>(); // To drop stale postings on update/delete
+    private boolean loaded;
+
+    public InMemoryTaskSearchRepository(TaskRepository taskRepository) {
+        this.allTasks = taskRepository::findAll;
+    }
+
+    public InMemoryTaskSearchRepository(Supplier<List<Task>> allTasks) {
+        this.allTasks = allTasks;
+    }
+
+    @Override
+    public synchronized List<Task> search(String query, int limit, int offset) {
+        if (!loaded) {
+            allTasks.get().forEach(this::index);
+            loaded = true;
+        }
+        // Intersect postings rarest term first; score = sum of weighted term count * idf
+        List<Map<Long, Integer>> lists = new ArrayList<>();
+        for (String term : new HashSet<>(tokenize(query))) {
+            Map<Long, Integer> list = postings.get(term);
+            if (list == null) {
+                return List.of(); // Every word must match
+            }
+            lists.add(list);
+        }
+        if (lists.isEmpty()) {
+            return List.of();
+        }
+        lists.sort(Comparator.comparingInt(Map::size));
+        Map<Long, Double> scores = new HashMap<>();
+        for (int i = 0; i < lists.size(); i++) {
+            Map<Long, Integer> list = lists.get(i);
+            double idf = Math.log(1 + (double) tasks.size() / list.size());
+            if (i == 0) {
+                list.forEach((id, count) -> scores.put(id, count * idf));
+            } else {
+                scores.keySet().retainAll(list.keySet());
+                scores.replaceAll((id, score) -> score + list.get(id) * idf);
+            }
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .skip(offset)
+                .limit(limit)
+                .map(entry -> tasks.get(entry.getKey()))
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true) // After commit; also when published outside a transaction
+    public synchronized void onTaskChange(TaskChangeEvent event) {
+        if (!loaded) {
+            return; // The first search reads the committed tasks anyway
+        }
+        event.deletedIds().forEach(this::remove);
+        event.saved().forEach(this::index);
+    }
+
+    private void index(Task task) {
+        remove(task.getId());
+        Task copy = new Task(task.getName(), task.getDescription()); // Callers may keep mutating their instance
+        copy.setId(task.getId());
+        copy.setLastModified(task.getLastModified());
+        tasks.put(copy.getId(), copy);
+        Map<String, Integer> counts = new HashMap<>();
+        tokenize(copy.getName()).forEach(term -> counts.merge(term, NAME_WEIGHT, Integer::sum));
+        tokenize(copy.getDescription()).forEach(term -> counts.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        counts.forEach((term, count) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(copy.getId(), count));
+        termsByTask.put(copy.getId(), counts.keySet());
+    }
+
+    private void remove(Long id) {
+        tasks.remove(id);
+        Set<String> terms = termsByTask.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> list = postings.get(term);
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return NON_WORD.splitAsStream(text.toLowerCase(Locale.ROOT)).filter(term -> !term.isEmpty()).toList();
+    }
+}
@@ -0,0 +1,157 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.via.doc1.devops_demo_cd.exception.InvalidRequestException;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskTransferFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Bulk transfer for databases without COPY (H2 in tests and benchmarks). Exports read one forward-only result set
+// and write each row as it arrives; imports parse the body incrementally and insert it in chunks of JDBC batches
+// (TaskBatchRepository.insertAll), so neither side holds the table in memory.
+@RequiredArgsConstructor
+public class JdbcTaskTransferRepository implements TaskTransferRepository {
+
+    static final int CHUNK_SIZE = 1000; // Rows per JDBC batch
+    private static final int FETCH_SIZE = 500;
+    private static final String EXPORT_SQL = "select id, name, description, last_modified from tasks order by last_modified, id";
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET) // The container owns the response stream
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE) // Let the response buffer decide when to flush
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper; // Spring's configured mapper, for NDJSON
+    private final Function<Task, String> validator; // The API's rules; null when a task is valid
+
+    @Override
+    public void exportTasks(TaskTransferFormat format, OutputStream out) throws IOException {
+        if (format == TaskTransferFormat.CSV) {
+            CsvSchema schema = CsvSchema.builder().addColumns(TaskTransferFormat.COLUMNS, CsvSchema.ColumnType.STRING)
+                    .setUseHeader(true)
+                    .build();
+            try (SequenceWriter writer = CSV_MAPPER.writer(schema).writeValues(out)) {
+                export(rs -> writer.write(row(rs).values()));
+            }
+        } else {
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null); // Lines are separated explicitly below
+                export(rs -> {
+                    writer.writeValue(generator, row(rs));
+                    generator.writeRaw('\n');
+                });
+            }
+        }
+    }
+
+    @Override
+    public long importTasks(TaskTransferFormat format, InputStream in, Consumer<List<Task>> imported) throws IOException {
+        long count = 0;
+        List<Task> chunk = new ArrayList<>(CHUNK_SIZE);
+        try {
+            Records records = format == TaskTransferFormat.CSV ? csvRecords(in) : ndjsonRecords(in);
+            for (Task task = records.next(); task != null; task = records.next()) {
+                String problem = validator.apply(task);
+                if (problem != null) {
+                    throw new InvalidRequestException("Record " + (count + chunk.size() + 1) + ": " + problem);
+                }
+                task.setId(null); // New ids, as with COPY
+                chunk.add(task);
+                if (chunk.size() == CHUNK_SIZE) {
+                    count += insert(chunk, imported);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequestException("Malformed " + format.extension() + ": " + e.getOriginalMessage());
+        }
+        return chunk.isEmpty() ? count : count + insert(chunk, imported);
+    }
+
+    private Records ndjsonRecords(InputStream in) throws IOException {
+        MappingIterator<Task> tasks = objectMapper.readerFor(Task.class).readValues(in);
+        return () -> tasks.hasNextValue() ? tasks.nextValue() : null;
+    }
+
+    private Records csvRecords(InputStream in) throws IOException {
+        List<String> columns = TaskTransferFormat.readCsvHeader(in);
+        CsvSchema schema = CsvSchema.builder().addColumns(columns, CsvSchema.ColumnType.STRING).build();
+        MappingIterator<Map<String, String>> rows = CSV_MAPPER.readerForMapOf(String.class).with(schema).readValues(in);
+        return () -> {
+            if (!rows.hasNextValue()) {
+                return null;
+            }
+            Map<String, String> row = rows.nextValue();
+            String description = row.get("description");
+            // Like COPY, which reads an empty unquoted field as NULL
+            return new Task(row.get("name"), description == null || description.isEmpty() ? null : description);
+        };
+    }
+
+    private long insert(List<Task> chunk, Consumer<List<Task>> imported) {
+        imported.accept(taskRepository.insertAll(chunk));
+        return chunk.size();
+    }
+
+    private void export(RowWriter writer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            try {
+                writer.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Column values in TaskTransferFormat.COLUMNS order, with the timestamp formatted as COPY writes it
+    private static Map<String, Object> row(ResultSet rs) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", rs.getLong("id"));
+        row.put("name", rs.getString("name"));
+        row.put("description", rs.getString("description"));
+        row.put("lastModified", rs.getTimestamp("last_modified").toLocalDateTime().format(TaskTransferFormat.TIMESTAMP));
+        return row;
+    }
+
+    // Parsed records, one at a time; null after the last. Parse errors are JsonProcessingExceptions.
+    @FunctionalInterface
+    private interface Records {
+        Task next() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+}
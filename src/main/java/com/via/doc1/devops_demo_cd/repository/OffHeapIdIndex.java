@@ -0,0 +1,130 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import java.nio.ByteBuffer;
+
+// Primary-key index of TaskLogStore: task id -> offset of its latest record in the log. An open-addressing hash
+// table (linear probing) in one direct buffer, 16 bytes per slot, so a million tasks cost the heap nothing and the
+// collector never scans the index. Ids start at 1; 0 marks an empty slot, so non-positive ids are never stored and
+// always absent (a probe for 0 would stop at the first empty slot and read its offset). Not thread-safe: TaskLogStore locks.
+final class OffHeapIdIndex {
+
+    private static final int SLOT_BYTES = 16; // long id, long offset
+    private static final double MAX_LOAD = 0.6;
+    static final long ABSENT = -1;
+
+    private ByteBuffer slots;
+    private int capacity; // Slot count, a power of two
+    private int size;
+
+    OffHeapIdIndex(int expectedSize) {
+        allocate(Math.max(16, Integer.highestOneBit((int) (expectedSize / MAX_LOAD)) << 1));
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(long id) {
+        if (id <= 0) {
+            return ABSENT;
+        }
+        for (int slot = slotOf(id); ; slot = next(slot)) {
+            long key = key(slot);
+            if (key == id) {
+                return offset(slot);
+            }
+            if (key == 0) {
+                return ABSENT;
+            }
+        }
+    }
+
+    void put(long id, long offset) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Task ids start at 1: " + id);
+        }
+        if (size + 1 > capacity * MAX_LOAD) {
+            resize(capacity << 1);
+        }
+        for (int slot = slotOf(id); ; slot = next(slot)) {
+            long key = key(slot);
+            if (key == id || key == 0) {
+                if (key == 0) {
+                    size++;
+                }
+                slots.putLong(slot * SLOT_BYTES, id);
+                slots.putLong(slot * SLOT_BYTES + 8, offset);
+                return;
+            }
+        }
+    }
+
+    // Backward-shift deletion: later entries of the probe run move up, so lookups need no tombstone markers
+    boolean remove(long id) {
+        if (id <= 0) {
+            return false;
+        }
+        int slot = slotOf(id);
+        while (key(slot) != id) {
+            if (key(slot) == 0) {
+                return false;
+            }
+            slot = next(slot);
+        }
+        int hole = slot;
+        for (int scan = next(hole); key(scan) != 0; scan = next(scan)) {
+            int home = slotOf(key(scan));
+            // The entry at scan may fill the hole only if its home slot is not cyclically within (hole, scan]
+            boolean movable = hole <= scan ? (home <= hole || home > scan) : (home <= hole && home > scan);
+            if (movable) {
+                slots.putLong(hole * SLOT_BYTES, key(scan));
+                slots.putLong(hole * SLOT_BYTES + 8, offset(scan));
+                hole = scan;
+            }
+        }
+        slots.putLong(hole * SLOT_BYTES, 0);
+        size--;
+        return true;
+    }
+
+    private void resize(int newCapacity) {
+        ByteBuffer old = slots;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        size = 0;
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            long key = old.getLong(slot * SLOT_BYTES);
+            if (key != 0) {
+                put(key, old.getLong(slot * SLOT_BYTES + 8));
+            }
+        }
+    }
+
+    private void allocate(int slotCount) {
+        capacity = slotCount;
+        slots = ByteBuffer.allocateDirect(slotCount * SLOT_BYTES); // Zeroed: every slot empty
+    }
+
+    private long key(int slot) {
+        return slots.getLong(slot * SLOT_BYTES);
+    }
+
+    private long offset(int slot) {
+        return slots.getLong(slot * SLOT_BYTES + 8);
+    }
+
+    private int next(int slot) {
+        return (slot + 1) & (capacity - 1);
+    }
+
+    // Ids are sequential; mix them (MurmurHash3's finalizer) so neighbours do not form long probe runs
+    private int slotOf(long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & (capacity - 1);
+    }
+}
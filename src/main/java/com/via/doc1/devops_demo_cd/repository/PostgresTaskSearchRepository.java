@@ -0,0 +1,34 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+// PostgreSQL full-text search: a generated tsvector column (name weighted above description) behind a GIN index.
+// Only matching rows are read and ranked, so latency follows the number of hits rather than the table size.
+// The column and index come from the schema migrations (db/migration/postgresql); the entity does not map them.
+@RequiredArgsConstructor
+public class PostgresTaskSearchRepository implements TaskSearchRepository {
+
+    // websearch_to_tsquery accepts free user input ("quoted phrases", -exclusions, or) without syntax errors
+    private static final String SEARCH_SQL = """
+            select t.id, t.name, t.description, t.last_modified
+            from tasks t, websearch_to_tsquery('english', ?) q
+            where t.search_vector @@ q
+            order by ts_rank_cd(t.search_vector, q) desc, t.id
+            limit ? offset ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Task> search(String query, int limit, int offset) {
+        return jdbcTemplate.query(SEARCH_SQL, (rs, rowNum) -> {
+            Task task = new Task(rs.getString("name"), rs.getString("description"));
+            task.setId(rs.getLong("id"));
+            task.setLastModified(rs.getTimestamp("last_modified").toLocalDateTime());
+            return task;
+        }, query, limit, offset);
+    }
+}
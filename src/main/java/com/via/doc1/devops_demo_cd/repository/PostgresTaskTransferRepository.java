@@ -0,0 +1,124 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.exception.InvalidRequestException;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskTransferFormat;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Bulk transfer with PostgreSQL COPY through pgjdbc's CopyManager: rows stream between the database socket and the
+// HTTP body with no per-row statements, objects or JSON mapping in the JVM.
+// Imports COPY into a temporary table first, so that ids and lastModified are assigned by the insert, the body's
+// columns can come in any order, and a bad record rejects the import before anything reaches tasks.
+@RequiredArgsConstructor
+public class PostgresTaskTransferRepository implements TaskTransferRepository {
+
+    private static final String LAST_MODIFIED = "to_char(last_modified, 'YYYY-MM-DD\"T\"HH24:MI:SS.US')";
+    private static final String EXPORT_CSV_SQL = "copy (select id, name, description, " + LAST_MODIFIED
+            + " as \"lastModified\" from tasks order by last_modified, id) to stdout with (format csv, header)";
+    // One JSON document per line. CSV with quote and delimiter characters that JSON never contains unescaped
+    // writes each line verbatim; text format would escape the backslashes in the documents.
+    private static final String RAW_LINES = "(format csv, quote e'\\x01', delimiter e'\\x02')";
+    private static final String EXPORT_NDJSON_SQL = "copy (select json_build_object('id', id, 'name', name, "
+            + "'description', description, 'lastModified', " + LAST_MODIFIED + ") from tasks order by last_modified, id)"
+            + " to stdout with " + RAW_LINES;
+    private static final String CREATE_IMPORT_TABLE_SQL = "create temporary table task_import (line bigserial, id text, "
+            + "name text, description text, last_modified text, doc text) on commit drop";
+    private static final String NDJSON_ROWS = "select line, doc::json ->> 'name' as name, doc::json ->> 'description' "
+            + "as description from task_import where doc is not null and doc <> ''";
+    private static final String CSV_ROWS = "select line, name, description from task_import";
+    // The first record that TaskServiceImpl.validate rejects, in exactly its terms: Java's trim() strips every
+    // character up to U+0020, not just spaces, and String.length() counts UTF-16 units, two for a character above
+    // U+FFFF. PostgreSQL text never holds U+0000.
+    private static final String INVALID = "select * from (%s) r where name is null or name ~ '^[\\x01-\\x20]*$' "
+            + "or " + utf16Length("name") + " > 100 or " + utf16Length("description") + " > 1000 order by line limit 1";
+    private static final String INSERT_SQL = "insert into tasks (name, description, last_modified) "
+            + "select name, description, ? from (%s) r order by line";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DateTimeProvider dateTimeProvider; // The auditing clock, as for the other JDBC writes
+    private final Function<Task, String> validator; // The API's rules; null when a task is valid
+
+    @Override
+    public void exportTasks(TaskTransferFormat format, OutputStream out) {
+        String sql = format == TaskTransferFormat.CSV ? EXPORT_CSV_SQL : EXPORT_NDJSON_SQL;
+        copy(copyManager -> copyManager.copyOut(sql, out));
+    }
+
+    @Override
+    public long importTasks(TaskTransferFormat format, InputStream in, Consumer<List<Task>> imported) throws IOException {
+        String rows;
+        String copySql;
+        if (format == TaskTransferFormat.CSV) {
+            String columns = TaskTransferFormat.readCsvHeader(in).stream()
+                    .map(column -> column.equals("lastModified") ? "last_modified" : column) // Header names are whitelisted
+                    .collect(Collectors.joining(", "));
+            rows = CSV_ROWS;
+            copySql = "copy task_import (" + columns + ") from stdin with (format csv)";
+        } else {
+            rows = NDJSON_ROWS;
+            copySql = "copy task_import (doc) from stdin with " + RAW_LINES;
+        }
+        jdbcTemplate.execute(CREATE_IMPORT_TABLE_SQL);
+        copy(copyManager -> copyManager.copyIn(copySql, in));
+        try {
+            jdbcTemplate.query(String.format(INVALID, rows), (RowCallbackHandler) rs -> {
+                // The validator only names the rule; a record INVALID finds is rejected either way
+                String problem = validator.apply(new Task(rs.getString("name"), rs.getString("description")));
+                throw new InvalidRequestException("Record " + rs.getLong("line") + ": "
+                        + (problem != null ? problem : "violates the task constraints"));
+            });
+            return jdbcTemplate.update(String.format(INSERT_SQL, rows), Timestamp.valueOf(now()));
+        } catch (DataIntegrityViolationException e) { // A line that is not JSON
+            throw new InvalidRequestException("Malformed " + format.extension() + ": " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    // Runs COPY on the transaction's connection. Data exceptions (SQLSTATE class 22: malformed CSV, a value that
+    // does not fit) are the client's; anything else is ours.
+    private void copy(CopyOperation operation) {
+        jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try {
+                return operation.run(con.unwrap(PGConnection.class).getCopyAPI());
+            } catch (SQLException e) {
+                if (e.getSQLState() != null && e.getSQLState().startsWith("22")) {
+                    throw new InvalidRequestException("Malformed import: " + e.getMessage());
+                }
+                throw e;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static String utf16Length(String column) {
+        return "(length(" + column + ") + length(regexp_replace(" + column + ", '[^\\U00010000-\\U0010FFFF]', '', 'g')))";
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.from(dateTimeProvider.getNow().orElseThrow());
+    }
+
+    @FunctionalInterface
+    private interface CopyOperation {
+        long run(CopyManager copyManager) throws SQLException, IOException;
+    }
+}
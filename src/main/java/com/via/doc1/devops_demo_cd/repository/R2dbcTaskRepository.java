@@ -0,0 +1,372 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskProjection;
+import com.via.doc1.devops_demo_cd.model.TaskQuery;
+import com.via.doc1.devops_demo_cd.model.TaskTombstone;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Task persistence for the reactive profile: the queries of TaskRepository and the statements of
+// TaskBatchRepositoryImpl, run through R2DBC's DatabaseClient. Rows are emitted as the subscriber requests them,
+// and every statement joins the reactive transaction of the calling service method, if there is one.
+@RequiredArgsConstructor
+public class R2dbcTaskRepository {
+
+    private static final String COLUMNS = "id, name, description, last_modified";
+    private static final String ORDER = " order by last_modified, id";
+    private static final String AFTER = " where (last_modified, id) > (:lastModified, :id)";
+    private static final String INSERT_ONE_SQL =
+            "insert into tasks (name, description, last_modified) values (:name, :description, :lastModified)";
+    // Batches bind by index; R2DBC PostgreSQL and H2 both take $n markers
+    private static final String INSERT_SQL = "insert into tasks (name, description, last_modified) values ($1, $2, $3)";
+    private static final String UPDATE_SQL = "update tasks set name = $1, description = $2, last_modified = $3 where id = $4";
+    private static final String UPDATE_ONE_SQL =
+            "update tasks set name = :name, description = :description, last_modified = :lastModified where id = :id";
+    private static final String PATCH_ONE_SQL = "update tasks set name = coalesce(:name, name), "
+            + "description = coalesce(:description, description), last_modified = :lastModified where id = :id";
+    private static final String DELETE_SQL = "delete from tasks where id = $1";
+    private static final String DELETE_BEFORE_SQL = "delete from tasks where last_modified < :cutoff";
+    private static final String TOMBSTONE_SQL = "insert into task_tombstones (task_id, deleted_at) values ($1, $2)";
+    private static final String DELETE_TOMBSTONES_BEFORE_SQL = "delete from task_tombstones where deleted_at < :cutoff";
+    // Same ranking as PostgresTaskSearchRepository, over the same generated tsvector column
+    private static final String SEARCH_SQL = """
+            select t.id, t.name, t.description, t.last_modified
+            from tasks t, websearch_to_tsquery('english', :query) q
+            where t.search_vector @@ q
+            order by ts_rank_cd(t.search_vector, q) desc, t.id
+            limit :limit offset :offset""";
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final DatabaseClient databaseClient;
+    private final DateTimeProvider dateTimeProvider; // The auditing clock, as for the JPA and JDBC writes
+    private final boolean postgres; // PostgreSQL: ... RETURNING and full-text search; H2: FINAL/OLD TABLE and LIKE
+
+    public Mono<Task> insert(Task task) {
+        LocalDateTime now = now();
+        return databaseClient.sql(INSERT_ONE_SQL)
+                .bind("name", task.getName())
+                .bind("description", Parameters.in(R2dbcType.VARCHAR, task.getDescription()))
+                .bind("lastModified", now)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    task.setId(id);
+                    task.setLastModified(now);
+                    return task;
+                });
+    }
+
+    // One statement with a binding per task: a single round trip on PostgreSQL
+    public Flux<Task> insertAll(List<Task> tasks) {
+        LocalDateTime now = now();
+        return databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(INSERT_SQL).returnGeneratedValues("id");
+                    for (int i = 0; i < tasks.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        bindTask(statement, tasks.get(i), now);
+                    }
+                    return Flux.from(statement.execute())
+                            .concatMap(result -> result.map(row -> row.get("id", Long.class)));
+                })
+                .index()
+                .map(generated -> {
+                    Task task = tasks.get(generated.getT1().intValue()); // One row of generated keys per task, in order
+                    task.setId(generated.getT2());
+                    task.setLastModified(now);
+                    return task;
+                });
+    }
+
+    // Keyset pages ordered by (last_modified, id); no position for the first page
+    public Flux<Task> findPage(LocalDateTime lastModified, Long id, int limit) {
+        return keyset("select " + COLUMNS + " from tasks", lastModified, id, limit)
+                .map(R2dbcTaskRepository::toTask)
+                .all();
+    }
+
+    // Filtered listing in (sort column, id) order, after the given position if there is one. The SQL is assembled
+    // from constant fragments and whitelisted columns (TaskQuery.SORTABLE); request values are only ever bound.
+    @SuppressWarnings("rawtypes")
+    public Flux<Task> findFiltered(TaskQuery query, Comparable afterValue, Long afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        if (query.namePrefix() != null) {
+            conditions.add("name like :namePrefix escape '\\'");
+        }
+        if (query.nameContains() != null) {
+            conditions.add("name ilike :nameContains escape '\\'");
+        }
+        if (query.modifiedSince() != null) {
+            conditions.add("last_modified >= :modifiedSince");
+        }
+        if (query.modifiedBefore() != null) {
+            conditions.add("last_modified < :modifiedBefore");
+        }
+        String column = switch (query.sortBy()) {
+            case ID -> "id";
+            case NAME -> "name";
+            case LAST_MODIFIED -> "last_modified";
+            default -> throw new IllegalArgumentException("Not sortable: " + query.sortBy());
+        };
+        String direction = query.descending() ? " desc" : "";
+        String beyond = query.descending() ? "<" : ">";
+        if (afterId != null) { // Same shape as TaskSpecifications.after: the leading bound is an index range
+            conditions.add(query.sortBy() == TaskField.ID ? "id " + beyond + " :afterId"
+                    : column + " " + beyond + "= :afterValue and (" + column + " " + beyond + " :afterValue or id "
+                    + beyond + " :afterId)");
+        }
+        String sql = "select " + COLUMNS + " from tasks"
+                + (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions))
+                + " order by " + column + direction + (query.sortBy() == TaskField.ID ? "" : ", id" + direction)
+                + " limit :limit";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql).bind("limit", limit);
+        if (query.namePrefix() != null) {
+            spec = spec.bind("namePrefix", TaskSpecifications.escape(query.namePrefix()) + "%");
+        }
+        if (query.nameContains() != null) {
+            spec = spec.bind("nameContains", "%" + TaskSpecifications.escape(query.nameContains()) + "%");
+        }
+        if (query.modifiedSince() != null) {
+            spec = spec.bind("modifiedSince", query.modifiedSince());
+        }
+        if (query.modifiedBefore() != null) {
+            spec = spec.bind("modifiedBefore", query.modifiedBefore());
+        }
+        if (afterId != null) {
+            spec = spec.bind("afterId", afterId);
+            if (query.sortBy() != TaskField.ID) {
+                spec = spec.bind("afterValue", afterValue);
+            }
+        }
+        return spec.map(R2dbcTaskRepository::toTask).all();
+    }
+
+    // The whole table in the same order. Rows are fetched in chunks as the subscriber asks for more, so a slow
+    // client holds back the query instead of filling memory.
+    public Flux<Task> streamAllOrdered() {
+        return databaseClient.sql("select " + COLUMNS + " from tasks" + ORDER)
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map(R2dbcTaskRepository::toTask)
+                .all();
+    }
+
+    // Only the requested columns (plus id and last_modified, for ETags and cursors) are read; no limit for all rows.
+    // The select list is built from TaskField constants only, never from raw request input.
+    public Flux<TaskProjection> findProjected(Set<TaskField> fields, LocalDateTime lastModified, Long id, Integer limit) {
+        String extraColumns = fields.stream()
+                .filter(field -> field == TaskField.NAME || field == TaskField.DESCRIPTION)
+                .map(field -> ", " + field.attribute())
+                .collect(Collectors.joining());
+        return keyset("select id, last_modified" + extraColumns + " from tasks", lastModified, id, limit)
+                .map(row -> {
+                    Long taskId = row.get("id", Long.class);
+                    LocalDateTime taskLastModified = row.get("last_modified", LocalDateTime.class);
+                    Map<String, Object> values = new LinkedHashMap<>(); // Requested order, as in ?fields=
+                    for (TaskField field : fields) {
+                        values.put(field.attribute(), switch (field) {
+                            case ID -> taskId;
+                            case LAST_MODIFIED -> taskLastModified;
+                            default -> row.get(field.attribute(), String.class);
+                        });
+                    }
+                    return new TaskProjection(taskId, taskLastModified, values);
+                })
+                .all();
+    }
+
+    public Mono<Task> findById(Long id) {
+        return databaseClient.sql("select " + COLUMNS + " from tasks where id = :id")
+                .bind("id", id)
+                .map(R2dbcTaskRepository::toTask)
+                .one();
+    }
+
+    // One IN (...) query; rows come back in no particular order
+    public Flux<Task> findAllById(List<Long> ids) {
+        return databaseClient.sql("select " + COLUMNS + " from tasks where id in (:ids)")
+                .bind("ids", ids)
+                .map(R2dbcTaskRepository::toTask)
+                .all();
+    }
+
+    public Mono<LocalDateTime> findLastModifiedById(Long id) {
+        return databaseClient.sql("select last_modified from tasks where id = :id")
+                .bind("id", id)
+                .map(row -> row.get("last_modified", LocalDateTime.class))
+                .one();
+    }
+
+    // Full-text search on PostgreSQL. Embedded databases scan with LIKE: every word must occur in the name or
+    // description, and matches come in id order (the servlet stack's in-memory index ranks them instead).
+    public Flux<Task> search(String query, int limit, int offset) {
+        if (postgres) {
+            return databaseClient.sql(SEARCH_SQL)
+                    .bind("query", query)
+                    .bind("limit", limit)
+                    .bind("offset", offset)
+                    .map(R2dbcTaskRepository::toTask)
+                    .all();
+        }
+        List<String> terms = NON_WORD.splitAsStream(query.toLowerCase(Locale.ROOT)).filter(term -> !term.isEmpty()).toList();
+        if (terms.isEmpty()) {
+            return Flux.empty();
+        }
+        StringBuilder sql = new StringBuilder("select " + COLUMNS + " from tasks where ");
+        for (int i = 0; i < terms.size(); i++) {
+            sql.append(i > 0 ? " and " : "")
+                    .append("(lower(name) like :term").append(i).append(" or lower(description) like :term").append(i).append(")");
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql + " order by id limit :limit offset :offset");
+        for (int i = 0; i < terms.size(); i++) {
+            spec = spec.bind("term" + i, "%" + terms.get(i) + "%"); // Terms are letters and digits only: no wildcards
+        }
+        return spec.bind("limit", limit)
+                .bind("offset", offset)
+                .map(R2dbcTaskRepository::toTask)
+                .all();
+    }
+
+    // Tombstone pages ordered by (deleted_at, task_id), the counterpart of findPage
+    public Flux<TaskTombstone> findTombstones(LocalDateTime deletedAt, Long id, int limit) {
+        String sql = "select task_id, deleted_at from task_tombstones"
+                + (deletedAt == null ? "" : " where (deleted_at, task_id) > (:deletedAt, :id)")
+                + " order by deleted_at, task_id limit :limit";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql).bind("limit", limit);
+        if (deletedAt != null) {
+            spec = spec.bind("deletedAt", deletedAt).bind("id", id);
+        }
+        return spec.map(row -> new TaskTombstone(row.get("task_id", Long.class), row.get("deleted_at", LocalDateTime.class)))
+                .all();
+    }
+
+    // Retention (ReactiveTaskServiceImpl.pruneTombstones); returns the number removed
+    public Mono<Long> deleteTombstonesBefore(LocalDateTime cutoff) {
+        return databaseClient.sql(DELETE_TOMBSTONES_BEFORE_SQL).bind("cutoff", cutoff).fetch().rowsUpdated();
+    }
+
+    // One UPDATE returning the new row; empty if the id does not exist. partial: null fields keep their value.
+    public Mono<Task> updateReturning(Long id, Task changes, boolean partial) {
+        String update = partial ? PATCH_ONE_SQL : UPDATE_ONE_SQL;
+        String sql = postgres
+                ? update + " returning " + COLUMNS
+                : "select " + COLUMNS + " from final table (" + update + ")";
+        return databaseClient.sql(sql)
+                .bind("name", Parameters.in(R2dbcType.VARCHAR, changes.getName()))
+                .bind("description", Parameters.in(R2dbcType.VARCHAR, changes.getDescription()))
+                .bind("lastModified", now())
+                .bind("id", id)
+                .map(R2dbcTaskRepository::toTask)
+                .one();
+    }
+
+    // Affected-row count per task, in order (0 means no task with that id)
+    public Flux<Long> updateAll(List<Task> tasks) {
+        LocalDateTime now = now();
+        tasks.forEach(task -> task.setLastModified(now));
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(UPDATE_SQL);
+            for (int i = 0; i < tasks.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                bindTask(statement, tasks.get(i), now);
+                statement.bind(3, tasks.get(i).getId());
+            }
+            return Flux.from(statement.execute()).concatMap(Result::getRowsUpdated);
+        });
+    }
+
+    // Affected-row count per id, in order
+    public Flux<Long> deleteAllByIds(List<Long> ids) {
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(DELETE_SQL);
+            for (int i = 0; i < ids.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                statement.bind(0, ids.get(i));
+            }
+            return Flux.from(statement.execute()).concatMap(Result::getRowsUpdated);
+        });
+    }
+
+    // One DELETE, returning the ids it removed
+    public Flux<Long> deleteAllModifiedBefore(LocalDateTime cutoff) {
+        String sql = postgres
+                ? DELETE_BEFORE_SQL + " returning id"
+                : "select id from old table (" + DELETE_BEFORE_SQL + ")"; // Deleted rows are only in the OLD view
+        return databaseClient.sql(sql)
+                .bind("cutoff", cutoff)
+                .map(row -> row.get("id", Long.class))
+                .all();
+    }
+
+    // Tombstones for deleted tasks, for delta sync; returns their deletedAt
+    public Mono<LocalDateTime> recordDeletions(List<Long> ids) {
+        LocalDateTime now = now();
+        return databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(TOMBSTONE_SQL);
+                    for (int i = 0; i < ids.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        statement.bind(0, ids.get(i)).bind(1, now);
+                    }
+                    return Flux.from(statement.execute()).concatMap(Result::getRowsUpdated);
+                })
+                .then(Mono.just(now));
+    }
+
+    private DatabaseClient.GenericExecuteSpec keyset(String select, LocalDateTime lastModified, Long id, Integer limit) {
+        String sql = select + (lastModified == null ? "" : AFTER) + ORDER + (limit == null ? "" : " limit :limit");
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        if (lastModified != null) {
+            spec = spec.bind("lastModified", lastModified).bind("id", id);
+        }
+        return limit == null ? spec : spec.bind("limit", limit);
+    }
+
+    private static void bindTask(Statement statement, Task task, LocalDateTime now) {
+        statement.bind(0, task.getName());
+        if (task.getDescription() == null) {
+            statement.bindNull(1, String.class);
+        } else {
+            statement.bind(1, task.getDescription());
+        }
+        statement.bind(2, now);
+    }
+
+    private static Task toTask(Readable row) {
+        Task task = new Task(row.get("name", String.class), row.get("description", String.class));
+        task.setId(row.get("id", Long.class));
+        task.setLastModified(row.get("last_modified", LocalDateTime.class));
+        return task;
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.from(dateTimeProvider.getNow().orElseThrow());
+    }
+}
@@ -0,0 +1,30 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Custom Spring Data fragment: writes on plain JDBC that need fewer round trips than the JPA equivalents
+public interface TaskBatchRepository {
+
+    // Inserts all tasks and returns them with generated ids and lastModified set, in input order
+    List<Task> insertAll(List<Task> tasks);
+
+    // Updates name/description of each task by id and sets lastModified; returns the affected-row count per task
+    int[] updateAll(List<Task> tasks);
+
+    // Updates one task in a single statement (no read first), sets lastModified and returns the new row.
+    // With partial=true a null name/description leaves that column unchanged (PATCH semantics).
+    Optional<Task> updateReturning(Long id, Task changes, boolean partial);
+
+    // Deletes each id; returns the affected-row count per id
+    int[] deleteAllByIds(List<Long> ids);
+
+    // Bulk delete by filter in one statement (DELETE ... RETURNING); returns the ids of the deleted tasks
+    List<Long> deleteAllModifiedBefore(LocalDateTime cutoff);
+
+    // Writes a tombstone for each deleted task id in one batch; returns the deletion time it recorded
+    LocalDateTime recordDeletions(List<Long> ids);
+}
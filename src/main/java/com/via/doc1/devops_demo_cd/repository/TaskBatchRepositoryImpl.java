@@ -0,0 +1,149 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Picked up by Spring Data as the implementation of TaskBatchRepository (the "Impl" suffix is the convention).
+// Runs on plain JDBC: the JPA transaction manager exposes its connection, so these statements join the
+// surrounding @Transactional service call.
+@RequiredArgsConstructor
+public class TaskBatchRepositoryImpl implements TaskBatchRepository {
+
+    private static final String INSERT_SQL = "insert into tasks (name, description, last_modified) values (?, ?, ?)";
+    private static final String UPDATE_SQL = "update tasks set name = ?, description = ?, last_modified = ? where id = ?";
+    private static final String PATCH_ONE_SQL =
+            "update tasks set name = coalesce(?, name), description = coalesce(?, description), last_modified = ? where id = ?";
+    private static final String COLUMNS = "id, name, description, last_modified";
+    private static final String DELETE_SQL = "delete from tasks where id = ?";
+    private static final String DELETE_BEFORE_SQL = "delete from tasks where last_modified < ?";
+    private static final String TOMBSTONE_SQL = "insert into task_tombstones (task_id, deleted_at) values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DateTimeProvider dateTimeProvider; // Same clock as JPA auditing, which plain JDBC bypasses
+
+    private volatile Boolean returningSupported; // PostgreSQL: ... RETURNING; H2: SELECT ... FROM FINAL/OLD TABLE (...)
+
+    @Override
+    public List<Task> insertAll(List<Task> tasks) {
+        LocalDateTime now = now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new TaskSetter(tasks, now, false), keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList(); // One row of generated keys per inserted task
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            task.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            task.setLastModified(now);
+        }
+        return tasks;
+    }
+
+    @Override
+    public int[] updateAll(List<Task> tasks) {
+        LocalDateTime now = now();
+        tasks.forEach(task -> task.setLastModified(now));
+        return jdbcTemplate.batchUpdate(UPDATE_SQL, new TaskSetter(tasks, now, true));
+    }
+
+    @Override
+    public Optional<Task> updateReturning(Long id, Task changes, boolean partial) {
+        String update = partial ? PATCH_ONE_SQL : UPDATE_SQL;
+        String sql = returningSupported()
+                ? update + " returning " + COLUMNS
+                : "select " + COLUMNS + " from final table (" + update + ")";
+        List<Task> rows = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Task task = new Task(rs.getString("name"), rs.getString("description"));
+            task.setId(rs.getLong("id"));
+            task.setLastModified(rs.getTimestamp("last_modified").toLocalDateTime());
+            return task;
+        }, changes.getName(), changes.getDescription(), Timestamp.valueOf(now()), id);
+        return rows.stream().findFirst(); // No row means no task with that id
+    }
+
+    @Override
+    public int[] deleteAllByIds(List<Long> ids) {
+        return jdbcTemplate.batchUpdate(DELETE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, ids.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ids.size();
+            }
+        });
+    }
+
+    @Override
+    public List<Long> deleteAllModifiedBefore(LocalDateTime cutoff) {
+        String sql = returningSupported()
+                ? DELETE_BEFORE_SQL + " returning id"
+                : "select id from old table (" + DELETE_BEFORE_SQL + ")"; // Deleted rows are only in the OLD view
+        return jdbcTemplate.queryForList(sql, Long.class, Timestamp.valueOf(cutoff));
+    }
+
+    @Override
+    public LocalDateTime recordDeletions(List<Long> ids) {
+        LocalDateTime now = now();
+        jdbcTemplate.batchUpdate(TOMBSTONE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, ids.get(i));
+                ps.setTimestamp(2, Timestamp.valueOf(now));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ids.size();
+            }
+        });
+        return now;
+    }
+
+    private boolean returningSupported() {
+        if (returningSupported == null) {
+            returningSupported = jdbcTemplate.execute((ConnectionCallback<Boolean>) con ->
+                    !"H2".equals(con.getMetaData().getDatabaseProductName()));
+        }
+        return returningSupported;
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.from(dateTimeProvider.getNow().orElseThrow());
+    }
+
+    // Binds name, description, last_modified (and id for updates) for each task in the batch
+    private record TaskSetter(List<Task> tasks, LocalDateTime now, boolean withId) implements BatchPreparedStatementSetter {
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            Task task = tasks.get(i);
+            ps.setString(1, task.getName());
+            ps.setString(2, task.getDescription());
+            ps.setTimestamp(3, Timestamp.valueOf(now));
+            if (withId) {
+                ps.setLong(4, task.getId());
+            }
+        }
+
+        @Override
+        public int getBatchSize() {
+            return tasks.size();
+        }
+    }
+}
@@ -0,0 +1,590 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.config.LogStoreProperties;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskTombstone;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.data.auditing.DateTimeProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntSupplier;
+import java.util.zip.CRC32C;
+
+// Task persistence for the log-store profile, without a database: an append-only log file mapped into memory.
+// Every create, update and delete appends one checksummed record, so a write is a memory copy (plus a flush to
+// disk when tasks.log-store.sync is on) and a read is a lookup in the index and a decode from the mapping.
+// Opening the store replays the log to rebuild its indexes; a torn record at the tail (a crash in mid-write)
+// fails its checksum and is cut off. A background thread compacts the log once superseded records make up
+// compaction-threshold of it: the live records are copied to a new file, which then replaces the log atomically.
+// Indexes: task id -> record offset off-heap (OffHeapIdIndex), and the (lastModified, id) orderings of tasks and
+// of tombstones on the heap (two longs per entry), which paging and delta sync seek through.
+public class TaskLogStore implements MeterBinder, AutoCloseable {
+
+    static final String LOG_FILE = "tasks.log";
+    private static final String COMPACTION_FILE = "tasks.log.compacting";
+    private static final int MAGIC = 0x544C4F47; // "TLOG"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 8; // magic, version
+    // Record: int body length, int CRC32C of the body, then the body: type, id, time (epoch microseconds, UTC),
+    // and for PUT the name and description as length-prefixed UTF-8 (length -1 for a null description)
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int TYPE = RECORD_HEADER_BYTES;
+    private static final int ID = TYPE + 1;
+    private static final int TIME = ID + 8;
+    private static final int DATA = TIME + 8;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2; // Also the tombstone: kept through compactions, for delta sync
+
+    private final Path directory;
+    private final DateTimeProvider dateTimeProvider;
+    private final LogStoreProperties properties;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(); // Many readers, one writer
+    private final NavigableSet<Position> tasks = new TreeSet<>();
+    private final NavigableSet<Position> tombstones = new TreeSet<>();
+    private final AtomicLong compactions = new AtomicLong();
+    private final AtomicLong failedCompactions = new AtomicLong();
+    private final ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-log-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private FileChannel channel;
+    private MappedByteBuffer log;
+    private OffHeapIdIndex ids;
+    private int end; // First byte after the last record: where the next one goes
+    private int liveBytes; // Records still in use; the rest of [FILE_HEADER_BYTES, end) is garbage
+    private long nextId = 1; // Ids are never reused: deleted ones stay in the log as tombstones
+
+    public TaskLogStore(LogStoreProperties properties, DateTimeProvider dateTimeProvider) {
+        this.directory = properties.directory();
+        this.dateTimeProvider = dateTimeProvider;
+        this.properties = properties;
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the task log in " + directory.toAbsolutePath(), e);
+        }
+        long interval = properties.compactionInterval().toMillis();
+        compactor.scheduleWithFixedDelay(this::compactIfWorthwhile, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        Files.deleteIfExists(directory.resolve(COMPACTION_FILE)); // Cut short by a crash; the log it was to replace is intact
+        Path file = directory.resolve(LOG_FILE);
+        boolean created = !Files.exists(file) || Files.size(file) == 0;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        log = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), properties.initialSize().toBytes()));
+        if (created) {
+            log.putInt(0, MAGIC).putInt(4, VERSION);
+            log.force(0, FILE_HEADER_BYTES);
+        } else if (log.getInt(0) != MAGIC || log.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a task log (version " + VERSION + "): " + file.toAbsolutePath());
+        }
+        ids = new OffHeapIdIndex(1024);
+        int position = FILE_HEADER_BYTES;
+        for (int length; (length = validRecordLength(position)) > 0; position += length) {
+            index(position);
+        }
+        end = position;
+        if (!zeroFrom(end)) {
+            // Zero the torn record, so none of its bytes can pass for part of a record appended later
+            ByteBuffer zeros = ByteBuffer.allocate(64 * 1024);
+            for (int at = end; at < log.capacity(); at += zeros.capacity()) {
+                log.put(at, zeros, 0, Math.min(zeros.capacity(), log.capacity() - at));
+            }
+            log.force();
+        }
+    }
+
+    private boolean zeroFrom(int position) {
+        for (int at = position; at < log.capacity(); at++) {
+            if (log.get(at) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Size of the intact record at position, or 0 where the log ends: zeroed space, or a torn or corrupt record
+    private int validRecordLength(int position) {
+        if (position + RECORD_HEADER_BYTES > log.capacity()) {
+            return 0;
+        }
+        int bodyLength = log.getInt(position);
+        if (bodyLength <= 0 || bodyLength > log.capacity() - position - RECORD_HEADER_BYTES) {
+            return 0;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(log.slice(position + RECORD_HEADER_BYTES, bodyLength));
+        return (int) crc.getValue() == log.getInt(position + 4) ? RECORD_HEADER_BYTES + bodyLength : 0;
+    }
+
+    // Applies the record at position to the indexes: on replay, and after every append
+    private void index(int position) {
+        long id = log.getLong(position + ID);
+        Position at = new Position(log.getLong(position + TIME), id);
+        long previous = ids.get(id);
+        if (previous != OffHeapIdIndex.ABSENT) { // Superseded, now garbage
+            tasks.remove(new Position(log.getLong((int) previous + TIME), id));
+            liveBytes -= recordLength((int) previous);
+        }
+        if (log.get(position + TYPE) == PUT) {
+            ids.put(id, position);
+            tasks.add(at);
+        } else {
+            ids.remove(id);
+            tombstones.add(at);
+        }
+        liveBytes += recordLength(position);
+        nextId = Math.max(nextId, id + 1);
+    }
+
+    // Inserts the task and returns it with its generated id and lastModified set
+    public Task insert(Task task) {
+        return insertAll(List.of(task)).get(0);
+    }
+
+    // Inserts all tasks and returns them with generated ids and lastModified set, in input order
+    public List<Task> insertAll(List<Task> newTasks) {
+        lock.writeLock().lock();
+        try {
+            LocalDateTime now = now(); // Under the lock: log order and lastModified order agree
+            int from = end;
+            for (Task task : newTasks) {
+                task.setId(nextId++);
+                task.setLastModified(now);
+                put(task);
+            }
+            flush(from);
+            return newTasks;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Every task, in (lastModified, id) order
+    public List<Task> findAll() {
+        return findPage(null, null, Integer.MAX_VALUE);
+    }
+
+    // Keyset pages ordered by (lastModified, id); no position for the first page
+    public List<Task> findPage(LocalDateTime lastModified, Long id, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Task> page = new ArrayList<>();
+            for (Position position : after(tasks, lastModified, id)) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(read((int) ids.get(position.id())));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Task> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            long offset = ids.get(id);
+            return offset == OffHeapIdIndex.ABSENT ? Optional.empty() : Optional.of(read((int) offset));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The tasks that exist, in the order of the ids given
+    public List<Task> findAllById(Collection<Long> taskIds) {
+        lock.readLock().lock();
+        try {
+            List<Task> found = new ArrayList<>();
+            for (Long id : taskIds) {
+                long offset = ids.get(id);
+                if (offset != OffHeapIdIndex.ABSENT) {
+                    found.add(read((int) offset));
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Reads only the record's timestamp, never the name and description
+    public Optional<LocalDateTime> findLastModifiedById(Long id) {
+        lock.readLock().lock();
+        try {
+            long offset = ids.get(id);
+            return offset == OffHeapIdIndex.ABSENT ? Optional.empty() : Optional.of(time(log.getLong((int) offset + TIME)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Tombstone pages ordered by (deletedAt, id), the counterpart of findPage
+    public List<TaskTombstone> findTombstones(LocalDateTime deletedAt, Long id, int limit) {
+        lock.readLock().lock();
+        try {
+            return after(tombstones, deletedAt, id).stream()
+                    .limit(limit)
+                    .map(position -> new TaskTombstone(position.id(), time(position.time())))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Appends the new version of the task; empty if the id does not exist. partial: null fields keep their value.
+    public Optional<Task> updateReturning(Long id, Task changes, boolean partial) {
+        lock.writeLock().lock();
+        try {
+            LocalDateTime now = now();
+            long offset = ids.get(id);
+            if (offset == OffHeapIdIndex.ABSENT) {
+                return Optional.empty();
+            }
+            Task task = read((int) offset);
+            if (!partial || changes.getName() != null) {
+                task.setName(changes.getName());
+            }
+            if (!partial || changes.getDescription() != null) {
+                task.setDescription(changes.getDescription());
+            }
+            task.setLastModified(now);
+            int from = end;
+            put(task);
+            flush(from);
+            return Optional.of(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Updates name/description of each task by id and sets lastModified; returns 1 per updated task, 0 per unknown id
+    public int[] updateAll(List<Task> changed) {
+        lock.writeLock().lock();
+        try {
+            LocalDateTime now = now();
+            int from = end;
+            int[] counts = new int[changed.size()];
+            for (int i = 0; i < counts.length; i++) {
+                Task task = changed.get(i);
+                task.setLastModified(now);
+                if (ids.get(task.getId()) != OffHeapIdIndex.ABSENT) {
+                    put(task);
+                    counts[i] = 1;
+                }
+            }
+            flush(from);
+            return counts;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Deletes each id that exists and returns the tombstones written, in input order (an id given twice is deleted once)
+    public List<TaskTombstone> deleteAllByIds(Collection<Long> deletedIds) {
+        lock.writeLock().lock();
+        try {
+            LocalDateTime now = now();
+            int from = end;
+            List<TaskTombstone> deleted = new ArrayList<>();
+            for (Long id : deletedIds) {
+                if (ids.get(id) != OffHeapIdIndex.ABSENT) {
+                    append(DELETE, id, now, null, null);
+                    deleted.add(new TaskTombstone(id, now));
+                }
+            }
+            flush(from);
+            return deleted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Deletes every task last modified before the cutoff; returns the tombstones written
+    public List<TaskTombstone> deleteAllModifiedBefore(LocalDateTime cutoff) {
+        lock.writeLock().lock(); // Reentrant: deleteAllByIds takes it again
+        try {
+            List<Long> before = tasks.headSet(new Position(micros(cutoff), 0), false).stream().map(Position::id).toList();
+            return deleteAllByIds(before);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Forgets the tombstones of deletions before the cutoff; the next compaction leaves their records behind.
+    // The tombstone of the highest id is kept, since replaying the log is what tells the store its next id.
+    public int pruneTombstones(LocalDateTime cutoff) {
+        lock.writeLock().lock();
+        try {
+            int pruned = 0;
+            for (var expired = tombstones.headSet(new Position(micros(cutoff), 0), false).iterator(); expired.hasNext(); ) {
+                if (expired.next().id() != nextId - 1) {
+                    expired.remove();
+                    liveBytes -= DATA; // A DELETE record is all header: type, id, time
+                    pruned++;
+                }
+            }
+            return pruned;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Copies the live records into a new log that replaces this one. Writers wait meanwhile; the copy is one
+    // memory move per record, with no decoding, so this takes milliseconds per megabyte of live data.
+    public void compact() {
+        lock.writeLock().lock();
+        Path target = directory.resolve(COMPACTION_FILE);
+        FileChannel compacted = null;
+        try {
+            long size = Math.max(properties.initialSize().toBytes(), 2L * (FILE_HEADER_BYTES + liveBytes));
+            compacted = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer copy = compacted.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(size, Integer.MAX_VALUE));
+            copy.putInt(0, MAGIC).putInt(4, VERSION);
+            OffHeapIdIndex copyIds = new OffHeapIdIndex(ids.size());
+            int position = FILE_HEADER_BYTES;
+            for (Position task : tasks) {
+                int offset = (int) ids.get(task.id());
+                int length = recordLength(offset);
+                copy.put(position, log, offset, length);
+                copyIds.put(task.id(), position);
+                position += length;
+            }
+            for (Position tombstone : tombstones) {
+                byte[] body = body(DELETE, tombstone.id(), tombstone.time(), null, null);
+                position += write(copy, position, body);
+            }
+            copy.force();
+            Files.move(target, directory.resolve(LOG_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            channel.close();
+            channel = compacted;
+            log = copy;
+            ids = copyIds;
+            end = position;
+            liveBytes = position - FILE_HEADER_BYTES;
+            compactions.incrementAndGet();
+        } catch (IOException e) {
+            closeQuietly(compacted);
+            try {
+                Files.deleteIfExists(target);
+            } catch (IOException ignored) {
+                // Removed on the next start at the latest
+            }
+            throw new UncheckedIOException("Task log compaction failed", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void compactIfWorthwhile() {
+        try {
+            int garbage;
+            int size;
+            lock.readLock().lock();
+            try {
+                size = end;
+                garbage = end - FILE_HEADER_BYTES - liveBytes;
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (size >= properties.compactionMinSize().toBytes() && garbage >= properties.compactionThreshold() * size) {
+                compact();
+            }
+        } catch (RuntimeException e) { // Counted; the next check tries again
+            failedCompactions.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tasks.log-store.tasks", this, store -> store.withReadLock(() -> store.ids.size()))
+                .description("Tasks in the log")
+                .register(registry);
+        Gauge.builder("tasks.log-store.bytes", this, store -> store.withReadLock(() -> store.end))
+                .description("Bytes of log in use, superseded records included")
+                .tag("kind", "total")
+                .register(registry);
+        Gauge.builder("tasks.log-store.bytes", this, store -> store.withReadLock(() -> store.liveBytes))
+                .description("Bytes of log in use, superseded records included")
+                .tag("kind", "live")
+                .register(registry);
+        FunctionCounter.builder("tasks.log-store.compactions", compactions, AtomicLong::get)
+                .tag("result", "success")
+                .register(registry);
+        FunctionCounter.builder("tasks.log-store.compactions", failedCompactions, AtomicLong::get)
+                .tag("result", "failure")
+                .register(registry);
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdownNow();
+        lock.writeLock().lock();
+        try {
+            log.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private double withReadLock(IntSupplier value) {
+        lock.readLock().lock();
+        try {
+            return value.getAsInt();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Task task) {
+        append(PUT, task.getId(), task.getLastModified(), task.getName(), task.getDescription());
+    }
+
+    private void append(byte type, long id, LocalDateTime time, String name, String description) {
+        byte[] body = body(type, id, micros(time), name, description);
+        ensureCapacity((long) end + RECORD_HEADER_BYTES + body.length);
+        int position = end;
+        end += write(log, position, body);
+        index(position);
+    }
+
+    private static byte[] body(byte type, long id, long micros, String name, String description) {
+        byte[] nameBytes = name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+        byte[] descriptionBytes = description == null ? null : description.getBytes(StandardCharsets.UTF_8);
+        int length = DATA - RECORD_HEADER_BYTES;
+        if (type == PUT) {
+            length += 8 + nameBytes.length + (descriptionBytes == null ? 0 : descriptionBytes.length);
+        }
+        ByteBuffer body = ByteBuffer.allocate(length).put(type).putLong(id).putLong(micros);
+        if (type == PUT) {
+            body.putInt(nameBytes.length).put(nameBytes);
+            body.putInt(descriptionBytes == null ? -1 : descriptionBytes.length);
+            if (descriptionBytes != null) {
+                body.put(descriptionBytes);
+            }
+        }
+        return body.array();
+    }
+
+    // Writes a record with the given body at position; returns its length
+    private static int write(ByteBuffer target, int position, byte[] body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        target.put(position + RECORD_HEADER_BYTES, body).putInt(position + 4, (int) crc.getValue());
+        target.putInt(position, body.length); // Last: a record without its length is not there yet
+        return RECORD_HEADER_BYTES + body.length;
+    }
+
+    private Task read(int position) {
+        int nameLength = log.getInt(position + DATA);
+        byte[] name = new byte[nameLength];
+        log.get(position + DATA + 4, name);
+        int descriptionLength = log.getInt(position + DATA + 4 + nameLength);
+        String description = null;
+        if (descriptionLength >= 0) {
+            byte[] bytes = new byte[descriptionLength];
+            log.get(position + DATA + 8 + nameLength, bytes);
+            description = new String(bytes, StandardCharsets.UTF_8);
+        }
+        Task task = new Task(new String(name, StandardCharsets.UTF_8), description);
+        task.setId(log.getLong(position + ID));
+        task.setLastModified(time(log.getLong(position + TIME)));
+        return task;
+    }
+
+    private int recordLength(int position) {
+        return RECORD_HEADER_BYTES + log.getInt(position);
+    }
+
+    // Maps a larger window of the file when the next record would not fit; the old mapping goes with its last reference
+    private void ensureCapacity(long required) {
+        if (required <= log.capacity()) {
+            return;
+        }
+        if (required > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Task log is full (2GB); compaction cannot reclaim enough space");
+        }
+        try {
+            log = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(Integer.MAX_VALUE, Math.max(required, 2L * log.capacity())));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow the task log", e);
+        }
+    }
+
+    private void flush(int from) {
+        if (properties.sync() && end > from) {
+            log.force(from, end - from);
+        }
+    }
+
+    private LocalDateTime now() {
+        TemporalAccessor now = dateTimeProvider.getNow().orElseThrow();
+        return LocalDateTime.from(now);
+    }
+
+    private static NavigableSet<Position> after(NavigableSet<Position> positions, LocalDateTime time, Long id) {
+        return time == null ? positions : positions.tailSet(new Position(micros(time), id), false);
+    }
+
+    // Microseconds, the precision of auditingDateTimeProvider; a finer time is rounded down, which keeps a
+    // since= timestamp between two microseconds from skipping the changes of the later one
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime time(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1_000,
+                ZoneOffset.UTC);
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Nothing left to do with it
+        }
+    }
+
+    private record Position(long time, long id) implements Comparable<Position> {
+        @Override
+        public int compareTo(Position other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+    }
+}
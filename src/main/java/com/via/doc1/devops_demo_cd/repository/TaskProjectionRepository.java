@@ -0,0 +1,16 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskProjection;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+// Custom Spring Data fragment: reads only the requested columns, as tuples, so no managed entities are created
+public interface TaskProjectionRepository {
+
+    // Tasks in (lastModified, id) order, starting after the given position (both null for the first row)
+    List<TaskProjection> findProjected(Set<TaskField> fields, LocalDateTime afterLastModified, Long afterId, Limit limit);
+}
@@ -0,0 +1,49 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskProjection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Picked up by Spring Data as the implementation of TaskProjectionRepository.
+// The select list is built from TaskField attribute names only, never from raw request input.
+@RequiredArgsConstructor
+public class TaskProjectionRepositoryImpl implements TaskProjectionRepository {
+
+    private final EntityManager entityManager; // Shared, transaction-bound EntityManager proxy
+
+    @Override
+    public List<TaskProjection> findProjected(Set<TaskField> fields, LocalDateTime afterLastModified, Long afterId, Limit limit) {
+        String extraColumns = fields.stream()
+                .filter(field -> field != TaskField.ID && field != TaskField.LAST_MODIFIED)
+                .map(field -> ", t." + field.attribute() + " as " + field.attribute())
+                .collect(Collectors.joining());
+        String where = afterLastModified == null ? "" : " where (t.lastModified, t.id) > (:lastModified, :id)";
+        TypedQuery<Tuple> query = entityManager.createQuery(
+                "select t.id as id, t.lastModified as lastModified" + extraColumns + " from Task t" + where
+                        + " order by t.lastModified, t.id", Tuple.class);
+        if (afterLastModified != null) {
+            query.setParameter("lastModified", afterLastModified).setParameter("id", afterId);
+        }
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query.getResultList().stream().map(row -> {
+            Map<String, Object> values = new LinkedHashMap<>(); // Requested order, as in ?fields=
+            for (TaskField field : fields) {
+                values.put(field.attribute(), row.get(field.attribute()));
+            }
+            return new TaskProjection(row.get("id", Long.class), row.get("lastModified", LocalDateTime.class), values);
+        }).toList();
+    }
+}
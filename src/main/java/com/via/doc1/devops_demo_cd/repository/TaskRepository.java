@@ -1,12 +1,50 @@
 package com.via.doc1.devops_demo_cd.repository;
 
 import com.via.doc1.devops_demo_cd.model.Task; // Importing the Task entity
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository // Marks this interface as a Spring Data repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskBatchRepository,
+        TaskProjectionRepository {
     // JpaRepository provides standard CRUD methods (save, findById, findAll, deleteById, etc.)
     // We don't need to write implementations for these basic operations.
-    // Custom query methods can be added here if needed (e.g., findByName(String name)).
+    // Batched multi-row writes come from the TaskBatchRepository fragment, column projections from TaskProjectionRepository.
+    // Filtered and sorted listings are Specifications (TaskSpecifications) run through JpaSpecificationExecutor.
+
+    // Keyset pagination ordered by (last_modified, id): the first page has no lower bound
+    @Query("select t from Task t order by t.lastModified, t.id")
+    List<Task> findFirstPage(Limit limit);
+
+    // Subsequent pages seek past the last row of the previous page instead of using OFFSET
+    @Query("select t from Task t where (t.lastModified, t.id) > (:lastModified, :id) order by t.lastModified, t.id")
+    List<Task> findPageAfter(@Param("lastModified") LocalDateTime lastModified, @Param("id") Long id, Limit limit);
+
+    // Server-side cursor over the whole table; must be consumed (and closed) inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select t from Task t order by t.lastModified, t.id")
+    Stream<Task> streamAllOrdered();
+
+    // Version lookup for conditional GETs: reads only the timestamp, never the full row
+    @Query("select t.lastModified from Task t where t.id = :id")
+    Optional<LocalDateTime> findLastModifiedById(@Param("id") Long id);
+
+    // Single DELETE statement; the affected-row count (0 or 1) tells whether the task existed.
+    // (Inherited deleteById loads the entity first and then removes it.)
+    @Modifying
+    @Query("delete from Task t where t.id = :id")
+    int deleteDirectlyById(@Param("id") Long id);
 }
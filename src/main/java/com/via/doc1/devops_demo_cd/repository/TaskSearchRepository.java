@@ -0,0 +1,12 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+
+import java.util.List;
+
+// Ranked full-text search over task name and description; the implementation is chosen per database in SearchConfig
+public interface TaskSearchRepository {
+
+    // Tasks matching every word of the query, best match first (ties broken by id)
+    List<Task> search(String query, int limit, int offset);
+}
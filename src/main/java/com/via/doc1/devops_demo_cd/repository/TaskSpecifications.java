@@ -0,0 +1,75 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+// Criteria for filtered listings (TaskQuery), run through TaskRepository's JpaSpecificationExecutor.
+// Every predicate is sargable: name prefix and keyset bounds are index ranges, nameContains is an ILIKE that the
+// trigram index serves on PostgreSQL, and the order matches the (name, id) and (last_modified, id) indexes.
+public final class TaskSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> matching(TaskQuery query) {
+        return (root, criteriaQuery, cb) -> {
+            Predicate predicate = cb.conjunction();
+            if (query.namePrefix() != null) {
+                predicate = cb.and(predicate, cb.like(root.get("name"), escape(query.namePrefix()) + "%", ESCAPE));
+            }
+            if (query.nameContains() != null) {
+                predicate = cb.and(predicate, ((HibernateCriteriaBuilder) cb)
+                        .ilike(root.get("name"), "%" + escape(query.nameContains()) + "%", ESCAPE));
+            }
+            if (query.modifiedSince() != null) {
+                predicate = cb.and(predicate, cb.greaterThanOrEqualTo(root.get("lastModified"), query.modifiedSince()));
+            }
+            if (query.modifiedBefore() != null) {
+                predicate = cb.and(predicate, cb.lessThan(root.get("lastModified"), query.modifiedBefore()));
+            }
+            return predicate;
+        };
+    }
+
+    // Rows after (value, id) in the query's order. Written as key >= value and (key > value or id > lastId), not
+    // as a row-value comparison, so the leading bound stays an index range on every database.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Task> after(TaskQuery query, Comparable value, Long id) {
+        return (root, criteriaQuery, cb) -> {
+            Expression<Long> taskId = root.get("id");
+            if (query.sortBy() == TaskField.ID) {
+                return query.descending() ? cb.lessThan(taskId, id) : cb.greaterThan(taskId, id);
+            }
+            Expression<Comparable> key = root.get(query.sortBy().attribute());
+            return query.descending()
+                    ? cb.and(cb.lessThanOrEqualTo(key, value), cb.or(cb.lessThan(key, value), cb.lessThan(taskId, id)))
+                    : cb.and(cb.greaterThanOrEqualTo(key, value), cb.or(cb.greaterThan(key, value), cb.greaterThan(taskId, id)));
+        };
+    }
+
+    public static Sort sort(TaskQuery query) {
+        Sort.Direction direction = query.descending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, query.sortBy().attribute());
+        return query.sortBy() == TaskField.ID ? sort : sort.and(Sort.by(direction, "id")); // Unique order
+    }
+
+    // User input is matched literally: LIKE wildcards and the escape character itself are escaped
+    static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
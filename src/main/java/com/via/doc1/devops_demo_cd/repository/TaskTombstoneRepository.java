@@ -0,0 +1,29 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.model.TaskTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+    // Tombstones are written in batches by TaskBatchRepository.recordDeletions, next to the DELETE they record.
+
+    // Keyset pages ordered by (deleted_at, task_id), the tombstone counterpart of TaskRepository.findPageAfter
+    @Query("select t from TaskTombstone t order by t.deletedAt, t.id")
+    List<TaskTombstone> findFirstPage(Limit limit);
+
+    @Query("select t from TaskTombstone t where (t.deletedAt, t.id) > (:deletedAt, :id) order by t.deletedAt, t.id")
+    List<TaskTombstone> findPageAfter(@Param("deletedAt") LocalDateTime deletedAt, @Param("id") Long id, Limit limit);
+
+    // Retention (TaskServiceImpl.pruneTombstones); one bulk DELETE over the deleted_at index
+    @Modifying
+    @Query("delete from TaskTombstone t where t.deletedAt < :cutoff")
+    int deleteDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
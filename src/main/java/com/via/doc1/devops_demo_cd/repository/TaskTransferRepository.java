@@ -0,0 +1,23 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskTransferFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Bulk export and import without entities: PostgreSQL COPY, or JDBC streaming and batches on other databases
+// (see TaskTransferConfig). Both run on the connection of the surrounding transaction.
+public interface TaskTransferRepository {
+
+    // Writes every task in (lastModified, id) order
+    void exportTasks(TaskTransferFormat format, OutputStream out) throws IOException;
+
+    // Inserts one task per record with new ids and lastModified set to now, so delta sync sees the import.
+    // A record with an invalid name or description fails the whole import. imported receives the inserted tasks
+    // chunk by chunk where they are known (JDBC batches; COPY only counts rows). Returns the number of tasks.
+    long importTasks(TaskTransferFormat format, InputStream in, Consumer<List<Task>> imported) throws IOException;
+}
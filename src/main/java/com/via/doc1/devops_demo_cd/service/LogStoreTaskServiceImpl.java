@@ -0,0 +1,216 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.model.BatchItemResult;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskChanges;
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskPage;
+import com.via.doc1.devops_demo_cd.model.TaskProjection;
+import com.via.doc1.devops_demo_cd.model.TaskProjectionPage;
+import com.via.doc1.devops_demo_cd.model.TaskQuery;
+import com.via.doc1.devops_demo_cd.model.TaskTombstone;
+import com.via.doc1.devops_demo_cd.repository.TaskLogStore;
+import com.via.doc1.devops_demo_cd.repository.TaskSearchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// TaskService of the log-store profile: tasks live in TaskLogStore, an embedded log file, instead of a database.
+// Same results as TaskServiceImpl, validation and batch item statuses included, so TaskController and the
+// write-behind queue work unchanged. There is no task cache and no lookup batching: a read is an index lookup
+// and a decode from memory. Each write is durable (tasks.log-store.sync) before its event is published.
+@Service
+@Profile("log-store")
+@RequiredArgsConstructor
+public class LogStoreTaskServiceImpl implements TaskService {
+
+    private static final int STREAM_PAGE_SIZE = 500; // Tasks decoded per read lock while streaming
+
+    private final TaskLogStore taskLogStore;
+    private final TaskSearchRepository taskSearchRepository; // In-memory index over the log, see LogStoreConfig
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskChangeWindow taskChangeWindow; // How far back delta sync reaches
+
+    @Override
+    public Task createTask(Task task) {
+        task.setId(null); // Ensure we are creating a new one, not updating
+        Task created = taskLogStore.insert(task);
+        eventPublisher.publishEvent(TaskChangeEvent.saved(List.of(created)));
+        return created;
+    }
+
+    @Override
+    public TaskPage getTasksPage(String cursor, int limit) {
+        List<Task> tasks = page(cursor == null ? null : TaskCursor.decode(cursor), limit + 1); // One extra: is there more?
+        if (tasks.size() <= limit) {
+            return new TaskPage(tasks, null); // Last page
+        }
+        List<Task> page = tasks.subList(0, limit);
+        return new TaskPage(page, TaskCursor.after(page.get(limit - 1)).encode());
+    }
+
+    @Override
+    public TaskProjectionPage getTasksPage(String cursor, int limit, Set<TaskField> fields) {
+        TaskPage page = getTasksPage(cursor, limit);
+        return new TaskProjectionPage(page.tasks().stream().map(task -> project(task, fields)).toList(), page.nextCursor());
+    }
+
+    // No secondary indexes in the log: the filters and the order are applied to a snapshot of all live tasks
+    @Override
+    public TaskPage findTasks(TaskQuery query, String cursor, int limit) {
+        TaskQueryCursor position = cursor == null ? null : TaskQueryCursor.decode(query, cursor);
+        List<Task> tasks = taskLogStore.findAll().stream()
+                .filter(task -> query.matches(task) && (position == null || position.precedes(query, task)))
+                .sorted(query.comparator())
+                .limit(limit + 1L) // One extra: is there more?
+                .toList();
+        return TaskQueryCursor.page(query, tasks, limit);
+    }
+
+    // Page by page, so the read lock is never held while the consumer writes to the client
+    @Override
+    public void streamAllTasks(Consumer<Task> consumer) {
+        List<Task> page = taskLogStore.findPage(null, null, STREAM_PAGE_SIZE);
+        while (!page.isEmpty()) {
+            page.forEach(consumer);
+            Task last = page.get(page.size() - 1);
+            page = taskLogStore.findPage(last.getLastModified(), last.getId(), STREAM_PAGE_SIZE);
+        }
+    }
+
+    @Override
+    public Optional<Task> getTaskById(Long id) {
+        return taskLogStore.findById(id);
+    }
+
+    @Override
+    public List<Task> getTasksByIds(List<Long> ids) {
+        return taskLogStore.findAllById(new LinkedHashSet<>(ids)); // Request order, without duplicates
+    }
+
+    @Override
+    public Optional<LocalDateTime> getTaskVersion(Long id) {
+        return taskLogStore.findLastModifiedById(id);
+    }
+
+    @Override
+    public List<Task> searchTasks(String query, int limit, int offset) {
+        return taskSearchRepository.search(query, limit, offset);
+    }
+
+    @Override
+    public TaskChanges getChanges(String since, int limit, boolean unsettled) {
+        TaskCursor position = taskChangeWindow.position(since);
+        List<Task> changed = page(position, limit + 1);
+        List<TaskTombstone> deleted = position == null
+                ? taskLogStore.findTombstones(null, null, limit + 1)
+                : taskLogStore.findTombstones(position.lastModified(), position.id(), limit + 1);
+        // No settle time: writes take their time under the store's write lock, so they become visible in time order
+        return TaskServiceImpl.mergeChanges(position, changed, deleted, limit, null);
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.changes.prune-interval:1h}")
+    public void pruneTombstones() {
+        taskLogStore.pruneTombstones(taskChangeWindow.retainedSince());
+    }
+
+    @Override
+    public Optional<Task> updateTask(Long id, Task taskDetails) {
+        return published(taskLogStore.updateReturning(id, taskDetails, false));
+    }
+
+    @Override
+    public Optional<Task> patchTask(Long id, Task changes) {
+        return published(taskLogStore.updateReturning(id, changes, true)); // null fields keep their current value
+    }
+
+    @Override
+    public boolean deleteTask(Long id) {
+        return !published(taskLogStore.deleteAllByIds(List.of(id))).isEmpty();
+    }
+
+    @Override
+    public int deleteTasksModifiedBefore(LocalDateTime cutoff) {
+        return published(taskLogStore.deleteAllModifiedBefore(cutoff)).size();
+    }
+
+    // Batch operations: the valid items are appended together and flushed to disk once.
+    // Invalid items are reported individually, as in TaskServiceImpl.
+
+    @Override
+    public List<BatchItemResult> createTasks(List<Task> tasks) {
+        TaskBatch<Task> batch = TaskBatch.creating(tasks);
+        if (!batch.valid().isEmpty()) {
+            List<Task> created = batch.written(taskLogStore.insertAll(batch.valid()), HttpStatus.CREATED);
+            eventPublisher.publishEvent(TaskChangeEvent.saved(created));
+        }
+        return batch.results();
+    }
+
+    @Override
+    public List<BatchItemResult> updateTasks(List<Task> tasks) {
+        TaskBatch<Task> batch = TaskBatch.updating(tasks);
+        if (!batch.valid().isEmpty()) {
+            List<Task> updated = batch.affected(taskLogStore.updateAll(batch.valid()), HttpStatus.OK);
+            eventPublisher.publishEvent(TaskChangeEvent.saved(updated));
+        }
+        return batch.results();
+    }
+
+    @Override
+    public List<BatchItemResult> deleteTasks(List<Long> ids) {
+        TaskBatch<Long> batch = TaskBatch.deleting(ids);
+        if (!batch.valid().isEmpty()) {
+            Set<Long> deleted = new HashSet<>();
+            published(taskLogStore.deleteAllByIds(batch.valid())).forEach(tombstone -> deleted.add(tombstone.getId()));
+            // An id given twice is deleted by its first occurrence; the second finds nothing, as in SQL
+            batch.affected(batch.valid().stream().mapToInt(id -> deleted.remove(id) ? 1 : 0).toArray(), HttpStatus.NO_CONTENT);
+        }
+        return batch.results();
+    }
+
+    private List<Task> page(TaskCursor position, int limit) {
+        return position == null
+                ? taskLogStore.findPage(null, null, limit)
+                : taskLogStore.findPage(position.lastModified(), position.id(), limit);
+    }
+
+    private Optional<Task> published(Optional<Task> updated) {
+        updated.ifPresent(task -> eventPublisher.publishEvent(TaskChangeEvent.saved(List.of(task))));
+        return updated;
+    }
+
+    private List<TaskTombstone> published(List<TaskTombstone> deleted) {
+        if (!deleted.isEmpty()) { // All tombstones of one call share their deletedAt
+            eventPublisher.publishEvent(TaskChangeEvent.deleted(
+                    deleted.stream().map(TaskTombstone::getId).toList(), deleted.get(0).getDeletedAt()));
+        }
+        return deleted;
+    }
+
+    private static TaskProjection project(Task task, Set<TaskField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>(); // Requested order, as in ?fields=
+        for (TaskField field : fields) {
+            values.put(field.attribute(), switch (field) {
+                case ID -> task.getId();
+                case NAME -> task.getName();
+                case DESCRIPTION -> task.getDescription();
+                case LAST_MODIFIED -> task.getLastModified();
+            });
+        }
+        return new TaskProjection(task.getId(), task.getLastModified(), values);
+    }
+}
@@ -0,0 +1,98 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskChanges;
+import com.via.doc1.devops_demo_cd.model.TaskTombstone;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// TaskChangeFeed for the reactive profile: the same "saved"/"deleted" events with the same ids, so a client can
+// reconnect with Last-Event-ID to either stack. Each subscriber has a bounded queue of live events that fills
+// while its replay is sent; a subscriber that falls that far behind is ended and replays from its last event id
+// when it reconnects, so writers never wait on slow clients.
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTaskChangeFeed {
+
+    private static final int REPLAY_PAGE_SIZE = 500;
+    private static final int MAX_PENDING_EVENTS = 10_000;
+
+    private final ReactiveTaskService taskService;
+    private final TaskChangeWindow taskChangeWindow;
+    private final List<Sinks.Many<ServerSentEvent<Object>>> subscribers = new CopyOnWriteArrayList<>();
+
+    // since: a position from a previous event id or changes response, or an ISO-8601 timestamp; null for live only
+    public Flux<ServerSentEvent<Object>> subscribe(String since) {
+        taskChangeWindow.position(since); // 400 for a malformed position, 410 for an expired one, before the stream starts
+        Sinks.Many<ServerSentEvent<Object>> live = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<ServerSentEvent<Object>>get(MAX_PENDING_EVENTS).get());
+        subscribers.add(live); // Before the replay query: a change committed meanwhile is sent twice rather than never
+        Flux<ServerSentEvent<Object>> replay = since == null ? Flux.empty() : replay(since);
+        return Flux.concat(replay, live.asFlux())
+                .take(TaskChangeFeed.STREAM_TIMEOUT) // Same lifetime as the servlet stream; EventSource reconnects
+                .doFinally(signal -> subscribers.remove(live));
+    }
+
+    // Published after commit by ReactiveTaskServiceImpl
+    @EventListener
+    public synchronized void onTaskChange(TaskChangeEvent event) { // Serialized: a sink takes one emitter at a time
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        List<ServerSentEvent<Object>> events = new ArrayList<>();
+        event.saved().forEach(task -> events.add(saved(task)));
+        event.deletedIds().forEach(id -> events.add(deleted(new TaskTombstone(id, event.deletedAt()))));
+        for (Sinks.Many<ServerSentEvent<Object>> subscriber : subscribers) {
+            for (ServerSentEvent<Object> sse : events) {
+                if (subscriber.tryEmitNext(sse).isFailure()) { // Queue full (or the client is gone)
+                    subscribers.remove(subscriber);
+                    subscriber.tryEmitError(new IllegalStateException("Change feed subscriber fell behind"));
+                    break;
+                }
+            }
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // Pages through the change log from `since`, one query per page as the client consumes them. Unsettled
+    // changes too: the live events that follow start now, not settle-time ago.
+    private Flux<ServerSentEvent<Object>> replay(String since) {
+        return taskService.getChanges(since, REPLAY_PAGE_SIZE, true)
+                .expand(page -> page.hasMore() ? taskService.getChanges(page.since(), REPLAY_PAGE_SIZE, true) : Flux.empty())
+                .concatMapIterable(ReactiveTaskChangeFeed::events);
+    }
+
+    private static List<ServerSentEvent<Object>> events(TaskChanges page) {
+        List<Change> changes = new ArrayList<>();
+        page.changed().forEach(task -> changes.add(new Change(TaskCursor.after(task), saved(task))));
+        page.deleted().forEach(tombstone -> changes.add(new Change(TaskCursor.after(tombstone), deleted(tombstone))));
+        changes.sort(Comparator.comparing(Change::position)); // Both lists are sorted; interleave them
+        return changes.stream().map(Change::event).toList();
+    }
+
+    private static ServerSentEvent<Object> saved(Task task) {
+        return ServerSentEvent.builder((Object) task).id(TaskCursor.after(task).encode()).event("saved").build();
+    }
+
+    private static ServerSentEvent<Object> deleted(TaskTombstone tombstone) {
+        return ServerSentEvent.builder((Object) tombstone).id(TaskCursor.after(tombstone).encode()).event("deleted").build();
+    }
+
+    private record Change(TaskCursor position, ServerSentEvent<Object> event) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.model.BatchItemResult;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskChanges;
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskPage;
+import com.via.doc1.devops_demo_cd.model.TaskProjectionPage;
+import com.via.doc1.devops_demo_cd.model.TaskQuery;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+// TaskService for the reactive profile: the same operations, with results published instead of returned.
+// Empty Monos stand in for the empty Optionals of TaskService.
+public interface ReactiveTaskService {
+    Mono<Task> createTask(Task task);
+    Mono<TaskPage> getTasksPage(String cursor, int limit);
+    Mono<TaskProjectionPage> getTasksPage(String cursor, int limit, Set<TaskField> fields);
+    Mono<TaskPage> findTasks(TaskQuery query, String cursor, int limit);
+    Flux<Task> streamAllTasks();
+    Mono<Task> getTaskById(Long id);
+    Flux<Task> getTasksByIds(List<Long> ids);
+    Mono<LocalDateTime> getTaskVersion(Long id);
+    Flux<Task> searchTasks(String query, int limit, int offset);
+    Mono<TaskChanges> getChanges(String since, int limit, boolean unsettled); // unsettled: up to now, for SSE replays
+    Mono<Task> updateTask(Long id, Task taskDetails);
+    Mono<Task> patchTask(Long id, Task changes);
+    Mono<Boolean> deleteTask(Long id);
+    Mono<Integer> deleteTasksModifiedBefore(LocalDateTime cutoff);
+    Mono<List<BatchItemResult>> createTasks(List<Task> tasks);
+    Mono<List<BatchItemResult>> updateTasks(List<Task> tasks);
+    Mono<List<BatchItemResult>> deleteTasks(List<Long> ids);
+}
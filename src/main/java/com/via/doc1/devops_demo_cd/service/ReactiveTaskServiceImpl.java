@@ -0,0 +1,235 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.model.BatchItemResult;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskChanges;
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskPage;
+import com.via.doc1.devops_demo_cd.model.TaskProjection;
+import com.via.doc1.devops_demo_cd.model.TaskProjectionPage;
+import com.via.doc1.devops_demo_cd.model.TaskQuery;
+import com.via.doc1.devops_demo_cd.repository.R2dbcTaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+// TaskServiceImpl's behavior on R2DBC: same validation, batch results and change events. Multi-statement writes
+// run in one reactive transaction; single statements need none. There is no cache and no lookup batching here,
+// since a lookup waiting on the database holds no thread.
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTaskServiceImpl implements ReactiveTaskService {
+
+    private final R2dbcTaskRepository taskRepository;
+    private final TransactionalOperator transactionalOperator; // Boot's, on the R2DBC transaction manager
+    private final ApplicationEventPublisher eventPublisher; // TaskChangeEvents, published after commit
+    private final TaskChangeWindow taskChangeWindow; // How far back and how close to now delta sync reaches
+
+    @Override
+    public Mono<Task> createTask(Task task) {
+        task.setId(null); // Ensure we are creating a new one, not updating
+        return taskRepository.insert(task).doOnNext(created -> publish(TaskChangeEvent.saved(List.of(created))));
+    }
+
+    @Override
+    public Mono<TaskPage> getTasksPage(String cursor, int limit) {
+        return Mono.defer(() -> {
+            TaskCursor position = cursor == null ? null : TaskCursor.decode(cursor);
+            // Fetch one extra row to find out whether another page follows
+            return taskRepository.findPage(lastModified(position), id(position), limit + 1).collectList().map(tasks -> {
+                if (tasks.size() <= limit) {
+                    return new TaskPage(tasks, null); // Last page
+                }
+                List<Task> page = tasks.subList(0, limit);
+                return new TaskPage(page, TaskCursor.after(page.get(limit - 1)).encode());
+            });
+        });
+    }
+
+    @Override
+    public Mono<TaskProjectionPage> getTasksPage(String cursor, int limit, Set<TaskField> fields) {
+        return Mono.defer(() -> {
+            TaskCursor position = cursor == null ? null : TaskCursor.decode(cursor);
+            return taskRepository.findProjected(fields, lastModified(position), id(position), limit + 1).collectList().map(rows -> {
+                if (rows.size() <= limit) {
+                    return new TaskProjectionPage(rows, null); // Last page
+                }
+                List<TaskProjection> page = rows.subList(0, limit);
+                TaskProjection last = page.get(limit - 1);
+                return new TaskProjectionPage(page, new TaskCursor(last.lastModified(), last.id()).encode());
+            });
+        });
+    }
+
+    @Override
+    public Mono<TaskPage> findTasks(TaskQuery query, String cursor, int limit) {
+        return Mono.defer(() -> {
+            TaskQueryCursor position = cursor == null ? null : TaskQueryCursor.decode(query, cursor);
+            return taskRepository.findFiltered(query, position == null ? null : position.value(),
+                            position == null ? null : position.id(), limit + 1)
+                    .collectList()
+                    .map(tasks -> TaskQueryCursor.page(query, tasks, limit));
+        });
+    }
+
+    @Override
+    public Flux<Task> streamAllTasks() {
+        return taskRepository.streamAllOrdered();
+    }
+
+    @Override
+    public Mono<Task> getTaskById(Long id) {
+        return taskRepository.findById(id);
+    }
+
+    // Multi-get in request order, without duplicates; ids that do not exist are left out
+    @Override
+    public Flux<Task> getTasksByIds(List<Long> ids) {
+        List<Long> unique = List.copyOf(new LinkedHashSet<>(ids));
+        return taskRepository.findAllById(unique)
+                .collectMap(Task::getId, Function.identity())
+                .flatMapIterable(found -> unique.stream().map(found::get).filter(Objects::nonNull).toList());
+    }
+
+    @Override
+    public Mono<LocalDateTime> getTaskVersion(Long id) {
+        return taskRepository.findLastModifiedById(id);
+    }
+
+    @Override
+    public Flux<Task> searchTasks(String query, int limit, int offset) {
+        return taskRepository.search(query, limit, offset);
+    }
+
+    // Delta sync, merged exactly as TaskServiceImpl.getChanges does
+    @Override
+    public Mono<TaskChanges> getChanges(String since, int limit, boolean unsettled) {
+        return Mono.defer(() -> {
+            TaskCursor position = taskChangeWindow.position(since);
+            LocalDateTime settledUntil = unsettled ? null : taskChangeWindow.settledUntil(); // Before the queries run
+            return Mono.zip( // Both queries run at once, on two connections
+                    taskRepository.findPage(lastModified(position), id(position), limit + 1).collectList(),
+                    taskRepository.findTombstones(lastModified(position), id(position), limit + 1).collectList()
+            ).map(pages -> TaskServiceImpl.mergeChanges(position, pages.getT1(), pages.getT2(), limit, settledUntil));
+        });
+    }
+
+    // Subscribed by the scheduler, as TaskServiceImpl.pruneTombstones
+    @Scheduled(fixedDelayString = "${tasks.changes.prune-interval:1h}")
+    public Mono<Long> pruneTombstones() {
+        return Mono.defer(() -> taskRepository.deleteTombstonesBefore(taskChangeWindow.retainedSince()));
+    }
+
+    @Override
+    public Mono<Task> updateTask(Long id, Task taskDetails) {
+        // One UPDATE ... RETURNING; empty if the id does not exist
+        return taskRepository.updateReturning(id, taskDetails, false)
+                .doOnNext(task -> publish(TaskChangeEvent.saved(List.of(task))));
+    }
+
+    @Override
+    public Mono<Task> patchTask(Long id, Task changes) {
+        return taskRepository.updateReturning(id, changes, true)
+                .doOnNext(task -> publish(TaskChangeEvent.saved(List.of(task))));
+    }
+
+    @Override
+    public Mono<Boolean> deleteTask(Long id) {
+        return inTransaction(taskRepository.deleteAllByIds(List.of(id)).single().flatMap(count -> count == 0
+                ? Mono.just(new Written<>(false, null)) // Task not found
+                : recordDeleted(List.of(id)).map(event -> new Written<>(true, event))));
+    }
+
+    @Override
+    public Mono<Integer> deleteTasksModifiedBefore(LocalDateTime cutoff) {
+        return inTransaction(taskRepository.deleteAllModifiedBefore(cutoff).collectList().flatMap(deleted -> deleted.isEmpty()
+                ? Mono.just(new Written<>(0, null))
+                : recordDeleted(deleted).map(event -> new Written<>(deleted.size(), event))));
+    }
+
+    // Batch operations: each runs in one transaction, as a single statement with one binding per item.
+    // Invalid items are reported individually and left out of the batch instead of failing the whole request.
+
+    @Override
+    public Mono<List<BatchItemResult>> createTasks(List<Task> tasks) {
+        TaskBatch<Task> batch = TaskBatch.creating(tasks);
+        if (batch.valid().isEmpty()) {
+            return Mono.just(batch.results());
+        }
+        return inTransaction(taskRepository.insertAll(batch.valid()).collectList().map(created ->
+                new Written<>(batch.results(), TaskChangeEvent.saved(batch.written(created, HttpStatus.CREATED)))));
+    }
+
+    @Override
+    public Mono<List<BatchItemResult>> updateTasks(List<Task> tasks) {
+        TaskBatch<Task> batch = TaskBatch.updating(tasks);
+        if (batch.valid().isEmpty()) {
+            return Mono.just(batch.results());
+        }
+        return inTransaction(taskRepository.updateAll(batch.valid()).collectList().map(counts ->
+                new Written<>(batch.results(), TaskChangeEvent.saved(batch.affected(rowCounts(counts), HttpStatus.OK)))));
+    }
+
+    @Override
+    public Mono<List<BatchItemResult>> deleteTasks(List<Long> ids) {
+        TaskBatch<Long> batch = TaskBatch.deleting(ids);
+        if (batch.valid().isEmpty()) {
+            return Mono.just(batch.results());
+        }
+        return inTransaction(taskRepository.deleteAllByIds(batch.valid()).collectList().flatMap(counts -> {
+            List<Long> deleted = batch.affected(rowCounts(counts), HttpStatus.NO_CONTENT);
+            return deleted.isEmpty()
+                    ? Mono.just(new Written<>(batch.results(), null))
+                    : recordDeleted(deleted).map(event -> new Written<>(batch.results(), event));
+        }));
+    }
+
+    private static int[] rowCounts(List<Long> counts) {
+        return counts.stream().mapToInt(Long::intValue).toArray();
+    }
+
+    // Runs the writes in one transaction and announces them once it has committed
+    private <T> Mono<T> inTransaction(Mono<Written<T>> writes) {
+        return transactionalOperator.transactional(writes).map(written -> {
+            if (written.event() != null) {
+                publish(written.event());
+            }
+            return written.result();
+        });
+    }
+
+    // Tombstones for deleted tasks, in the same transaction as the DELETE
+    private Mono<TaskChangeEvent> recordDeleted(List<Long> deletedIds) {
+        return taskRepository.recordDeletions(deletedIds).map(deletedAt -> TaskChangeEvent.deleted(deletedIds, deletedAt));
+    }
+
+    private void publish(TaskChangeEvent event) {
+        eventPublisher.publishEvent(event);
+    }
+
+    private static LocalDateTime lastModified(TaskCursor position) {
+        return position == null ? null : position.lastModified();
+    }
+
+    private static Long id(TaskCursor position) {
+        return position == null ? null : position.id();
+    }
+
+    // A transaction's result and the change event to publish after it commits (null when nothing changed)
+    private record Written<T>(T result, TaskChangeEvent event) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.model.BatchItemResult;
+import com.via.doc1.devops_demo_cd.model.Task;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+// The bookkeeping of a batch request, shared by every TaskService and ReactiveTaskService: invalid items are
+// reported as 400 right away, the valid ones go to storage as one batch, and its outcome is filled in at each
+// valid item's index. Only the storage call differs between the stacks.
+final class TaskBatch<T> {
+
+    private final BatchItemResult[] results;
+    private final List<T> valid = new ArrayList<>();
+    private final List<Integer> validIndexes = new ArrayList<>();
+    private final Function<T, Long> id;
+    private final Function<T, Task> body; // Response body of a written item; null for deletes
+
+    private TaskBatch(List<T> items, Function<T, String> check, Function<T, Long> id, Function<T, Task> body) {
+        this.results = new BatchItemResult[items.size()];
+        this.id = id;
+        this.body = body;
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            String problem = check.apply(item);
+            if (problem != null) {
+                results[i] = BatchItemResult.failure(i, item == null ? null : id.apply(item), HttpStatus.BAD_REQUEST.value(), problem);
+                continue;
+            }
+            valid.add(item);
+            validIndexes.add(i);
+        }
+    }
+
+    // New tasks: validated, with any id in the body ignored
+    static TaskBatch<Task> creating(List<Task> tasks) {
+        TaskBatch<Task> batch = new TaskBatch<>(tasks, TaskServiceImpl::validate, task -> null, task -> task);
+        batch.valid.forEach(task -> task.setId(null)); // Ensure we are creating new ones, not updating
+        return batch;
+    }
+
+    // Replacements of existing tasks: validated, and each needs its id
+    static TaskBatch<Task> updating(List<Task> tasks) {
+        return new TaskBatch<>(tasks, task -> task.getId() == null ? "id is required" : TaskServiceImpl.validate(task),
+                Task::getId, task -> task);
+    }
+
+    static TaskBatch<Long> deleting(List<Long> ids) {
+        return new TaskBatch<>(ids, id -> id == null ? "id is required" : null, id -> id, id -> null);
+    }
+
+    // The items for the storage call, in request order
+    List<T> valid() {
+        return valid;
+    }
+
+    // Storage returned each valid item as written, in order (with its generated id): all of them succeeded
+    List<Task> written(List<Task> written, HttpStatus status) {
+        for (int j = 0; j < written.size(); j++) {
+            Task task = written.get(j);
+            int index = validIndexes.get(j);
+            results[index] = BatchItemResult.success(index, task.getId(), status.value(), task);
+        }
+        return written;
+    }
+
+    // Storage reported the rows affected by each valid item, in order: none is 404. Returns the items it found.
+    List<T> affected(int[] counts, HttpStatus status) {
+        List<T> found = new ArrayList<>();
+        for (int j = 0; j < counts.length; j++) {
+            T item = valid.get(j);
+            int index = validIndexes.get(j);
+            if (counts[j] == 0) {
+                results[index] = notFound(index, id.apply(item));
+            } else {
+                results[index] = BatchItemResult.success(index, id.apply(item), status.value(), body.apply(item));
+                found.add(item);
+            }
+        }
+        return found;
+    }
+
+    List<BatchItemResult> results() {
+        return Arrays.asList(results);
+    }
+
+    static BatchItemResult notFound(int index, Long id) {
+        return BatchItemResult.failure(index, id, HttpStatus.NOT_FOUND.value(), "Task not found with id: " + id);
+    }
+}
@@ -0,0 +1,178 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.config.BatchLoaderProperties;
+import com.via.doc1.devops_demo_cd.config.ReplicaDataSource;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.LockSupport;
+
+// DataLoader-style batching of lookups by id: lookups that arrive within a short window share one
+// "where id in (...)" query, and concurrent lookups of the same id share one slot in it. No extra threads: the
+// caller that opens a batch leads it - it waits out the window (or until the batch is full), runs the query,
+// and completes everyone else's futures. Multi-gets (loadAll) send their batches without waiting.
+// A caller pinned to the primary (read-your-writes, see ReplicaDataSource) never batches: the query runs on the
+// leader's thread, whose pin decides between primary and replica, so a pinned caller could otherwise be answered
+// from a replica that has not yet replayed its own write.
+public class TaskBatchLoader {
+
+    private final TaskRepository taskRepository;
+    private final TransactionOperations transactions;
+    private final BatchLoaderProperties properties;
+    private final DistributionSummary batchSize;
+    private final Counter deduplicated;
+
+    private final Map<Long, CompletableFuture<Optional<Task>>> pending = new HashMap<>(); // Guarded by this
+    private Batch open; // Guarded by this; the batch new lookups join
+
+    public TaskBatchLoader(TaskRepository taskRepository, TransactionOperations transactions,
+                           BatchLoaderProperties properties, MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.transactions = transactions;
+        this.properties = properties;
+        this.batchSize = DistributionSummary.builder("tasks.lookup.batch.size")
+                .description("Distinct task ids per batched lookup query")
+                .register(meterRegistry);
+        this.deduplicated = Counter.builder("tasks.lookup.deduplicated")
+                .description("Lookups that joined a pending lookup of the same id")
+                .register(meterRegistry);
+    }
+
+    public Optional<Task> load(Long id) {
+        if (!properties.enabled() || ReplicaDataSource.isPinnedToPrimary()) {
+            return transactions.execute(status -> taskRepository.findById(id));
+        }
+        List<Batch> led = new ArrayList<>(1);
+        CompletableFuture<Optional<Task>> result;
+        synchronized (this) {
+            result = enqueue(id, led);
+        }
+        led.forEach(batch -> lead(batch, true));
+        return join(result);
+    }
+
+    // Tasks found for the given ids, keyed by id; ids without a task are left out
+    public Map<Long, Task> loadAll(Collection<Long> ids) {
+        Map<Long, CompletableFuture<Optional<Task>>> results = new LinkedHashMap<>();
+        if (!properties.enabled() || ReplicaDataSource.isPinnedToPrimary()) {
+            List<Long> distinct = ids.stream().distinct().toList();
+            Map<Long, Task> found = new LinkedHashMap<>();
+            transactions.execute(status -> taskRepository.findAllById(distinct)).forEach(task -> found.put(task.getId(), task));
+            return found;
+        }
+        List<Batch> led = new ArrayList<>();
+        synchronized (this) {
+            for (Long id : ids) {
+                results.computeIfAbsent(id, key -> enqueue(key, led));
+            }
+        }
+        led.forEach(batch -> lead(batch, false)); // A multi-get has its ids together already; lookups that joined ride along
+        Map<Long, Task> found = new LinkedHashMap<>();
+        results.forEach((id, result) -> join(result).ifPresent(task -> found.put(id, task)));
+        return found;
+    }
+
+    // Joins the pending lookup of the id, or adds it to the open batch (opening one, led by the caller, if needed)
+    private CompletableFuture<Optional<Task>> enqueue(Long id, List<Batch> led) {
+        CompletableFuture<Optional<Task>> existing = pending.get(id);
+        if (existing != null) {
+            deduplicated.increment();
+            return existing;
+        }
+        if (open == null) {
+            open = new Batch(Thread.currentThread(), System.nanoTime() + properties.window().toNanos());
+            led.add(open);
+        }
+        CompletableFuture<Optional<Task>> result = new CompletableFuture<>();
+        open.lookups.put(id, result);
+        pending.put(id, result);
+        if (open.lookups.size() >= properties.maxBatchSize()) {
+            seal(open);
+            LockSupport.unpark(open.leader); // Full: no need to wait out the window
+            open = null;
+        }
+        return result;
+    }
+
+    // Closes the batch to new lookups. Its ids stop being pending here, before the query runs, so a lookup that
+    // arrives from now on gets a query of its own and never an answer read before it was asked (e.g. before its
+    // client's own update committed).
+    private void seal(Batch batch) {
+        batch.sealed = true;
+        batch.lookups.forEach(pending::remove);
+    }
+
+    private void lead(Batch batch, boolean waitForOthers) {
+        while (true) {
+            long remaining;
+            synchronized (this) {
+                if (batch.sealed) {
+                    break;
+                }
+                remaining = waitForOthers ? batch.deadline - System.nanoTime() : 0;
+                if (remaining <= 0) {
+                    seal(batch);
+                    if (open == batch) {
+                        open = null;
+                    }
+                    break;
+                }
+            }
+            LockSupport.parkNanos(remaining);
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        List<Long> ids = new ArrayList<>(batch.lookups.keySet());
+        batchSize.record(ids.size());
+        try {
+            Map<Long, Task> found = new HashMap<>();
+            transactions.execute(status -> taskRepository.findAllById(ids)).forEach(task -> found.put(task.getId(), task));
+            batch.lookups.forEach((id, result) -> result.complete(Optional.ofNullable(found.get(id))));
+        } catch (RuntimeException | Error e) { // Not rethrown: a leader of several batches must still dispatch the rest
+            batch.lookups.values().forEach(result -> result.completeExceptionally(e));
+        }
+    }
+
+    // Rethrows a failed batch query in each caller as the original exception
+    private static Optional<Task> join(CompletableFuture<Optional<Task>> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Batch {
+
+        final Thread leader;
+        final long deadline;
+        final Map<Long, CompletableFuture<Optional<Task>>> lookups = new LinkedHashMap<>();
+        boolean sealed; // Guarded by the loader
+
+        Batch(Thread leader, long deadline) {
+            this.leader = leader;
+            this.deadline = deadline;
+        }
+    }
+}
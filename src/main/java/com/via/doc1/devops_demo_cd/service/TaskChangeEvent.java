@@ -0,0 +1,21 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Published by TaskServiceImpl for every write. Listeners that keep derived state (such as the in-memory
+// search index and the SSE change feed) use @TransactionalEventListener, so they only see committed changes.
+// ReactiveTaskServiceImpl publishes the same events once its transaction has committed.
+// deletedAt is the time recorded in the tombstones of deletedIds (null when nothing was deleted).
+public record TaskChangeEvent(List<Task> saved, List<Long> deletedIds, LocalDateTime deletedAt) {
+
+    public static TaskChangeEvent saved(List<Task> tasks) {
+        return new TaskChangeEvent(List.copyOf(tasks), List.of(), null);
+    }
+
+    public static TaskChangeEvent deleted(List<Long> ids, LocalDateTime deletedAt) {
+        return new TaskChangeEvent(List.of(), List.copyOf(ids), deletedAt);
+    }
+}
@@ -0,0 +1,197 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.config.ReplicaDataSource;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskChanges;
+import com.via.doc1.devops_demo_cd.model.TaskTombstone;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Server-Sent Events feed of committed task changes. Every event carries its position in the (time, id) change
+// order as its SSE id, so a reconnecting client (Last-Event-ID) first gets what it missed from the change log,
+// then live events. Each subscriber has a bounded queue of live events and its own sender (a virtual thread while
+// there is something to send), which replays first and then drains the queue: a client that stops reading only
+// blocks its own sender, and one that falls MAX_PENDING_EVENTS behind is ended and replays when it reconnects.
+@Component
+@Profile("!reactive") // ReactiveTaskChangeFeed streams the same events in the reactive profile
+@RequiredArgsConstructor
+public class TaskChangeFeed implements DisposableBean {
+
+    static final Duration STREAM_TIMEOUT = Duration.ofMinutes(30); // EventSource clients reconnect by themselves
+    static final int MAX_PENDING_EVENTS = 10_000;
+    private static final int REPLAY_PAGE_SIZE = 500;
+
+    private final TaskService taskService;
+    private final TaskChangeWindow taskChangeWindow;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("task-change-feed-", 0).factory());
+
+    // since: a position from a previous event id or changes response, or an ISO-8601 timestamp; null for live only
+    public SseEmitter subscribe(String since) {
+        taskChangeWindow.position(since); // 400 for a malformed position, 410 for an expired one, before the stream starts
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber); // Before the replay query: a change committed meanwhile is sent twice rather than never
+        if (since != null) {
+            schedule(subscriber);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true) // After commit; also when published outside a transaction
+    public void onTaskChange(TaskChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        List<Change> changes = new ArrayList<>();
+        event.saved().forEach(task -> changes.add(Change.saved(task)));
+        event.deletedIds().forEach(id -> changes.add(Change.deleted(new TaskTombstone(id, event.deletedAt()))));
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.enqueue(changes)) {
+                schedule(subscriber);
+            } else { // Queue full: its client stopped reading, or its replay is that far behind
+                subscribers.remove(subscriber);
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // Starts the subscriber's sender unless one is running; it replays (once) and sends until the queue is empty
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> sendPending(subscriber));
+        }
+    }
+
+    private void sendPending(Subscriber subscriber) {
+        try {
+            String since = subscriber.replayFrom;
+            subscriber.replayFrom = null;
+            if (since != null && !replay(subscriber.emitter, since)) {
+                return;
+            }
+            List<Change> changes;
+            while (!(changes = subscriber.drain()).isEmpty()) {
+                if (!send(subscriber.emitter, changes)) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) { // Replay query failed: end the stream, the client reconnects from its last event
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.sending.set(false);
+        }
+        if (subscriber.hasPending() && subscribers.contains(subscriber)) { // Queued after the last drain
+            schedule(subscriber);
+        }
+    }
+
+    // Reads the primary: with no settle time, a lagging replica would skip changes that live events already passed
+    private boolean replay(SseEmitter emitter, String since) {
+        String position = since;
+        TaskChanges page;
+        ReplicaDataSource.pinToPrimary(true);
+        try {
+            do {
+                page = taskService.getChanges(position, REPLAY_PAGE_SIZE, true); // Up to now: live events go on from there
+                List<Change> changes = new ArrayList<>();
+                page.changed().forEach(task -> changes.add(Change.saved(task)));
+                page.deleted().forEach(tombstone -> changes.add(Change.deleted(tombstone)));
+                changes.sort(Comparator.comparing(Change::position)); // Both lists are sorted; interleave them
+                if (!send(emitter, changes)) {
+                    return false;
+                }
+                position = page.since();
+            } while (page.hasMore());
+            return true;
+        } finally {
+            ReplicaDataSource.pinToPrimary(false);
+        }
+    }
+
+    private boolean send(SseEmitter emitter, List<Change> changes) {
+        try {
+            for (Change change : changes) {
+                emitter.send(SseEmitter.event().id(change.position().encode()).name(change.name()).data(change.data()));
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) { // Client went away, or the emitter already completed
+            subscribers.removeIf(subscriber -> subscriber.emitter == emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private static final class Subscriber {
+
+        final SseEmitter emitter;
+        final AtomicBoolean sending = new AtomicBoolean(); // Set while a sender runs: one at a time per emitter
+        volatile String replayFrom; // Cleared by the sender once it starts the replay
+        private final Deque<Change> pending = new ArrayDeque<>(); // Guarded by this; at most MAX_PENDING_EVENTS
+
+        Subscriber(SseEmitter emitter, String since) {
+            this.emitter = emitter;
+            this.replayFrom = since;
+        }
+
+        synchronized boolean enqueue(List<Change> changes) {
+            if (pending.size() + changes.size() > MAX_PENDING_EVENTS) {
+                return false;
+            }
+            pending.addAll(changes);
+            return true;
+        }
+
+        synchronized List<Change> drain() {
+            List<Change> changes = new ArrayList<>(pending);
+            pending.clear();
+            return changes;
+        }
+
+        synchronized boolean hasPending() {
+            return !pending.isEmpty();
+        }
+    }
+
+    private record Change(TaskCursor position, String name, Object data) {
+
+        static Change saved(Task task) {
+            return new Change(TaskCursor.after(task), "saved", task);
+        }
+
+        static Change deleted(TaskTombstone tombstone) {
+            return new Change(TaskCursor.after(tombstone), "deleted", tombstone);
+        }
+    }
+}
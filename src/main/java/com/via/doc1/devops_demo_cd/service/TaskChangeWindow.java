@@ -0,0 +1,48 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.config.ChangeFeedProperties;
+import com.via.doc1.devops_demo_cd.exception.ChangesExpiredException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+// The part of the change log a changes request may see (tasks.changes.*). Change times are stamped when a statement
+// runs, not when its transaction commits, so a slow transaction can commit changes before a position already handed
+// out; pages therefore stop settle-time short of now. Deletions are kept for tombstone-retention, so a position
+// older than that may have missed some and has to resync from scratch.
+@Component
+@RequiredArgsConstructor
+public class TaskChangeWindow {
+
+    private final ChangeFeedProperties properties;
+    private final DateTimeProvider auditingDateTimeProvider; // The clock that stamps the changes
+
+    // The position of since (see TaskCursor.since), or null to start at the beginning; 410 when it is too old
+    public TaskCursor position(String since) {
+        if (since == null) {
+            return null;
+        }
+        TaskCursor position = TaskCursor.since(since);
+        if (position.lastModified().isBefore(retainedSince())) {
+            throw new ChangesExpiredException("Changes before " + retainedSince() + " are no longer kept; "
+                    + "start over without since");
+        }
+        return position;
+    }
+
+    // Changes up to this time are committed, unless a transaction ran longer than settle-time
+    public LocalDateTime settledUntil() {
+        return now().minus(properties.settleTime());
+    }
+
+    // Tombstones from this time on are kept
+    public LocalDateTime retainedSince() {
+        return now().minus(properties.tombstoneRetention());
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.from(auditingDateTimeProvider.getNow().orElseThrow());
+    }
+}
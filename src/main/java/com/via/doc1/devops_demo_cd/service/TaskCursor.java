@@ -0,0 +1,61 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.exception.InvalidRequestException;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskTombstone;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+
+// Position in the (lastModified, id) ordering, handed to clients as an opaque continuation token
+public record TaskCursor(LocalDateTime lastModified, Long id) implements Comparable<TaskCursor> {
+
+    private static final Comparator<TaskCursor> ORDER =
+            Comparator.comparing(TaskCursor::lastModified).thenComparing(TaskCursor::id);
+
+    public static TaskCursor after(Task task) {
+        return new TaskCursor(task.getLastModified(), task.getId());
+    }
+
+    // Tombstones share the ordering: deletedAt plays the role of lastModified
+    public static TaskCursor after(TaskTombstone tombstone) {
+        return new TaskCursor(tombstone.getDeletedAt(), tombstone.getId());
+    }
+
+    @Override
+    public int compareTo(TaskCursor other) {
+        return ORDER.compare(this, other);
+    }
+
+    public String encode() {
+        String raw = lastModified + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Position for a changes feed: either a token from a previous response or an ISO-8601 local date-time,
+    // which starts right after every change made at that instant
+    public static TaskCursor since(String value) {
+        try {
+            return new TaskCursor(LocalDateTime.parse(value), Long.MAX_VALUE);
+        } catch (DateTimeParseException e) {
+            return decode(value);
+        }
+    }
+
+    public static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new InvalidRequestException("Invalid cursor: " + token);
+            }
+            return new TaskCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) { // Bad Base64, timestamp or id
+            throw new InvalidRequestException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.exception.InvalidRequestException;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskPage;
+import com.via.doc1.devops_demo_cd.model.TaskQuery;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+// Position in the (sort column, id) order of a filtered listing (TaskQuery): the last row's sort value and id.
+// The token also names the sort, so a cursor cannot continue a listing in a different order.
+@SuppressWarnings("rawtypes")
+public record TaskQueryCursor(Comparable value, Long id) {
+
+    public static TaskQueryCursor after(TaskQuery query, Task task) {
+        return new TaskQueryCursor(query.sortValue(task), task.getId());
+    }
+
+    public String encode(TaskQuery query) {
+        String raw = query.sort() + "|" + value + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskQueryCursor decode(TaskQuery query, String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor: " + token);
+        }
+        // Names may contain the separator: the sort ends at the first one, the id starts after the last one
+        int first = raw.indexOf('|');
+        int last = raw.lastIndexOf('|');
+        if (first < 0 || first == last) {
+            throw new InvalidRequestException("Invalid cursor: " + token);
+        }
+        if (!raw.substring(0, first).equals(query.sort())) {
+            throw new InvalidRequestException("The cursor belongs to a listing sorted by " + raw.substring(0, first));
+        }
+        try {
+            return new TaskQueryCursor(query.parseSortValue(raw.substring(first + 1, last)), Long.valueOf(raw.substring(last + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) { // Bad id or sort value
+            throw new InvalidRequestException("Invalid cursor: " + token);
+        }
+    }
+
+    // Whether the task comes after this position in the query's order
+    @SuppressWarnings("unchecked")
+    public boolean precedes(TaskQuery query, Task task) {
+        int comparison = query.sortValue(task).compareTo(value);
+        if (comparison == 0) {
+            comparison = task.getId().compareTo(id);
+        }
+        return query.descending() ? comparison < 0 : comparison > 0;
+    }
+
+    // The first `limit` of rows fetched with one extra, and the cursor after them unless nothing follows
+    public static TaskPage page(TaskQuery query, List<Task> tasks, int limit) {
+        if (tasks.size() <= limit) {
+            return new TaskPage(tasks, null); // Last page
+        }
+        List<Task> page = tasks.subList(0, limit);
+        return new TaskPage(page, after(query, page.get(limit - 1)).encode(query));
+    }
+}
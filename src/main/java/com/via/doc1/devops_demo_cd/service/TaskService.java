@@ -1,13 +1,34 @@
 package com.via.doc1.devops_demo_cd.service;
 
+import com.via.doc1.devops_demo_cd.model.BatchItemResult;
 import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskChanges;
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskPage;
+import com.via.doc1.devops_demo_cd.model.TaskProjectionPage;
+import com.via.doc1.devops_demo_cd.model.TaskQuery;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface TaskService {
     Task createTask(Task task);
-    List<Task> getAllTasks();
+    TaskPage getTasksPage(String cursor, int limit);
+    TaskProjectionPage getTasksPage(String cursor, int limit, Set<TaskField> fields);
+    TaskPage findTasks(TaskQuery query, String cursor, int limit);
+    void streamAllTasks(Consumer<Task> consumer);
     Optional<Task> getTaskById(Long id);
+    List<Task> getTasksByIds(List<Long> ids);
+    Optional<LocalDateTime> getTaskVersion(Long id);
+    List<Task> searchTasks(String query, int limit, int offset);
+    TaskChanges getChanges(String since, int limit, boolean unsettled); // unsettled: up to now, for SSE replays
     Optional<Task> updateTask(Long id, Task taskDetails);
+    Optional<Task> patchTask(Long id, Task changes);
     boolean deleteTask(Long id);
-}
\ No newline at end of file
+    int deleteTasksModifiedBefore(LocalDateTime cutoff);
+    List<BatchItemResult> createTasks(List<Task> tasks);
+    List<BatchItemResult> updateTasks(List<Task> tasks);
+    List<BatchItemResult> deleteTasks(List<Long> ids);
+}
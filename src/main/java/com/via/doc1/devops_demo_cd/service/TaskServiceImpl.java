@@ -1,59 +1,291 @@
 package com.via.doc1.devops_demo_cd.service;
 
+import com.via.doc1.devops_demo_cd.config.CacheConfig;
+import com.via.doc1.devops_demo_cd.model.BatchItemResult;
 import com.via.doc1.devops_demo_cd.model.Task; // Importing the Task entity
+import com.via.doc1.devops_demo_cd.model.TaskChanges;
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskPage;
+import com.via.doc1.devops_demo_cd.model.TaskProjection;
+import com.via.doc1.devops_demo_cd.model.TaskProjectionPage;
+import com.via.doc1.devops_demo_cd.model.TaskQuery;
+import com.via.doc1.devops_demo_cd.model.TaskTombstone;
 import com.via.doc1.devops_demo_cd.repository.TaskRepository; // Importing the Task repository
+import com.via.doc1.devops_demo_cd.repository.TaskSearchRepository;
+import com.via.doc1.devops_demo_cd.repository.TaskSpecifications;
+import com.via.doc1.devops_demo_cd.repository.TaskTombstoneRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor; // Lombok: Generates constructor for final fields
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional; // Import Transactional
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service // Marks this class as a Spring service component
+@Profile("!reactive & !log-store") // ReactiveTaskServiceImpl and LogStoreTaskServiceImpl serve those profiles
 @RequiredArgsConstructor // Lombok: Generates a constructor injecting final fields (TaskRepository)
 @Transactional(readOnly = true) // Default transactionality for read operations
 public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository; // Injected by Spring via constructor
+    private final EntityManager entityManager; // Shared, transaction-bound EntityManager proxy
+    private final TaskSearchRepository taskSearchRepository; // PostgreSQL full-text or in-memory index, see SearchConfig
+    private final TaskTombstoneRepository taskTombstoneRepository; // Deleted task ids, for delta sync
+    private final ApplicationEventPublisher eventPublisher; // TaskChangeEvents for listeners that mirror task data
+    private final TaskBatchLoader taskBatchLoader; // Batches concurrent lookups by id into shared IN (...) queries
+    private final TaskChangeWindow taskChangeWindow; // How far back and how close to now delta sync reaches
 
     @Override
     @Transactional // Override readOnly for write operation
     public Task createTask(Task task) {
         // ID and lastModified are handled by JPA/Auditing
         task.setId(null); // Ensure we are creating a new one, not updating
-        return taskRepository.save(task);
+        Task created = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangeEvent.saved(List.of(created)));
+        return created;
     }
 
     @Override
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+    public TaskPage getTasksPage(String cursor, int limit) {
+        // Fetch one extra row to find out whether another page follows
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<Task> tasks;
+        if (cursor == null) {
+            tasks = taskRepository.findFirstPage(fetchLimit);
+        } else {
+            TaskCursor position = TaskCursor.decode(cursor);
+            tasks = taskRepository.findPageAfter(position.lastModified(), position.id(), fetchLimit);
+        }
+        if (tasks.size() <= limit) {
+            return new TaskPage(tasks, null); // Last page
+        }
+        List<Task> page = tasks.subList(0, limit);
+        return new TaskPage(page, TaskCursor.after(page.get(limit - 1)).encode());
     }
 
+    // Column projection: only the requested fields are read, and no entities enter the persistence context
     @Override
+    public TaskProjectionPage getTasksPage(String cursor, int limit, Set<TaskField> fields) {
+        TaskCursor position = cursor == null ? null : TaskCursor.decode(cursor);
+        List<TaskProjection> rows = position == null
+                ? taskRepository.findProjected(fields, null, null, Limit.of(limit + 1))
+                : taskRepository.findProjected(fields, position.lastModified(), position.id(), Limit.of(limit + 1));
+        if (rows.size() <= limit) {
+            return new TaskProjectionPage(rows, null); // Last page
+        }
+        List<TaskProjection> page = rows.subList(0, limit);
+        TaskProjection last = page.get(limit - 1);
+        return new TaskProjectionPage(page, new TaskCursor(last.lastModified(), last.id()).encode());
+    }
+
+    // Filtered, sorted listing: one query built from Specifications, keyset-paged on (sort column, id)
+    @Override
+    public TaskPage findTasks(TaskQuery query, String cursor, int limit) {
+        Specification<Task> specification = TaskSpecifications.matching(query);
+        if (cursor != null) {
+            TaskQueryCursor position = TaskQueryCursor.decode(query, cursor);
+            specification = specification.and(TaskSpecifications.after(query, position.value(), position.id()));
+        }
+        List<Task> tasks = taskRepository.findBy(specification, rows -> rows
+                .sortBy(TaskSpecifications.sort(query))
+                .limit(limit + 1) // One extra row tells whether another page follows
+                .all());
+        return TaskQueryCursor.page(query, tasks, limit);
+    }
+
+    @Override
+    public void streamAllTasks(Consumer<Task> consumer) {
+        try (Stream<Task> tasks = taskRepository.streamAllOrdered()) {
+            tasks.forEach(task -> {
+                consumer.accept(task);
+                entityManager.detach(task); // Keep the persistence context from growing with the table
+            });
+        }
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.TASKS_CACHE, key = "#id", unless = "#result == null") // Misses are not cached
+    @Transactional(propagation = Propagation.SUPPORTS) // The loader's batch query has its own transaction; waiting holds no connection
     public Optional<Task> getTaskById(Long id) {
-        return taskRepository.findById(id);
+        return taskBatchLoader.load(id);
+    }
+
+    // Multi-get in request order, without duplicates; ids that do not exist are left out
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Task> getTasksByIds(List<Long> ids) {
+        return List.copyOf(taskBatchLoader.loadAll(ids).values());
+    }
+
+    @Override
+    public Optional<LocalDateTime> getTaskVersion(Long id) {
+        return taskRepository.findLastModifiedById(id);
+    }
+
+    @Override
+    public List<Task> searchTasks(String query, int limit, int offset) {
+        return taskSearchRepository.search(query, limit, offset);
+    }
+
+    // Delta sync: both tables are read with the keyset queries used for paging, then merged in (time, id) order.
+    // Creates and updates need no log of their own, since lastModified already orders them.
+    @Override
+    public TaskChanges getChanges(String since, int limit, boolean unsettled) {
+        TaskCursor position = taskChangeWindow.position(since);
+        Limit fetchLimit = Limit.of(limit + 1); // One extra row tells whether more changes are waiting
+        List<Task> changed = position == null
+                ? taskRepository.findFirstPage(fetchLimit)
+                : taskRepository.findPageAfter(position.lastModified(), position.id(), fetchLimit);
+        List<TaskTombstone> deleted = position == null
+                ? taskTombstoneRepository.findFirstPage(fetchLimit)
+                : taskTombstoneRepository.findPageAfter(position.lastModified(), position.id(), fetchLimit);
+        return mergeChanges(position, changed, deleted, limit, unsettled ? null : taskChangeWindow.settledUntil());
+    }
+
+    // Deletions older than the retention leave the change log; positions before it get 410 (TaskChangeWindow)
+    @Scheduled(fixedDelayString = "${tasks.changes.prune-interval:1h}")
+    @Transactional
+    public void pruneTombstones() {
+        taskTombstoneRepository.deleteDeletedBefore(taskChangeWindow.retainedSince());
+    }
+
+    // The first `limit` changes of both (time, id)-ordered lists, each fetched with one row beyond the limit.
+    // Changes after settledUntil (null: no bound) are left for a later request, and so is the position after them.
+    static TaskChanges mergeChanges(TaskCursor position, List<Task> changed, List<TaskTombstone> deleted, int limit,
+                                    LocalDateTime settledUntil) {
+        if (settledUntil != null) {
+            changed = changed.stream().takeWhile(task -> !task.getLastModified().isAfter(settledUntil)).toList();
+            deleted = deleted.stream().takeWhile(tombstone -> !tombstone.getDeletedAt().isAfter(settledUntil)).toList();
+        }
+        int c = 0;
+        int d = 0;
+        TaskCursor last = position; // Echoed back unchanged when nothing happened
+        while (c + d < limit && (c < changed.size() || d < deleted.size())) {
+            boolean nextIsChange = d == deleted.size()
+                    || (c < changed.size() && TaskCursor.after(changed.get(c)).compareTo(TaskCursor.after(deleted.get(d))) < 0);
+            last = nextIsChange ? TaskCursor.after(changed.get(c++)) : TaskCursor.after(deleted.get(d++));
+        }
+        boolean hasMore = c < changed.size() || d < deleted.size();
+        return new TaskChanges(changed.subList(0, c), deleted.subList(0, d), last == null ? null : last.encode(), hasMore);
     }
 
     @Override
     @Transactional // Override readOnly for write operation
+    @CachePut(cacheNames = CacheConfig.TASKS_CACHE, key = "#id", unless = "#result == null") // Refreshed after commit with the new row
     public Optional<Task> updateTask(Long id, Task taskDetails) {
-        return taskRepository.findById(id)
-                .map(existingTask -> {
-                    existingTask.setName(taskDetails.getName());
-                    existingTask.setDescription(taskDetails.getDescription());
-                    // lastModified will be updated automatically by JPA Auditing on save
-                    return taskRepository.save(existingTask);
-                });
-        // If findById returns empty Optional, map() won't execute, and empty Optional is returned
+        // One UPDATE ... RETURNING: no SELECT first and no dirty checking; empty if the id does not exist
+        return published(taskRepository.updateReturning(id, taskDetails, false));
+    }
+
+    @Override
+    @Transactional // Override readOnly for write operation
+    @CachePut(cacheNames = CacheConfig.TASKS_CACHE, key = "#id", unless = "#result == null")
+    public Optional<Task> patchTask(Long id, Task changes) {
+        // Same single statement; null fields keep their current value
+        return published(taskRepository.updateReturning(id, changes, true));
     }
 
     @Override
     @Transactional // Override readOnly for write operation
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
     public boolean deleteTask(Long id) {
-        if (taskRepository.existsById(id)) {
-            taskRepository.deleteById(id);
-            return true;
+        boolean deleted = taskRepository.deleteDirectlyById(id) > 0; // One DELETE; 0 rows means task not found
+        if (deleted) {
+            recordDeleted(List.of(id));
+        }
+        return deleted;
+    }
+
+    @Override
+    @Transactional // Override readOnly for write operation
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, allEntries = true) // Deleted ids are not known individually
+    public int deleteTasksModifiedBefore(LocalDateTime cutoff) {
+        List<Long> deleted = taskRepository.deleteAllModifiedBefore(cutoff); // One DELETE ... RETURNING id
+        if (!deleted.isEmpty()) {
+            recordDeleted(deleted);
+        }
+        return deleted.size();
+    }
+
+    // Batch operations: each runs in one transaction and sends its rows as a single JDBC batch.
+    // Invalid items are reported individually and left out of the batch instead of failing the whole request.
+
+    @Override
+    @Transactional // Override readOnly for write operation
+    public List<BatchItemResult> createTasks(List<Task> tasks) {
+        TaskBatch<Task> batch = TaskBatch.creating(tasks);
+        if (!batch.valid().isEmpty()) {
+            List<Task> created = batch.written(taskRepository.insertAll(batch.valid()), HttpStatus.CREATED);
+            eventPublisher.publishEvent(TaskChangeEvent.saved(created));
+        }
+        return batch.results();
+    }
+
+    @Override
+    @Transactional // Override readOnly for write operation
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, allEntries = true) // One flush after commit instead of per-id bookkeeping
+    public List<BatchItemResult> updateTasks(List<Task> tasks) {
+        TaskBatch<Task> batch = TaskBatch.updating(tasks);
+        if (!batch.valid().isEmpty()) {
+            List<Task> updated = batch.affected(taskRepository.updateAll(batch.valid()), HttpStatus.OK);
+            eventPublisher.publishEvent(TaskChangeEvent.saved(updated));
+        }
+        return batch.results();
+    }
+
+    @Override
+    @Transactional // Override readOnly for write operation
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, allEntries = true)
+    public List<BatchItemResult> deleteTasks(List<Long> ids) {
+        TaskBatch<Long> batch = TaskBatch.deleting(ids);
+        if (!batch.valid().isEmpty()) {
+            List<Long> deleted = batch.affected(taskRepository.deleteAllByIds(batch.valid()), HttpStatus.NO_CONTENT);
+            if (!deleted.isEmpty()) {
+                recordDeleted(deleted);
+            }
+        }
+        return batch.results();
+    }
+
+    private Optional<Task> published(Optional<Task> updated) {
+        updated.ifPresent(task -> eventPublisher.publishEvent(TaskChangeEvent.saved(List.of(task))));
+        return updated;
+    }
+
+    // Records tombstones for deleted tasks in the same transaction as the DELETE, then announces them
+    private void recordDeleted(List<Long> deletedIds) {
+        LocalDateTime deletedAt = taskRepository.recordDeletions(deletedIds);
+        eventPublisher.publishEvent(TaskChangeEvent.deleted(deletedIds, deletedAt));
+    }
+
+    // Mirrors the column constraints on Task so one bad item cannot abort the whole batch in the database.
+    // Bulk imports apply the same rules: the JDBC import calls it per record, and the PostgreSQL import runs them
+    // as SQL (PostgresTaskTransferRepository.INVALID) and calls it only to name the rule a rejected record broke.
+    public static String validate(Task task) {
+        if (task.getName() == null || task.getName().trim().isEmpty()) {
+            return "name must not be blank";
+        }
+        if (task.getName().length() > 100) {
+            return "name must be at most 100 characters";
+        }
+        if (task.getDescription() != null && task.getDescription().length() > 1000) {
+            return "description must be at most 1000 characters";
         }
-        return false; // Task not found
+        return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.model.TaskTransferFormat;
+import com.via.doc1.devops_demo_cd.repository.TaskTransferRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// Bulk export and import of the whole task table, for warehouse loads and seeding environments.
+// An export is one read-only transaction (a consistent snapshot, and a replica when one is configured);
+// an import is one transaction, so a bad record leaves the table as it was.
+@Service
+@Profile("!reactive & !log-store") // COPY and its JDBC fallback need the JDBC DataSource
+@RequiredArgsConstructor
+public class TaskTransferService {
+
+    private final TaskTransferRepository taskTransferRepository; // COPY or JDBC batches, see TaskTransferConfig
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public void exportTasks(TaskTransferFormat format, OutputStream out) throws IOException {
+        taskTransferRepository.exportTasks(format, out);
+    }
+
+    // Imported chunks are published like batch creates where the repository knows their rows (JDBC batches).
+    // COPY does not read them back: SSE subscribers miss those events and catch up through /changes.
+    @Transactional
+    public long importTasks(TaskTransferFormat format, InputStream in) throws IOException {
+        return taskTransferRepository.importTasks(format, in,
+                imported -> eventPublisher.publishEvent(TaskChangeEvent.saved(imported)));
+    }
+}
@@ -0,0 +1,174 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.via.doc1.devops_demo_cd.config.WriteBehindProperties;
+import com.via.doc1.devops_demo_cd.exception.TooManyRequestsException;
+import com.via.doc1.devops_demo_cd.model.BatchItemResult;
+import com.via.doc1.devops_demo_cd.model.IngestionStatus;
+import com.via.doc1.devops_demo_cd.model.Task;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind ingestion: POSTed tasks wait in a bounded queue and one background thread inserts them in
+// batches through TaskService.createTasks (a single JDBC batch per flush), so bursts cost a few pooled
+// connections instead of one transaction per request. Only active with tasks.write-behind.enabled=true.
+public class TaskWriteBehindQueue implements SmartLifecycle {
+
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final TaskService taskService;
+    private final WriteBehindProperties properties;
+    private final BlockingQueue<Pending> queue;
+    private final Cache<String, IngestionStatus> statuses;
+    private final Timer flushTimer;
+    private final DistributionSummary flushSize;
+    private final Counter rejected;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public TaskWriteBehindQueue(TaskService taskService, WriteBehindProperties properties, MeterRegistry meterRegistry) {
+        this.taskService = taskService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.capacity());
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(properties.statusRetention())
+                .maximumSize(Math.max(100_000L, 10L * properties.capacity())) // Bounded even under sustained load
+                .build();
+        Gauge.builder("tasks.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Tasks accepted but not yet flushed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("tasks.ingest.flush")
+                .description("Time to insert one batch of queued tasks")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("tasks.ingest.flush.size")
+                .description("Tasks per flush")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("tasks.ingest.rejected")
+                .description("POSTs answered with 429 because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    // Queues the task and returns its ticket; 429 when the queue is full (or already draining for shutdown)
+    public String submit(Task task) {
+        String ticket = UUID.randomUUID().toString();
+        task.setId(null); // Ensure we are creating a new one, not updating
+        statuses.put(ticket, IngestionStatus.pending(ticket));
+        if (!running || !queue.offer(new Pending(ticket, task))) {
+            statuses.invalidate(ticket);
+            rejected.increment();
+            throw new TooManyRequestsException("Task ingestion queue is full, retry later");
+        }
+        return ticket;
+    }
+
+    public Optional<IngestionStatus> status(String ticket) {
+        return Optional.ofNullable(statuses.getIfPresent(ticket));
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "task-write-behind");
+        flusher.start();
+    }
+
+    // Stops accepting, then waits for the flusher to write out everything already queued
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Low phase: stopped after the web server (higher phases stop first), so no request can enqueue during the drain
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void flushLoop() {
+        long maxDelayNanos = properties.maxDelay().toNanos();
+        List<Pending> batch = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS); // Short, so stop() is noticed promptly
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos; // The oldest task waits at most maxDelay
+                while (batch.size() < properties.batchSize()) {
+                    long remaining = running ? deadline - System.nanoTime() : 0; // Draining: don't wait for stragglers
+                    // Waits in short slices so a stop() during a long max-delay is noticed promptly
+                    Pending next = queue.poll(Math.min(Math.max(0, remaining), IDLE_POLL_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    } else if (remaining <= IDLE_POLL_NANOS) {
+                        break; // Deadline reached
+                    }
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void flush(List<Pending> batch) {
+        List<Task> tasks = batch.stream().map(Pending::task).toList();
+        flushSize.record(tasks.size());
+        Timer.Sample sample = Timer.start();
+        try {
+            List<BatchItemResult> results = taskService.createTasks(tasks);
+            for (BatchItemResult result : results) {
+                String ticket = batch.get(result.index()).ticket();
+                statuses.put(ticket, result.status() == HttpStatus.CREATED.value()
+                        ? IngestionStatus.created(ticket, result.id())
+                        : IngestionStatus.failed(ticket, result.error()));
+            }
+        } catch (RuntimeException e) { // The whole batch was rolled back
+            batch.forEach(pending -> statuses.put(pending.ticket(), IngestionStatus.failed(pending.ticket(), e.getMessage())));
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    record Pending(String ticket, Task task) {
+    }
+}
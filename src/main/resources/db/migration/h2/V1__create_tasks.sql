@@ -0,0 +1,14 @@
+-- Tables for Task and TaskTombstone on embedded H2 (tests, benchmarks, load generator)
+create table if not exists tasks (
+    id bigint generated by default as identity primary key,
+    name varchar(100) not null,
+    description varchar(1000),
+    last_modified timestamp(6) not null
+);
+
+create table if not exists task_tombstones (
+    task_id bigint not null primary key,
+    deleted_at timestamp(6) not null
+);
+
+create index if not exists idx_task_tombstones_deleted_at on task_tombstones (deleted_at, task_id);
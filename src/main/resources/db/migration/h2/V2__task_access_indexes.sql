@@ -0,0 +1,4 @@
+-- Same access paths as on PostgreSQL. H2 has no trigram indexes; a B-tree on name serves prefix LIKE.
+-- Search uses the in-memory index (InMemoryTaskSearchRepository), so there is no search column.
+create index if not exists idx_tasks_last_modified_id on tasks (last_modified, id);
+create index if not exists idx_tasks_name on tasks (name);
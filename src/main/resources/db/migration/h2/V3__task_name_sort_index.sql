@@ -0,0 +1,4 @@
+-- Sorting by name with id as tiebreaker, as on PostgreSQL. The (name, id) index also serves prefix LIKE through
+-- its leading column, so it replaces the single-column name index of V2.
+create index if not exists idx_tasks_name_id on tasks (name, id);
+drop index if exists idx_tasks_name;
@@ -0,0 +1,17 @@
+-- Indexes for the queries the service runs; until now tasks only had its primary key.
+
+-- Keyset paging, delta sync and streaming: order by last_modified, id with (last_modified, id) > (?, ?).
+-- Also serves the last_modified range of DELETE ?modifiedBefore= (leading column), so no separate index on it.
+create index if not exists idx_tasks_last_modified_id on tasks (last_modified, id);
+
+-- Name lookups with LIKE/ILIKE, prefix or infix: trigram GIN index (pg_trgm is a trusted extension since
+-- PostgreSQL 13, so the database owner may create it)
+create extension if not exists pg_trgm;
+create index if not exists idx_tasks_name_trgm on tasks using gin (name gin_trgm_ops);
+
+-- Full-text search (PostgresTaskSearchRepository): a generated tsvector column, name weighted above description
+alter table tasks add column if not exists search_vector tsvector generated always as (
+    setweight(to_tsvector('english', coalesce(name, '')), 'A')
+    || setweight(to_tsvector('english', coalesce(description, '')), 'B')) stored;
+
+create index if not exists idx_tasks_search_vector on tasks using gin (search_vector);
@@ -0,0 +1,4 @@
+-- Filtered listings sorted by name (GET /api/v1/tasks?sort=name): a B-tree in (name, id) order returns the rows
+-- already sorted and gives keyset pages an index range to seek to, in either direction. The trigram index of V2
+-- still serves the namePrefix/nameContains filters, since it does not follow the collation order.
+create index if not exists idx_tasks_name_id on tasks (name, id);
@@ -0,0 +1,72 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimiter limiter =
+            new AdaptiveConcurrencyLimiter("read", 20, 4, 200, 2.0, meterRegistry);
+
+    // Completes `count` requests of the given latency while the limiter is fully used
+    private void busy(int count, long millis) {
+        for (int i = 0; i < count; i++) {
+            limiter.onSample(TimeUnit.MILLISECONDS.toNanos(millis), limiter.getLimit());
+        }
+    }
+
+    @Test
+    void tryAcquire_shouldRejectOnceTheLimitIsReached() {
+        // Arrange
+        AdaptiveConcurrencyLimiter small = new AdaptiveConcurrencyLimiter("write", 4, 4, 200, 2.0, meterRegistry);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(small.tryAcquire());
+        }
+
+        // Act & Assert
+        assertFalse(small.tryAcquire());
+        small.release(TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(small.tryAcquire());
+        assertEquals(1.0, meterRegistry.get("tasks.concurrency.rejected").tag("kind", "write").counter().count());
+        assertEquals(4.0, meterRegistry.get("tasks.concurrency.in-flight").tag("kind", "write").gauge().value());
+    }
+
+    @Test
+    void limit_shouldGrowWhileLatencyIsSteady() {
+        // Act
+        busy(50, 10);
+
+        // Assert
+        assertTrue(limiter.getLimit() > 20, "limit " + limiter.getLimit());
+        assertEquals(limiter.getLimit(), meterRegistry.get("tasks.concurrency.limit").tag("kind", "read").gauge().value());
+    }
+
+    @Test
+    void limit_shouldShrinkWhenLatencyRises() {
+        // Arrange
+        busy(50, 10);
+        int healthy = limiter.getLimit();
+
+        // Act: the database slows down tenfold
+        busy(100, 100);
+
+        // Assert
+        assertTrue(limiter.getLimit() < healthy / 2, "limit " + limiter.getLimit() + " was " + healthy);
+    }
+
+    @Test
+    void limit_shouldStayPutWhileMostlyIdle() {
+        // Act
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(TimeUnit.MILLISECONDS.toNanos(i % 2 == 0 ? 10 : 500), 1);
+        }
+
+        // Assert
+        assertEquals(20, limiter.getLimit());
+    }
+}
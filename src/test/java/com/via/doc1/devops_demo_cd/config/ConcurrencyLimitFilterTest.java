@@ -0,0 +1,113 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimiter reads = new AdaptiveConcurrencyLimiter("read", 4, 4, 200, 2.0, meterRegistry);
+    private final AdaptiveConcurrencyLimiter writes = new AdaptiveConcurrencyLimiter("write", 4, 4, 200, 2.0, meterRegistry);
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(reads, writes, Duration.ofSeconds(2), objectMapper);
+
+    private MockHttpServletResponse run(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private void fill(AdaptiveConcurrencyLimiter limiter) {
+        while (limiter.tryAcquire()) {
+            // Hold every slot, like requests stuck waiting for a connection
+        }
+    }
+
+    @Test
+    void request_shouldPassAndReleaseItsSlot() throws Exception {
+        // Act
+        MockHttpServletResponse response = run(new MockHttpServletRequest("GET", "/api/v1/tasks"));
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals(0.0, meterRegistry.get("tasks.concurrency.in-flight").tag("kind", "read").gauge().value());
+    }
+
+    @Test
+    void requestOverTheLimit_shouldGet503WithRetryAfter() throws Exception {
+        // Arrange
+        fill(reads);
+
+        // Act
+        MockHttpServletResponse response = run(new MockHttpServletRequest("GET", "/api/v1/tasks/1"));
+
+        // Assert
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        Map<?, ?> body = objectMapper.readValue(response.getContentAsByteArray(), Map.class);
+        assertEquals(503, body.get("status"));
+        assertEquals("/api/v1/tasks/1", body.get("path"));
+    }
+
+    @Test
+    void readsAndWrites_shouldHaveSeparateLimits() throws Exception {
+        // Arrange
+        fill(writes);
+
+        // Act & Assert
+        assertEquals(503, run(new MockHttpServletRequest("POST", "/api/v1/tasks")).getStatus());
+        assertEquals(200, run(new MockHttpServletRequest("GET", "/api/v1/tasks")).getStatus());
+    }
+
+    @Test
+    void changeFeed_shouldNotBeLimited() throws Exception {
+        // Arrange
+        fill(reads);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks/changes");
+        request.addHeader(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE);
+
+        // Act & Assert
+        assertEquals(200, run(request).getStatus());
+    }
+
+    @Test
+    void exportAndImport_shouldNotBeLimited() throws Exception {
+        // Arrange
+        fill(reads);
+        fill(writes);
+
+        // Act & Assert
+        assertEquals(200, run(new MockHttpServletRequest("GET", "/api/v1/tasks/export")).getStatus());
+        assertEquals(200, run(new MockHttpServletRequest("POST", "/api/v1/tasks/import")).getStatus());
+    }
+
+    @Test
+    void eventStreamAccept_shouldNotExemptOtherRequests() throws Exception {
+        // Arrange
+        fill(reads);
+        fill(writes);
+        String accept = MediaType.TEXT_EVENT_STREAM_VALUE + ", " + MediaType.APPLICATION_JSON_VALUE;
+
+        // Act & Assert
+        for (MockHttpServletRequest request : List.of(new MockHttpServletRequest("GET", "/api/v1/tasks"),
+                new MockHttpServletRequest("GET", "/api/v1/tasks/1"), new MockHttpServletRequest("POST", "/api/v1/tasks/changes"))) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+            assertEquals(503, run(request).getStatus(), request.getMethod() + " " + request.getRequestURI());
+        }
+        MockHttpServletRequest polling = new MockHttpServletRequest("GET", "/api/v1/tasks/changes"); // JSON delta sync
+        polling.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        assertEquals(503, run(polling).getStatus());
+    }
+}
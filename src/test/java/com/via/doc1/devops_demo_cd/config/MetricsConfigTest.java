@@ -0,0 +1,101 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.repository.TaskRepository;
+import com.via.doc1.devops_demo_cd.repository.TaskSearchRepository;
+import com.via.doc1.devops_demo_cd.repository.TaskTombstoneRepository;
+import com.via.doc1.devops_demo_cd.service.TaskBatchLoader;
+import com.via.doc1.devops_demo_cd.service.TaskChangeWindow;
+import com.via.doc1.devops_demo_cd.service.TaskService;
+import com.via.doc1.devops_demo_cd.service.TaskServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(MetricsConfigTest.Config.class)
+class MetricsConfigTest {
+
+    @Configuration
+    @EnableAspectJAutoProxy // Done by Spring Boot's AopAutoConfiguration in the application
+    @Import({MetricsConfig.class, CacheConfig.class, TaskServiceImpl.class})
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfig.TASKS_CACHE);
+        }
+
+        @Bean // Batching off: lookups go straight to findById
+        TaskBatchLoader taskBatchLoader(TaskRepository taskRepository) {
+            return new TaskBatchLoader(taskRepository, TransactionOperations.withoutTransaction(),
+                    new BatchLoaderProperties(false, Duration.ZERO, 1), new SimpleMeterRegistry());
+        }
+    }
+
+    @MockitoBean
+    private TaskRepository taskRepository;
+
+    @MockitoBean
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private TaskSearchRepository taskSearchRepository;
+
+    @MockitoBean
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @MockitoBean
+    private TaskChangeWindow taskChangeWindow;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void serviceTimer_shouldRecordEveryCallIncludingCacheHits() {
+        Task task = new Task("Task One", "Desc One");
+        task.setId(1L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        taskService.getTaskById(1L);
+        taskService.getTaskById(1L); // Served from the cache
+
+        Timer timer = registry.get(MetricsConfig.SERVICE_TIMER).tags("operation", "getTaskById", "exception", "none").timer();
+        assertEquals(2, timer.count());
+        verify(taskRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void serviceTimer_shouldTagFailuresWithExceptionType() {
+        when(taskRepository.findFirstPage(any())).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> taskService.getTasksPage(null, 10));
+
+        assertEquals(1, registry.get(MetricsConfig.SERVICE_TIMER)
+                .tags("operation", "getTasksPage", "exception", "IllegalStateException").timer().count());
+    }
+}
@@ -0,0 +1,45 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The whole application as deployed: the Prometheus registry must go through Boot's MeterRegistryPostProcessor
+// (binders, meter filters, histogram settings) like any other bean, or most meters are never exported
+@AutoConfigureObservability // Tests otherwise replace the Prometheus registry with a simple one
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics-export;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false"
+})
+class MetricsExportTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Test
+    void prometheusScrape_shouldIncludeHibernateHikariAndRequestHistograms() {
+        // Arrange
+        client.get().uri("/api/v1/tasks").exchange().expectStatus().isOk();
+
+        // Act
+        String scrape = client.get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        // Assert
+        assertNotNull(scrape);
+        assertTrue(scrape.contains("\nhibernate_"), "hibernate.* meters");
+        assertTrue(scrape.contains("\nhikaricp_connections_acquire_seconds_bucket"), "hikaricp.* histograms");
+        assertTrue(scrape.contains("\nhttp_server_requests_seconds_bucket"), "http.server.requests histogram");
+        assertTrue(scrape.contains("\njvm_"), "JVM binders");
+        assertTrue(scrape.contains("\ntasks_service_seconds_bucket"), "TaskService timer");
+    }
+}
@@ -0,0 +1,129 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(OutputCaptureExtension.class)
+class QueryBudgetFilterTest {
+
+    private final QueryCounter counter = new QueryCounter();
+
+    // Runs a request whose handler executes the given number of statements, then writes a body (or not)
+    private MockHttpServletResponse run(QueryBudgetFilter filter, int statements, boolean body) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/tasks"), response, (req, res) -> {
+            for (int i = 0; i < statements; i++) {
+                counter.beforeQuery(null, List.of());
+                counter.afterQuery(null, List.of());
+            }
+            if (body) {
+                res.getOutputStream().write("[]".getBytes());
+                res.flushBuffer(); // Commits the response: later headers would be lost
+            }
+        });
+        return response;
+    }
+
+    @Test
+    void headers_shouldReportStatementsBeforeTheBodyIsWritten() throws Exception {
+        // Arrange
+        QueryBudgetFilter filter = new QueryBudgetFilter(true, 10, Duration.ofSeconds(1));
+
+        // Act
+        MockHttpServletResponse response = run(filter, 3, true);
+
+        // Assert
+        assertTrue(response.isCommitted());
+        assertEquals("3", response.getHeader(QueryBudgetFilter.STATEMENTS_HEADER));
+        assertTrue(response.getHeader(QueryBudgetFilter.TIMING_HEADER).startsWith("db;dur="));
+    }
+
+    @Test
+    void headers_shouldBeSetForResponsesWithoutBody() throws Exception {
+        // Arrange
+        QueryBudgetFilter filter = new QueryBudgetFilter(true, 10, Duration.ofSeconds(1));
+
+        // Act
+        MockHttpServletResponse response = run(filter, 2, false);
+
+        // Assert
+        assertEquals("2", response.getHeader(QueryBudgetFilter.STATEMENTS_HEADER));
+    }
+
+    @Test
+    void headersOff_shouldLeaveTheResponseAlone() throws Exception {
+        // Arrange
+        QueryBudgetFilter filter = new QueryBudgetFilter(false, 1, Duration.ofSeconds(1));
+
+        // Act
+        MockHttpServletResponse response = run(filter, 2, true); // Over budget: logged, not failed
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(QueryBudgetFilter.STATEMENTS_HEADER));
+    }
+
+    @Test
+    void statementsOutsideARequest_shouldNotBeCounted() throws Exception {
+        // Arrange
+        QueryBudgetFilter filter = new QueryBudgetFilter(true, 10, Duration.ofSeconds(1));
+        counter.beforeQuery(null, List.of()); // Like the write-behind flusher: no request on this thread
+        counter.afterQuery(null, List.of());
+
+        // Act
+        MockHttpServletResponse response = run(filter, 0, false);
+
+        // Assert
+        assertEquals("0", response.getHeader(QueryBudgetFilter.STATEMENTS_HEADER));
+    }
+
+    @Test
+    void overBudget_shouldBeLogged(CapturedOutput output) throws Exception {
+        // Arrange
+        QueryBudgetFilter filter = new QueryBudgetFilter(false, 1, Duration.ofSeconds(1));
+
+        // Act
+        run(filter, 2, true);
+
+        // Assert
+        assertTrue(output.getOut().contains("Query budget exceeded: GET /api/v1/tasks ran 2 statements"));
+    }
+
+    @Test
+    void streamedResponses_shouldBeLeftOutOfTheBudget(CapturedOutput output) throws Exception {
+        // Arrange
+        QueryBudgetFilter filter = new QueryBudgetFilter(true, 1, Duration.ofSeconds(1));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks/changes");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act: as for an SseEmitter, the handler returns once the stream is set up; other threads write the events
+        filter.doFilter(request, response, (req, res) -> {
+            for (int i = 0; i < 2; i++) {
+                counter.beforeQuery(null, List.of());
+                counter.afterQuery(null, List.of());
+            }
+            StandardServletAsyncWebRequest asyncRequest =
+                    new StandardServletAsyncWebRequest((HttpServletRequest) req, (HttpServletResponse) res);
+            WebAsyncUtils.getAsyncManager(req).setAsyncWebRequest(asyncRequest);
+            asyncRequest.startAsync();
+        });
+
+        // Assert: headers for the work done before the stream, but no budget check on part of a request
+        assertEquals("2", response.getHeader(QueryBudgetFilter.STATEMENTS_HEADER));
+        assertFalse(output.getOut().contains("Query budget exceeded"));
+    }
+}
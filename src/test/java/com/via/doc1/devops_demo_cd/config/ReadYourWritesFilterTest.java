@@ -0,0 +1,50 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+
+    // Runs one request through the filter and reports whether it was pinned to the primary while handled
+    private boolean pinnedDuring(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        FilterChain chain = (req, res) -> pinned.set(ReplicaDataSource.isPinnedToPrimary());
+        filter.doFilter(request, response, chain);
+        assertFalse(ReplicaDataSource.isPinnedToPrimary()); // Cleared for the next request on this thread
+        return pinned.get();
+    }
+
+    @Test
+    void write_shouldBePinnedAndSetTheCookie() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(pinnedDuring(new MockHttpServletRequest("POST", "/api/v1/tasks"), response));
+
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(cookie);
+        assertEquals(5, cookie.getMaxAge());
+        assertTrue(Long.parseLong(cookie.getValue()) > System.currentTimeMillis());
+    }
+
+    @Test
+    void read_shouldBePinnedOnlyWhileTheCookieIsFresh() throws Exception {
+        MockHttpServletRequest fresh = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        fresh.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() + 5_000)));
+        MockHttpServletRequest expired = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        expired.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() - 1)));
+
+        assertTrue(pinnedDuring(fresh, new MockHttpServletResponse()));
+        assertFalse(pinnedDuring(expired, new MockHttpServletResponse()));
+        assertFalse(pinnedDuring(new MockHttpServletRequest("GET", "/api/v1/tasks"), new MockHttpServletResponse()));
+    }
+}
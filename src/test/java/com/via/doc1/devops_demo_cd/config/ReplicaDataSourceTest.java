@@ -0,0 +1,137 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Routing against real embedded databases: each H2 instance answers "which node am I" from its own table
+class ReplicaDataSourceTest {
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable resource : resources.reversed()) {
+            resource.close();
+        }
+        ReplicaDataSource.pinToPrimary(false);
+    }
+
+    private HikariDataSource node(String name) throws SQLException {
+        String url = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists node (name varchar(20))");
+            statement.execute("delete from node");
+            statement.execute("insert into node values ('" + name + "')");
+        }
+        return pool(name, url);
+    }
+
+    private HikariDataSource pool(String name, String url) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername("sa");
+        config.setConnectionTimeout(250); // Hikari's minimum: fail over fast
+        config.setInitializationFailTimeout(-1);
+        HikariDataSource pool = new HikariDataSource(config);
+        resources.add(pool);
+        return pool;
+    }
+
+    private ReplicaDataSource replicas(DataSource primary, ReplicaProperties.Selection selection, HikariDataSource... replicas) {
+        ReplicaDataSource dataSource = new ReplicaDataSource(primary, List.of(replicas), selection, Duration.ofHours(1));
+        resources.add(dataSource);
+        return dataSource;
+    }
+
+    private static String nodeOf(DataSource dataSource, boolean readOnly) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(readOnly);
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("select name from node")) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+
+    @Test
+    void lazyProxy_shouldSendReadOnlyConnectionsToReplicasAndTheRestToThePrimary() throws SQLException {
+        // Arrange: wired like ReplicaRoutingConfig
+        HikariDataSource primary = node("primary");
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replicas(primary, ReplicaProperties.Selection.ROUND_ROBIN, node("replica-a")));
+
+        // Act & Assert
+        assertEquals("replica-a", nodeOf(routing, true));
+        assertEquals("primary", nodeOf(routing, false));
+    }
+
+    @Test
+    void roundRobin_shouldRotateThroughReplicas() throws SQLException {
+        HikariDataSource primary = node("primary");
+        ReplicaDataSource dataSource = replicas(primary, ReplicaProperties.Selection.ROUND_ROBIN, node("replica-a"), node("replica-b"));
+
+        List<String> nodes = List.of(nodeOf(dataSource, true), nodeOf(dataSource, true), nodeOf(dataSource, true));
+
+        assertEquals(List.of("replica-a", "replica-b", "replica-a"), nodes);
+    }
+
+    @Test
+    void leastConnections_shouldPickTheLeastBusyReplica() throws SQLException {
+        // Arrange
+        HikariDataSource primary = node("primary");
+        HikariDataSource busy = node("replica-a");
+        ReplicaDataSource dataSource = replicas(primary, ReplicaProperties.Selection.LEAST_CONNECTIONS, busy, node("replica-b"));
+
+        // Act & Assert: while replica-a has a connection checked out, reads go to replica-b
+        try (Connection held = busy.getConnection()) {
+            assertEquals("replica-b", nodeOf(dataSource, true));
+            assertEquals("replica-b", nodeOf(dataSource, true));
+        }
+    }
+
+    @Test
+    void unreachableReplica_shouldFailOverToThePrimaryUntilTheHealthCheckSeesItAgain() throws SQLException {
+        // Arrange: IFEXISTS makes connections fail until the database has been created
+        HikariDataSource primary = node("primary");
+        HikariDataSource late = pool("replica-late", "jdbc:h2:mem:replica-late;IFEXISTS=TRUE");
+        ReplicaDataSource dataSource = replicas(primary, ReplicaProperties.Selection.ROUND_ROBIN, late);
+
+        // Act & Assert
+        assertEquals("primary", nodeOf(dataSource, true));
+        assertEquals(List.of(), dataSource.healthyReplicas());
+
+        node("replica-late"); // The replica comes up
+        dataSource.checkHealth();
+
+        assertEquals(List.of("replica-late"), dataSource.healthyReplicas());
+        assertEquals("replica-late", nodeOf(dataSource, true));
+    }
+
+    @Test
+    void pinnedRequest_shouldReadFromThePrimary() throws SQLException {
+        HikariDataSource primary = node("primary");
+        ReplicaDataSource dataSource = replicas(primary, ReplicaProperties.Selection.ROUND_ROBIN, node("replica-a"));
+
+        ReplicaDataSource.pinToPrimary(true);
+
+        assertEquals("primary", nodeOf(dataSource, true));
+    }
+}
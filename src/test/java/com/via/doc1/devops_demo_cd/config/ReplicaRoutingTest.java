@@ -0,0 +1,112 @@
+package com.via.doc1.devops_demo_cd.config;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// End to end with two embedded databases: the replica is never written to (there is no replication between
+// them), so a read-only transaction that sees the replica's empty table proves where it was routed
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.show-sql=false",
+        "tasks.replicas.enabled=true",
+        "tasks.replicas.read-your-writes=10s",
+        "tasks.batch-loader.window=500ms", // Long enough for a second lookup to arrive while the first batch is open
+        "tasks.replicas.urls[0]=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;"
+                + "INIT=create table if not exists tasks (id bigint primary key, name varchar(100) not null, "
+                + "description varchar(1000), last_modified timestamp(6) not null)"
+})
+class ReplicaRoutingTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private WebTestClient client;
+
+    @AfterEach
+    void tearDown() {
+        ReplicaDataSource.pinToPrimary(false);
+    }
+
+    @Test
+    void readOnlyTransactions_shouldUseTheReplicaAndWritesThePrimary() {
+        // Act
+        Task created = taskService.createTask(new Task("Routed", null)); // Read-write transaction
+
+        // Assert
+        assertNotNull(created.getId());
+        assertTrue(taskService.getTasksPage(null, 10).tasks().isEmpty()); // readOnly = true: the replica, which has no rows
+        ReplicaDataSource.pinToPrimary(true); // As ReadYourWritesFilter does after a client's write
+        assertEquals(1, taskService.getTasksPage(null, 10).tasks().size());
+    }
+
+    @Test
+    void batchedLookups_shouldNotAnswerAPinnedCallerFromTheReplica() throws Exception {
+        // Arrange
+        Task created = taskService.createTask(new Task("Just written", null));
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // Act: an unpinned lookup opens a batch and waits out its window; a pinned lookup of the same id arrives in it
+            Future<Optional<Task>> unpinned = callers.submit(() -> taskService.getTaskById(created.getId()));
+            Thread.sleep(100);
+            Future<Optional<Task>> pinned = callers.submit(() -> {
+                ReplicaDataSource.pinToPrimary(true); // As ReadYourWritesFilter does after the client's write
+                try {
+                    return taskService.getTaskById(created.getId());
+                } finally {
+                    ReplicaDataSource.pinToPrimary(false);
+                }
+            });
+
+            // Assert
+            assertEquals(created.getId(), pinned.get(5, TimeUnit.SECONDS).orElseThrow().getId()); // The primary
+            assertTrue(unpinned.get(5, TimeUnit.SECONDS).isEmpty()); // The batch, on the replica
+        } finally {
+            callers.shutdownNow();
+            ReplicaDataSource.pinToPrimary(true);
+            taskService.deleteTask(created.getId()); // The other test counts the primary's rows
+        }
+    }
+
+    @Test
+    void changeFeedReplay_shouldReadThePrimary() {
+        // Arrange
+        String since = LocalDateTime.now().minusMinutes(1).toString();
+        Task created = taskService.createTask(new Task("Missed while offline", null));
+        try {
+            // Act: a reconnecting client, with no pin of its own
+            String firstEvent = client.get().uri("/api/v1/tasks/changes?since={since}", since)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .returnResult(String.class).getResponseBody()
+                    .blockFirst(Duration.ofSeconds(5));
+
+            // Assert: the replica has neither the row nor a tombstone table
+            assertNotNull(firstEvent);
+            assertTrue(firstEvent.contains("Missed while offline"));
+        } finally {
+            ReplicaDataSource.pinToPrimary(true);
+            taskService.deleteTask(created.getId()); // The first test counts the primary's rows
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.via.doc1.devops_demo_cd.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// The contract on the log-store profile: TaskController and LogStoreTaskServiceImpl on a fresh log file
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "tasks.log-store.directory=target/log-store-contract/${random.uuid}",
+        "tasks.log-store.initial-size=1MB",
+        "tasks.changes.settle-time=0s" // Changes are read right after they are made
+})
+@ActiveProfiles("log-store")
+class LogStoreTaskApiContractTest extends TaskApiContractTest {
+}
@@ -0,0 +1,32 @@
+package com.via.doc1.devops_demo_cd.controller;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// MockMvc matcher for the statement budget of an endpoint: .andExpect(QueryBudget.statements(2)) fails the test
+// when the request ran more JDBC statements than declared. Needs tasks.query-budget.headers=true and the filters
+// (@AutoConfigureMockMvc). A request that runs fewer passes, so tighten the budget after an improvement.
+final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    static ResultMatcher statements(int budget) {
+        return result -> {
+            int executed = executed(result);
+            if (executed > budget) {
+                fail(result.getRequest().getMethod() + " " + result.getRequest().getRequestURI() + " ran " + executed
+                        + " JDBC statements, over its budget of " + budget);
+            }
+        };
+    }
+
+    static int executed(MvcResult result) {
+        String header = result.getResponse().getHeader("X-DB-Statements");
+        assertNotNull(header, "No X-DB-Statements header; is tasks.query-budget.headers=true?");
+        return Integer.parseInt(header);
+    }
+}
@@ -0,0 +1,18 @@
+package com.via.doc1.devops_demo_cd.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// The contract on the reactive profile: TaskRouter, ReactiveTaskServiceImpl and R2DBC
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-contract;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.flyway.url=jdbc:h2:mem:reactive-contract;DB_CLOSE_DELAY=-1", // The same in-memory database
+        "spring.flyway.user=sa",
+        "spring.flyway.password=",
+        "tasks.changes.settle-time=0s" // Changes are read right after they are made
+})
+@ActiveProfiles("reactive")
+class ReactiveTaskApiContractTest extends TaskApiContractTest {
+}
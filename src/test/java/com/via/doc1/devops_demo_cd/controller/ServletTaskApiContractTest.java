@@ -0,0 +1,15 @@
+package com.via.doc1.devops_demo_cd.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+// The contract on the default stack: TaskController, TaskServiceImpl and JPA
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:servlet-contract;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "tasks.changes.settle-time=0s" // Changes are read right after they are made
+})
+class ServletTaskApiContractTest extends TaskApiContractTest {
+}
@@ -0,0 +1,477 @@
+package com.via.doc1.devops_demo_cd.controller;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskChanges;
+import com.via.doc1.devops_demo_cd.model.TaskTombstone;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// End-to-end behavior of the task API over HTTP, shared by both stacks: ServletTaskApiContractTest runs it against
+// TaskController (Spring MVC, JPA) and ReactiveTaskApiContractTest against TaskRouter (WebFlux, R2DBC), each on
+// an embedded H2 database of its own
+abstract class TaskApiContractTest {
+
+    private static final String TASKS = "/api/v1/tasks";
+
+    @Autowired
+    protected WebTestClient client;
+
+    @BeforeEach
+    void deleteAllTasks() {
+        client.delete().uri(TASKS + "?modifiedBefore=2999-01-01T00:00:00").exchange().expectStatus().isOk();
+    }
+
+    @Test
+    void createTask_shouldReturn201WithLocation_andGetShouldHonorItsEtag() {
+        // Act
+        Task created = client.post().uri(TASKS).bodyValue(new Task("Write tests", "For both stacks"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().value(HttpHeaders.LOCATION, location -> assertTrue(location.matches(".*/api/v1/tasks/\\d+")))
+                .expectBody(Task.class).returnResult().getResponseBody();
+
+        // Assert
+        assertNotNull(created.getId());
+        assertNotNull(created.getLastModified());
+        String etag = client.get().uri(TASKS + "/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.LAST_MODIFIED)
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Write tests")
+                .jsonPath("$.description").isEqualTo("For both stacks")
+                .returnResult().getResponseHeaders().getETag();
+        assertNotNull(etag);
+        client.get().uri(TASKS + "/{id}", created.getId()).header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void responses_shouldUseTheFormatNamedByAccept_andJsonOtherwise() {
+        // Arrange
+        Task task = create("Binary", null);
+
+        // Act & Assert
+        client.get().uri(TASKS + "/{id}", task.getId()).accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR)
+                .expectBody(Task.class).value(body -> assertEquals("Binary", body.getName()));
+        client.get().uri(TASKS).accept(MediaType.valueOf("application/x-jackson-smile"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.valueOf("application/x-jackson-smile"));
+        client.get().uri(TASKS + "/{id}", task.getId()).accept(MediaType.ALL)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void createTask_withBlankName_shouldReturn400() {
+        client.post().uri(TASKS).bodyValue(new Task(" ", "No name"))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getTask_whenMissing_shouldReturn404WithErrorBody() {
+        client.get().uri(TASKS + "/999999")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.timestamp").exists()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.error").isEqualTo("Not Found")
+                .jsonPath("$.message").isEqualTo("Task not found with id: 999999")
+                .jsonPath("$.path").isEqualTo(TASKS + "/999999");
+    }
+
+    @Test
+    void updateAndPatch_shouldChangeTheTask_and404WhenMissing() {
+        // Arrange
+        Task task = create("Original", "Old description");
+
+        // Act
+        client.put().uri(TASKS + "/{id}", task.getId()).bodyValue(new Task("Renamed", "New description"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("Renamed");
+        client.patch().uri(TASKS + "/{id}", task.getId()).bodyValue(Map.of("description", "Patched"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Renamed") // Absent: unchanged
+                .jsonPath("$.description").isEqualTo("Patched");
+
+        // Assert
+        client.put().uri(TASKS + "/{id}", task.getId()).bodyValue(new Task(null, "No name"))
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.patch().uri(TASKS + "/{id}", task.getId()).bodyValue(Map.of("name", ""))
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.put().uri(TASKS + "/999999").bodyValue(new Task("Nobody", null))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void deleteTask_shouldReturn204_thenNotFound() {
+        // Arrange
+        Task task = create("Short-lived", null);
+
+        // Act & Assert
+        client.delete().uri(TASKS + "/{id}", task.getId()).exchange().expectStatus().isNoContent();
+        client.delete().uri(TASKS + "/{id}", task.getId())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Task not found with id: " + task.getId());
+    }
+
+    @Test
+    void deleteTasksModifiedBefore_shouldRequireACutoff_andReturnTheCount() {
+        // Arrange
+        create("Old", null);
+        create("Older", null);
+
+        // Act & Assert
+        client.delete().uri(TASKS)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("modifiedBefore is required");
+        client.delete().uri(TASKS + "?modifiedBefore=yesterday")
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.delete().uri(TASKS + "?modifiedBefore=2999-01-01T00:00:00")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.deleted").isEqualTo(2);
+    }
+
+    @Test
+    void listing_shouldReturnAllTasks_withAnEtagForConditionalRequests() {
+        // Arrange
+        create("One", null);
+        create("Two", null);
+
+        // Act
+        String etag = client.get().uri(TASKS)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .returnResult().getResponseHeaders().getETag();
+
+        // Assert
+        client.get().uri(TASKS).header(HttpHeaders.IF_NONE_MATCH, etag).exchange().expectStatus().isNotModified();
+    }
+
+    @Test
+    void keysetPages_shouldLinkToTheNextPage_untilTheLast() {
+        // Arrange
+        Task first = create("First", null);
+        Task second = create("Second", null);
+        Task third = create("Third", null);
+
+        // Act
+        HttpHeaders headers = client.get().uri(TASKS + "?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.LINK, link -> assertTrue(link.endsWith("limit=2>; rel=\"next\"")))
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(first.getId())
+                .jsonPath("$[1].id").isEqualTo(second.getId())
+                .returnResult().getResponseHeaders();
+        String cursor = headers.getFirst(TaskController.NEXT_CURSOR_HEADER);
+
+        // Assert
+        assertNotNull(cursor);
+        client.get().uri(TASKS + "?limit=2&cursor={cursor}", cursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(TaskController.NEXT_CURSOR_HEADER)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(third.getId());
+        client.get().uri(TASKS + "?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("limit must be between 1 and " + TaskController.MAX_PAGE_SIZE);
+        client.get().uri(TASKS + "?cursor=not-a-cursor").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void listingsWithoutLimit_shouldReturnTheFirstDefaultSizedPage() {
+        // Arrange
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i <= TaskController.DEFAULT_PAGE_SIZE; i++) {
+            tasks.add(new Task("Task " + i, null));
+        }
+        client.post().uri(TASKS + "/batch").bodyValue(tasks).exchange().expectStatus().isOk();
+
+        // Act & Assert
+        for (String listing : List.of(TASKS, TASKS + "?fields=id")) {
+            client.get().uri(listing)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().exists(TaskController.NEXT_CURSOR_HEADER)
+                    .expectBody().jsonPath("$.length()").isEqualTo(TaskController.DEFAULT_PAGE_SIZE);
+        }
+    }
+
+    @Test
+    void fields_shouldReturnOnlyTheRequestedFields() {
+        // Arrange
+        Task task = create("Projected", "Not requested");
+
+        // Act & Assert
+        client.get().uri(TASKS + "?fields=name,id")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(task.getId())
+                .jsonPath("$[0].name").isEqualTo("Projected")
+                .jsonPath("$[0].description").doesNotExist()
+                .jsonPath("$[0].lastModified").doesNotExist();
+        client.get().uri(TASKS + "?fields=name,owner")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void ids_shouldReturnTasksInRequestOrder_withoutMissingOnes() {
+        // Arrange
+        Task first = create("First", null);
+        Task second = create("Second", null);
+
+        // Act & Assert
+        client.get().uri(TASKS + "?ids={b},999999,{a},{b}", second.getId(), first.getId(), second.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].id").isEqualTo(second.getId())
+                .jsonPath("$[1].id").isEqualTo(first.getId());
+        client.get().uri(TASKS + "?ids=1,x").exchange().expectStatus().isBadRequest();
+        client.get().uri(TASKS + "?ids=1&fields=id").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void filters_shouldSelectAndSortInPages_withCursorsBoundToTheirSort() {
+        // Arrange
+        create("Report b", null);
+        create("report a", null);
+        create("Report a", null);
+        Task notes = create("Notes", null);
+
+        // Act
+        HttpHeaders headers = client.get().uri(TASKS + "?namePrefix=Report&sort=-name&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("Report b")
+                .returnResult().getResponseHeaders();
+        String cursor = headers.getFirst(TaskController.NEXT_CURSOR_HEADER);
+
+        // Assert
+        assertNotNull(cursor);
+        client.get().uri(TASKS + "?namePrefix=Report&sort=-name&limit=1&cursor={cursor}", cursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(TaskController.NEXT_CURSOR_HEADER)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("Report a");
+        client.get().uri(TASKS + "?namePrefix=Report&sort=name&cursor={cursor}", cursor)
+                .exchange()
+                .expectStatus().isBadRequest(); // The cursor belongs to the descending order
+        client.get().uri(TASKS + "?nameContains=EPOR")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(3);
+        client.get().uri(TASKS + "?modifiedSince={since}&sort=id", notes.getLastModified())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(notes.getId());
+        client.get().uri(TASKS + "?modifiedBefore={before}", notes.getLastModified())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(3);
+        client.get().uri(TASKS + "?sort=description").exchange().expectStatus().isBadRequest();
+        client.get().uri(TASKS + "?modifiedSince=yesterday").exchange().expectStatus().isBadRequest();
+        client.get().uri(TASKS + "?fields=id&namePrefix=Report").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void ndjson_shouldStreamEveryTaskInChangeOrder() {
+        // Arrange
+        Task first = create("First", null);
+        Task second = create("Second", null);
+
+        // Act
+        Flux<Task> tasks = client.get().uri(TASKS).accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Task.class)
+                .getResponseBody();
+
+        // Assert
+        StepVerifier.create(tasks.map(Task::getId))
+                .expectNext(first.getId(), second.getId())
+                .verifyComplete();
+    }
+
+    @Test
+    void search_shouldFindTasksByWord_andValidateItsParameters() {
+        // Arrange
+        Task milk = create("Buy milk", "From the corner shop");
+        create("Walk the dog", null);
+
+        // Act & Assert
+        client.get().uri(TASKS + "/search?q=milk")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(milk.getId());
+        client.get().uri(TASKS + "/search?q=milk&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.LINK, link -> assertTrue(link.contains("offset=1")));
+        client.get().uri(TASKS + "/search?q={q}", " ")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("q must not be blank");
+        client.get().uri(TASKS + "/search?q=milk&offset=-1").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void changes_shouldReportSavedTasksAndTombstones() {
+        // Arrange
+        String since = changesSince();
+        Task kept = create("Kept", null);
+        Task removed = create("Removed", null);
+        client.delete().uri(TASKS + "/{id}", removed.getId()).exchange().expectStatus().isNoContent();
+
+        // Act
+        TaskChanges changes = client.get().uri(TASKS + "/changes?since={since}", since)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TaskChanges.class).returnResult().getResponseBody();
+
+        // Assert
+        assertEquals(List.of(kept.getId()), changes.changed().stream().map(Task::getId).toList());
+        assertEquals(List.of(removed.getId()), changes.deleted().stream().map(TaskTombstone::getId).toList());
+        assertFalse(changes.hasMore());
+        client.get().uri(TASKS + "/changes?since=garbage").exchange().expectStatus().isBadRequest();
+        client.get().uri(TASKS + "/changes?since=2000-01-01T00:00:00") // Before the tombstone retention: resync
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.GONE);
+    }
+
+    @Test
+    void changeStream_shouldReplayFromLastEventId() {
+        // Arrange
+        String since = changesSince();
+        Task task = create("Streamed", null);
+
+        // Act
+        Flux<ServerSentEvent<Task>> events = client.get().uri(TASKS + "/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", since)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<Task>>() {
+                })
+                .getResponseBody();
+
+        // Assert
+        StepVerifier.create(events)
+                .assertNext(event -> {
+                    assertEquals("saved", event.event());
+                    assertEquals(task.getId(), event.data().getId());
+                    assertNotNull(event.id());
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void batches_shouldReportEachItem() {
+        // Arrange
+        Task existing = create("Existing", null);
+
+        // Act & Assert
+        client.post().uri(TASKS + "/batch").bodyValue(List.of(new Task("Batch one", null), new Task("", null)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo(201)
+                .jsonPath("$[0].task.name").isEqualTo("Batch one")
+                .jsonPath("$[1].status").isEqualTo(400)
+                .jsonPath("$[1].error").isEqualTo("name must not be blank");
+        Task renamed = new Task("Renamed in batch", null);
+        renamed.setId(existing.getId());
+        Task missing = new Task("Missing", null);
+        missing.setId(999999L);
+        client.put().uri(TASKS + "/batch").bodyValue(List.of(renamed, missing, new Task("No id", null)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo(200)
+                .jsonPath("$[1].status").isEqualTo(404)
+                .jsonPath("$[2].error").isEqualTo("id is required");
+        client.method(HttpMethod.DELETE).uri(TASKS + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(existing.getId(), 999999L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo(204)
+                .jsonPath("$[1].status").isEqualTo(404);
+        client.post().uri(TASKS + "/batch").bodyValue(List.of())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private Task create(String name, String description) {
+        return client.post().uri(TASKS).bodyValue(new Task(name, description))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Task.class).returnResult().getResponseBody();
+    }
+
+    // The current end of the change log, so a test sees only the changes it makes itself
+    private String changesSince() {
+        TaskChanges changes = client.get().uri(TASKS + "/changes?limit=" + TaskController.MAX_PAGE_SIZE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TaskChanges.class).returnResult().getResponseBody();
+        assertFalse(changes.hasMore());
+        return changes.since();
+    }
+}
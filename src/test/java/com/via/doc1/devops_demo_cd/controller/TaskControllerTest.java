@@ -2,8 +2,20 @@ package com.via.doc1.devops_demo_cd.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.via.doc1.devops_demo_cd.exception.GlobalExceptionHandler;
+import com.via.doc1.devops_demo_cd.exception.TooManyRequestsException;
+import com.via.doc1.devops_demo_cd.model.BatchItemResult;
+import com.via.doc1.devops_demo_cd.model.IngestionStatus;
 import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskChanges;
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskPage;
+import com.via.doc1.devops_demo_cd.model.TaskProjection;
+import com.via.doc1.devops_demo_cd.model.TaskProjectionPage;
+import com.via.doc1.devops_demo_cd.model.TaskQuery;
+import com.via.doc1.devops_demo_cd.model.TaskTombstone;
+import com.via.doc1.devops_demo_cd.service.TaskChangeFeed;
 import com.via.doc1.devops_demo_cd.service.TaskService;
+import com.via.doc1.devops_demo_cd.service.TaskWriteBehindQueue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,25 +23,41 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
@@ -44,6 +72,12 @@ class TaskControllerTest {
     @Mock
     private TaskService taskService;
 
+    @Mock
+    private TaskWriteBehindQueue writeBehindQueue; // isEnabled() is false unless stubbed: synchronous creates
+
+    @Mock
+    private TaskChangeFeed changeFeed;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private Task task1;
@@ -54,7 +88,7 @@ class TaskControllerTest {
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders
-            .standaloneSetup(new TaskController(taskService))
+            .standaloneSetup(new TaskController(taskService, writeBehindQueue, changeFeed, Jackson2ObjectMapperBuilder.json().build()))
             .setControllerAdvice(new GlobalExceptionHandler())
             .build();
 
@@ -74,10 +108,10 @@ class TaskControllerTest {
     }
 
     @Test
-    void getAllTasks_shouldReturnListOfTasks() throws Exception {
+    void getAllTasks_shouldReturnFirstPageOfTasks() throws Exception {
         // Arrange
         List<Task> tasks = Arrays.asList(task1, task2);
-        when(taskService.getAllTasks()).thenReturn(tasks);
+        when(taskService.getTasksPage(null, TaskController.DEFAULT_PAGE_SIZE)).thenReturn(new TaskPage(tasks, "next-token"));
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/tasks"))
@@ -87,9 +121,215 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].name", is("Task One")))
                 .andExpect(jsonPath("$[1].id", is(2)))
-                .andExpect(jsonPath("$[1].name", is("Task Two")));
+                .andExpect(jsonPath("$[1].name", is("Task Two")))
+                .andExpect(header().string(TaskController.NEXT_CURSOR_HEADER, "next-token")); // Never the whole table at once
+
+        verify(taskService, times(1)).getTasksPage(null, TaskController.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    void getAllTasks_withLimit_shouldReturnPageAndNextCursor() throws Exception {
+        // Arrange
+        when(taskService.getTasksPage(null, 1)).thenReturn(new TaskPage(List.of(task1), "next-token"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(header().string(TaskController.NEXT_CURSOR_HEADER, "next-token"))
+                .andExpect(header().string("Link", containsString("cursor=next-token")));
+    }
+
+    @Test
+    void getAllTasks_withCursorOnLastPage_shouldUseDefaultLimitAndOmitNextCursor() throws Exception {
+        // Arrange
+        when(taskService.getTasksPage("abc", TaskController.DEFAULT_PAGE_SIZE)).thenReturn(new TaskPage(List.of(task2), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks").param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(header().doesNotExist(TaskController.NEXT_CURSOR_HEADER))
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    void getAllTasks_withLimitOutOfRange_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks").param("limit", String.valueOf(TaskController.MAX_PAGE_SIZE + 1)))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).getTasksPage(any(), anyInt());
+    }
+
+    @Test
+    void getAllTasks_withFilters_shouldQueryAPageInTheRequestedOrder() throws Exception {
+        // Arrange
+        TaskQuery query = new TaskQuery("Re", null, LocalDateTime.of(2024, 1, 1, 0, 0), null, TaskField.NAME, true);
+        when(taskService.findTasks(query, null, TaskController.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TaskPage(List.of(task1), "next-token"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks?namePrefix=Re&modifiedSince=2024-01-01T00:00:00&sort=-name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(header().string(TaskController.NEXT_CURSOR_HEADER, "next-token"))
+                .andExpect(header().string("Link", allOf(containsString("namePrefix=Re"), containsString("sort=-name"))));
+
+        verify(taskService, never()).getTasksPage(any(), anyInt());
+    }
 
-        verify(taskService, times(1)).getAllTasks();
+    @Test
+    void getAllTasks_withUnsortableColumnOrBadTimestamp_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks").param("sort", "description"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Cannot sort by 'description'; allowed: id,lastModified,name")));
+        mockMvc.perform(get("/api/v1/tasks").param("modifiedBefore", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/tasks").param("ids", "1").param("sort", "name"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void getAllTasks_withCborAccept_shouldNegotiateCbor() throws Exception {
+        // Arrange
+        when(taskService.getTasksPage(null, TaskController.DEFAULT_PAGE_SIZE)).thenReturn(new TaskPage(List.of(task1, task2), null));
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        // Assert
+        Task[] decoded = cborMapper.readValue(result.getResponse().getContentAsByteArray(), Task[].class);
+        assertEquals(List.of(task1, task2), List.of(decoded));
+    }
+
+    @Test
+    void createTask_withSmileBody_shouldReadAndAnswerInSmile() throws Exception {
+        // Arrange
+        ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+        when(taskService.createTask(any(Task.class))).thenReturn(taskCreated);
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/v1/tasks")
+                        .contentType("application/x-jackson-smile")
+                        .accept("application/x-jackson-smile")
+                        .content(smileMapper.writeValueAsBytes(taskInput)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        // Assert
+        assertEquals(taskCreated, smileMapper.readValue(result.getResponse().getContentAsByteArray(), Task.class));
+        ArgumentCaptor<Task> taskCaptor = ArgumentCaptor.forClass(Task.class);
+        verify(taskService).createTask(taskCaptor.capture());
+        assertEquals(taskInput.getName(), taskCaptor.getValue().getName());
+    }
+
+    @Test
+    void getTaskFields_shouldReturnOnlyRequestedFieldsOfFirstPage() throws Exception {
+        // Arrange
+        Set<TaskField> fields = new LinkedHashSet<>(List.of(TaskField.ID, TaskField.NAME));
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", 1L);
+        values.put("name", "Task One");
+        when(taskService.getTasksPage(null, TaskController.DEFAULT_PAGE_SIZE, fields))
+                .thenReturn(new TaskProjectionPage(List.of(new TaskProjection(1L, task1.getLastModified(), values)), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks").param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].name", is("Task One")))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].lastModified").doesNotExist())
+                .andExpect(header().string("ETag", containsString("tasks[id.name]")));
+
+        verify(taskService, never()).getTasksPage(any(), anyInt());
+    }
+
+    @Test
+    void getTaskFields_withLimit_shouldReturnProjectedPage() throws Exception {
+        // Arrange
+        Set<TaskField> fields = Set.of(TaskField.NAME);
+        when(taskService.getTasksPage(null, 1, fields)).thenReturn(new TaskProjectionPage(
+                List.of(new TaskProjection(1L, task1.getLastModified(), Map.of("name", "Task One"))), "next-token"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks").param("fields", "name").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Task One")))
+                .andExpect(jsonPath("$[0].id").doesNotExist())
+                .andExpect(header().string(TaskController.NEXT_CURSOR_HEADER, "next-token"));
+    }
+
+    @Test
+    void getTasksByIds_shouldReturnTheTasksInRequestOrder() throws Exception {
+        // Arrange
+        when(taskService.getTasksByIds(List.of(2L, 1L, 99L))).thenReturn(List.of(task2, task1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks").param("ids", "2, 1,99"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(jsonPath("$[1].id", is(1)));
+        verify(taskService, never()).getTasksPage(any(), anyInt());
+    }
+
+    @Test
+    void getTasksByIds_withInvalidIds_shouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks").param("ids", "1,abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("ids must be a comma-separated list of task ids")));
+        mockMvc.perform(get("/api/v1/tasks").param("ids", ","))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/tasks").param("ids", "1").param("fields", "id"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("fields cannot be combined with ids")));
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void getTaskFields_withUnknownField_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks").param("fields", "id,secret"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("secret")));
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void streamAllTasks_shouldWriteOneJsonDocumentPerLine() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<Task> consumer = invocation.getArgument(0);
+            consumer.accept(task1);
+            consumer.accept(task2);
+            return null;
+        }).when(taskService).streamAllTasks(any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals("Task Two", objectMapper.readTree(lines[1]).get("name").asText());
+        verify(taskService, never()).getTasksPage(any(), anyInt());
     }
 
     @Test
@@ -109,6 +349,89 @@ class TaskControllerTest {
         verify(taskService, times(1)).getTaskById(taskId);
     }
 
+    @Test
+    void getTaskById_shouldEmitEtagAndLastModified() throws Exception {
+        // Arrange
+        when(taskService.getTaskById(1L)).thenReturn(Optional.of(task1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + TaskEtags.forTask(1L, task1.getLastModified()) + "\""))
+                .andExpect(header().exists("Last-Modified"));
+
+        verify(taskService, never()).getTaskVersion(anyLong()); // Unconditional requests skip the version lookup
+    }
+
+    @Test
+    void getTaskById_whenEtagMatches_shouldReturnNotModifiedWithoutLoadingTask() throws Exception {
+        // Arrange
+        when(taskService.getTaskVersion(1L)).thenReturn(Optional.of(task1.getLastModified()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/{id}", 1L)
+                        .header("If-None-Match", "\"" + TaskEtags.forTask(1L, task1.getLastModified()) + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(taskService, never()).getTaskById(anyLong());
+    }
+
+    @Test
+    void getTaskById_whenModifiedSinceHeaderIsOlder_shouldReturnFullTask() throws Exception {
+        // Arrange
+        when(taskService.getTaskVersion(1L)).thenReturn(Optional.of(task1.getLastModified()));
+        when(taskService.getTaskById(1L)).thenReturn(Optional.of(task1));
+        long before = TaskEtags.epochMillis(task1.getLastModified().minusDays(1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/{id}", 1L).header("If-Modified-Since", before))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", "\"" + TaskEtags.forTask(1L, task1.getLastModified()) + "\""))
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    @Test
+    void getTaskById_whenModifiedSinceHeaderIsCurrent_shouldReturnNotModified() throws Exception {
+        // Arrange
+        when(taskService.getTaskVersion(1L)).thenReturn(Optional.of(task1.getLastModified()));
+        long after = TaskEtags.epochMillis(task1.getLastModified().plusSeconds(1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/{id}", 1L).header("If-Modified-Since", after))
+                .andExpect(status().isNotModified());
+
+        verify(taskService, never()).getTaskById(anyLong());
+    }
+
+    @Test
+    void getAllTasks_whenEtagMatches_shouldReturnNotModified() throws Exception {
+        // Arrange
+        List<Task> tasks = Arrays.asList(task1, task2);
+        when(taskService.getTasksPage(null, TaskController.DEFAULT_PAGE_SIZE)).thenReturn(new TaskPage(tasks, null));
+        String etag = "\"" + TaskEtags.forTasks(tasks) + "\"";
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", etag));
+        mockMvc.perform(get("/api/v1/tasks").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getAllTasks_whenTaskWasRemoved_shouldChangeEtag() throws Exception {
+        // Arrange
+        String before = "\"" + TaskEtags.forTasks(Arrays.asList(task1, task2)) + "\"";
+        when(taskService.getTasksPage(null, TaskController.DEFAULT_PAGE_SIZE)).thenReturn(new TaskPage(List.of(task1), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks").header("If-None-Match", before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)));
+    }
+
     @Test
     void getTaskById_whenTaskDoesNotExist_shouldReturnNotFound() throws Exception {
         // Arrange
@@ -169,6 +492,54 @@ class TaskControllerTest {
     }
 
 
+    @Test
+    void createTask_inWriteBehindMode_shouldQueueAndReturnAcceptedWithStatusUrl() throws Exception {
+        // Arrange
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(writeBehindQueue.submit(any(Task.class))).thenReturn("t-1");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(taskInput)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", endsWith("/api/v1/tasks/ingestion/t-1")))
+                .andExpect(jsonPath("$.ticket", is("t-1")))
+                .andExpect(jsonPath("$.state", is("PENDING")));
+
+        verify(taskService, never()).createTask(any(Task.class));
+    }
+
+    @Test
+    void createTask_inWriteBehindMode_whenQueueFull_shouldReturnTooManyRequests() throws Exception {
+        // Arrange
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(writeBehindQueue.submit(any(Task.class))).thenThrow(new TooManyRequestsException("Task ingestion queue is full, retry later"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(taskInput)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void getIngestionStatus_shouldReturnStatusOrNotFound() throws Exception {
+        // Arrange
+        when(writeBehindQueue.status("t-1")).thenReturn(Optional.of(IngestionStatus.created("t-1", 7L)));
+        when(writeBehindQueue.status("gone")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/ingestion/{ticket}", "t-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("CREATED")))
+                .andExpect(jsonPath("$.taskId", is(7)))
+                .andExpect(jsonPath("$.error").doesNotExist());
+        mockMvc.perform(get("/api/v1/tasks/ingestion/{ticket}", "gone"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void updateTask_whenTaskExists_shouldReturnOk() throws Exception {
         // Arrange
@@ -234,6 +605,49 @@ class TaskControllerTest {
         verify(taskService, never()).updateTask(anyLong(), any(Task.class));
     }
 
+    @Test
+    void patchTask_withPartialBody_shouldPassOnlyGivenFieldsAndReturnFullTask() throws Exception {
+        // Arrange
+        Long taskId = 1L;
+        Task patched = new Task("Renamed", task1.getDescription());
+        patched.setId(taskId);
+        patched.setLastModified(LocalDateTime.now());
+        when(taskService.patchTask(eq(taskId), any(Task.class))).thenReturn(Optional.of(patched));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/v1/tasks/{id}", taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Renamed")))
+                .andExpect(jsonPath("$.description", is(task1.getDescription())));
+
+        ArgumentCaptor<Task> taskCaptor = ArgumentCaptor.forClass(Task.class);
+        verify(taskService, times(1)).patchTask(eq(taskId), taskCaptor.capture());
+        assertEquals("Renamed", taskCaptor.getValue().getName());
+        assertNull(taskCaptor.getValue().getDescription()); // Absent field = leave unchanged
+    }
+
+    @Test
+    void patchTask_whenTaskDoesNotExist_shouldReturnNotFound() throws Exception {
+        when(taskService.patchTask(eq(99L), any(Task.class))).thenReturn(Optional.empty());
+
+        mockMvc.perform(patch("/api/v1/tasks/{id}", 99L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"x\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void patchTask_withBlankName_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/v1/tasks/{id}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\" \"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).patchTask(anyLong(), any(Task.class));
+    }
+
     @Test
     void deleteTask_whenTaskExists_shouldReturnNoContent() throws Exception {
         // Arrange
@@ -261,4 +675,168 @@ class TaskControllerTest {
 
         verify(taskService, times(1)).deleteTask(taskId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteTasksModifiedBefore_shouldReturnDeletedCount() throws Exception {
+        // Arrange
+        LocalDateTime cutoff = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(taskService.deleteTasksModifiedBefore(cutoff)).thenReturn(4);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/tasks").param("modifiedBefore", "2025-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(4)));
+    }
+
+    @Test
+    void deleteTasksModifiedBefore_withMissingOrInvalidCutoff_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(delete("/api/v1/tasks"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/v1/tasks").param("modifiedBefore", "yesterday"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).deleteTasksModifiedBefore(any());
+    }
+
+    @Test
+    void getChanges_shouldReturnChangedTasksTombstonesAndNextPosition() throws Exception {
+        // Arrange
+        TaskTombstone tombstone = new TaskTombstone(7L, LocalDateTime.of(2026, 1, 2, 3, 4, 5));
+        when(taskService.getChanges("2026-01-01T00:00:00", 50, false))
+                .thenReturn(new TaskChanges(List.of(task1), List.of(tombstone), "next-position", false));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/changes").param("since", "2026-01-01T00:00:00").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[0].id", is(task1.getId().intValue())))
+                .andExpect(jsonPath("$.deleted[0].id", is(7)))
+                .andExpect(jsonPath("$.deleted[0].deletedAt").exists())
+                .andExpect(jsonPath("$.since", is("next-position")))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
+    @Test
+    void getChanges_withoutSince_shouldStartFromTheBeginningWithDefaultLimit() throws Exception {
+        when(taskService.getChanges(null, TaskController.DEFAULT_PAGE_SIZE, false))
+                .thenReturn(new TaskChanges(List.of(), List.of(), null, false));
+
+        mockMvc.perform(get("/api/v1/tasks/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed", hasSize(0)));
+        mockMvc.perform(get("/api/v1/tasks/changes").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamChanges_shouldResumeFromLastEventIdOverSince() throws Exception {
+        // Arrange
+        when(changeFeed.subscribe("last-event")).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/changes")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "last-event")
+                        .param("since", "2026-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(changeFeed).subscribe("last-event");
+        verify(taskService, never()).getChanges(any(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void searchTasks_withFullPage_shouldReturnMatchesAndNextLink() throws Exception {
+        // Arrange
+        when(taskService.searchTasks("task", 2, 0)).thenReturn(List.of(task2, task1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/search").param("q", "task").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(task2.getId().intValue())))
+                .andExpect(jsonPath("$[1].id", is(task1.getId().intValue())))
+                .andExpect(header().string("Link", containsString("offset=2")));
+    }
+
+    @Test
+    void searchTasks_withPartialPage_shouldOmitNextLink() throws Exception {
+        when(taskService.searchTasks("task", TaskController.DEFAULT_SEARCH_LIMIT, 0)).thenReturn(List.of(task1));
+
+        mockMvc.perform(get("/api/v1/tasks/search").param("q", "task"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    void searchTasks_withBlankQueryOrBadPaging_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/tasks/search").param("q", "task").param("limit", "101"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/tasks/search").param("q", "task").param("offset", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).searchTasks(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void createTasks_shouldReturnPerItemResults() throws Exception {
+        // Arrange
+        when(taskService.createTasks(anyList())).thenReturn(List.of(
+                BatchItemResult.success(0, 3L, 201, taskCreated),
+                BatchItemResult.failure(1, null, 400, "name must not be blank")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(taskInput, new Task("", null)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].status", is(201)))
+                .andExpect(jsonPath("$[0].task.id", is(3)))
+                .andExpect(jsonPath("$[1].status", is(400)))
+                .andExpect(jsonPath("$[1].error", is("name must not be blank")))
+                .andExpect(jsonPath("$[1].task").doesNotExist());
+
+        verify(taskService, times(1)).createTasks(anyList());
+    }
+
+    @Test
+    void updateTasks_shouldDelegateWholeBatchToService() throws Exception {
+        // Arrange
+        when(taskService.updateTasks(anyList())).thenReturn(List.of(BatchItemResult.failure(0, 1L, 404, "Task not found with id: 1")));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":1,\"name\":\"Renamed\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(404)));
+
+        verify(taskService, never()).updateTask(anyLong(), any(Task.class));
+    }
+
+    @Test
+    void deleteTasks_shouldDelegateIdsToService() throws Exception {
+        // Arrange
+        when(taskService.deleteTasks(List.of(1L, 2L))).thenReturn(List.of(
+                BatchItemResult.success(0, 1L, 204, null), BatchItemResult.success(1, 2L, 204, null)));
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].id", is(2)))
+                .andExpect(jsonPath("$[1].status", is(204)));
+    }
+
+    @Test
+    void createTasks_withEmptyBatch_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).createTasks(anyList());
+    }
+}
@@ -0,0 +1,82 @@
+package com.via.doc1.devops_demo_cd.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Statement budgets of the task endpoints, against the real service and H2. TaskControllerTest mocks the service,
+// so it runs no SQL; these tests go through the same controller with the database behind it. A change that adds
+// round trips to an endpoint fails here; raise its budget only on purpose.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "tasks.query-budget.headers=true",
+        "tasks.batch-loader.window=0ms" // No point waiting for other lookups: requests here run one at a time
+})
+@AutoConfigureMockMvc
+class TaskQueryBudgetTest {
+
+    private static final String TASKS = "/api/v1/tasks";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private long id;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String body = mockMvc.perform(post(TASKS).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Budget\",\"description\":\"Counted\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(QueryBudget.statements(1)) // One INSERT
+                .andReturn().getResponse().getContentAsString();
+        id = ((Number) objectMapper.readValue(body, Map.class).get("id")).longValue();
+        cacheManager.getCache("tasks").clear(); // Lookups below start with a cache miss
+    }
+
+    @Test
+    void reads_shouldStayWithinTheirBudgets() throws Exception {
+        mockMvc.perform(get(TASKS + "/{id}", id)).andExpect(status().isOk()).andExpect(QueryBudget.statements(1));
+        mockMvc.perform(get(TASKS + "/{id}", id)).andExpect(status().isOk()).andExpect(QueryBudget.statements(0)); // Cached
+        mockMvc.perform(get(TASKS).param("limit", "10")).andExpect(status().isOk()).andExpect(QueryBudget.statements(1));
+        mockMvc.perform(get(TASKS).param("fields", "id,name")).andExpect(status().isOk()).andExpect(QueryBudget.statements(1));
+        mockMvc.perform(get(TASKS).param("namePrefix", "Bud").param("sort", "-name")) // No count query with the page
+                .andExpect(status().isOk()).andExpect(QueryBudget.statements(1));
+        mockMvc.perform(get(TASKS).param("ids", id + ",999999")).andExpect(status().isOk()).andExpect(QueryBudget.statements(1));
+        mockMvc.perform(get(TASKS + "/changes")).andExpect(status().isOk()).andExpect(QueryBudget.statements(2)); // Tasks, tombstones
+    }
+
+    @Test
+    void writes_shouldStayWithinTheirBudgets() throws Exception {
+        mockMvc.perform(put(TASKS + "/{id}", id).contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.statements(1)); // UPDATE ... RETURNING, no SELECT first
+        mockMvc.perform(patch(TASKS + "/{id}", id).contentType(MediaType.APPLICATION_JSON).content("{\"description\":\"New\"}"))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.statements(1));
+        mockMvc.perform(post(TASKS + "/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"One\"},{\"name\":\"Two\"},{\"name\":\"Three\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.statements(1)); // One JDBC batch
+        mockMvc.perform(delete(TASKS + "/{id}", id)).andExpect(status().isNoContent()).andExpect(QueryBudget.statements(2)); // DELETE, tombstone
+    }
+}
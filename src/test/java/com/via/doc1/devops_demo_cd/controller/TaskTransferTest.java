@@ -0,0 +1,128 @@
+package com.via.doc1.devops_demo_cd.controller;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Bulk export and import over HTTP on H2, which has no COPY: the streamed result set and chunked JDBC batch
+// fallback (JdbcTaskTransferRepository). Exports are read back through import, as a warehouse reload would.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:task-transfer;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false"
+})
+class TaskTransferTest {
+
+    private static final String TASKS = "/api/v1/tasks";
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    @Autowired
+    private WebTestClient client;
+
+    @BeforeEach
+    void deleteAllTasks() {
+        client.delete().uri(TASKS + "?modifiedBefore=2999-01-01T00:00:00").exchange().expectStatus().isOk();
+    }
+
+    @Test
+    void csvExport_shouldQuoteFields_andImportBackAsNewTasks() {
+        // Arrange
+        Task tricky = create("Commas, \"quotes\"", "Two\nlines");
+        create("Plain", null);
+
+        // Act
+        String csv = client.get().uri(TASKS + "/export?format=csv")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(CSV)
+                .expectHeader().value(HttpHeaders.CONTENT_DISPOSITION, disposition -> assertTrue(disposition.contains("tasks.csv")))
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        // Assert
+        assertTrue(csv.startsWith("id,name,description,lastModified\n"), csv);
+        assertTrue(csv.contains(tricky.getId() + ",\"Commas, \"\"quotes\"\"\",\"Two\nlines\","), csv);
+        client.post().uri(TASKS + "/import").contentType(CSV).bodyValue(csv)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.imported").isEqualTo(2);
+        List<Task> tasks = allTasks();
+        assertEquals(4, tasks.size());
+        Task copy = tasks.get(2); // Imported last, so it sorts after the originals
+        assertNotEquals(tricky.getId(), copy.getId()); // New ids and timestamps; the exported ones are ignored
+        assertEquals(tricky.getName(), copy.getName());
+        assertEquals(tricky.getDescription(), copy.getDescription());
+        assertNull(tasks.get(3).getDescription());
+    }
+
+    @Test
+    void ndjsonImport_shouldInsertInChunks_andExportOneDocumentPerLine() {
+        // Arrange: more records than one JDBC batch holds
+        String ndjson = IntStream.rangeClosed(1, 2500)
+                .mapToObj(i -> "{\"name\":\"Seed " + i + "\",\"description\":\"Row " + i + "\"}")
+                .collect(Collectors.joining("\n", "", "\n"));
+
+        // Act
+        client.post().uri(TASKS + "/import").contentType(MediaType.APPLICATION_NDJSON).bodyValue(ndjson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.imported").isEqualTo(2500);
+
+        // Assert
+        String export = client.get().uri(TASKS + "/export?format=ndjson")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+        String[] lines = export.split("\n");
+        assertEquals(2500, lines.length);
+        assertTrue(lines[0].matches("\\{\"id\":\\d+,\"name\":\"Seed 1\",\"description\":\"Row 1\","
+                + "\"lastModified\":\"\\d{4}-\\d\\d-\\d\\dT\\d\\d:\\d\\d:\\d\\d\\.\\d{6}\"}"), lines[0]);
+    }
+
+    @Test
+    void import_shouldRejectTheWholeBody_whenARecordIsInvalidOrMalformed() {
+        // Act & Assert
+        client.post().uri(TASKS + "/import").contentType(CSV).bodyValue("name,description\nFine,ok\n,missing name\n")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Record 2: name must not be blank");
+        client.post().uri(TASKS + "/import").contentType(CSV).bodyValue("name,owner\nFine,me\n")
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.post().uri(TASKS + "/import").contentType(MediaType.APPLICATION_NDJSON).bodyValue("{\"name\":\"Fine\"}\n{oops\n")
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.post().uri(TASKS + "/import").contentType(MediaType.APPLICATION_JSON).bodyValue("[]")
+                .exchange()
+                .expectStatus().isEqualTo(415);
+        client.get().uri(TASKS + "/export?format=xml").exchange().expectStatus().isBadRequest();
+        assertTrue(allTasks().isEmpty()); // Nothing from the failed imports was kept
+    }
+
+    private Task create(String name, String description) {
+        return client.post().uri(TASKS).bodyValue(new Task(name, description))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Task.class).returnResult().getResponseBody();
+    }
+
+    private List<Task> allTasks() {
+        return client.get().uri(TASKS + "?sort=id&limit=1000")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Task.class).returnResult().getResponseBody();
+    }
+}
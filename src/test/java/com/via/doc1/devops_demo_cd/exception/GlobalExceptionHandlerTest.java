@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -36,6 +37,28 @@ class GlobalExceptionHandlerTest {
                 .andExpect(jsonPath("$.path").value("/missing"));
     }
 
+    @Test
+    void handleInvalidRequest_returnsBadRequestPayload() throws Exception {
+        mockMvc.perform(get("/invalid"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.error").value("Bad Request"))
+                .andExpect(jsonPath("$.message").value("Invalid cursor: abc"))
+                .andExpect(jsonPath("$.path").value("/invalid"));
+    }
+
+    @Test
+    void handleTooManyRequests_returnsTooManyRequestsPayloadWithRetryAfter() throws Exception {
+        mockMvc.perform(get("/busy"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.error").value("Too Many Requests"))
+                .andExpect(jsonPath("$.message").value("Task ingestion queue is full, retry later"))
+                .andExpect(jsonPath("$.path").value("/busy"));
+    }
+
     @Test
     void handleGenericException_returnsInternalServerErrorPayload() throws Exception {
         mockMvc.perform(get("/boom"))
@@ -55,6 +78,16 @@ class GlobalExceptionHandlerTest {
             throw new ResourceNotFoundException("Task not found with id: 42");
         }
 
+        @GetMapping("/invalid")
+        String invalid() {
+            throw new InvalidRequestException("Invalid cursor: abc");
+        }
+
+        @GetMapping("/busy")
+        String busy() {
+            throw new TooManyRequestsException("Task ingestion queue is full, retry later");
+        }
+
         @GetMapping("/boom")
         String boom() {
             throw new IllegalStateException("boom");
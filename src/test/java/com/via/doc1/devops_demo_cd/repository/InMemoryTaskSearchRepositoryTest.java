@@ -0,0 +1,79 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.service.TaskChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryTaskSearchRepositoryTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @InjectMocks
+    private InMemoryTaskSearchRepository searchRepository;
+
+    private Task report;
+    private Task invoice;
+    private Task mention;
+
+    @BeforeEach
+    void setUp() {
+        report = task(1L, "Quarterly report", "Compile the sales numbers");
+        invoice = task(2L, "Send invoice", "Attach the quarterly report");
+        mention = task(3L, "Team lunch", "Book a table; mention the report");
+        when(taskRepository.findAll()).thenReturn(List.of(report, invoice, mention));
+    }
+
+    @Test
+    void search_shouldRankNameMatchesAboveDescriptionMatches() {
+        assertEquals(List.of(1L, 2L, 3L), ids(searchRepository.search("Report", 10, 0)));
+    }
+
+    @Test
+    void search_shouldRequireEveryWord() {
+        assertEquals(List.of(1L, 2L), ids(searchRepository.search("quarterly report", 10, 0)));
+        assertTrue(searchRepository.search("quarterly lunch", 10, 0).isEmpty());
+        assertTrue(searchRepository.search("unknown", 10, 0).isEmpty());
+        assertTrue(searchRepository.search("  ;; ", 10, 0).isEmpty());
+    }
+
+    @Test
+    void search_shouldApplyOffsetAndLimit() {
+        assertEquals(List.of(2L), ids(searchRepository.search("report", 1, 1)));
+    }
+
+    @Test
+    void onTaskChange_shouldReindexSavedAndDropDeletedTasks() {
+        searchRepository.search("report", 10, 0); // Builds the index
+
+        searchRepository.onTaskChange(TaskChangeEvent.saved(List.of(task(1L, "Quarterly summary", null))));
+        searchRepository.onTaskChange(TaskChangeEvent.deleted(List.of(3L), LocalDateTime.now()));
+
+        assertEquals(List.of(2L), ids(searchRepository.search("report", 10, 0)));
+        assertEquals(List.of(1L), ids(searchRepository.search("summary", 10, 0)));
+        verify(taskRepository, times(1)).findAll(); // Kept current without reloading
+    }
+
+    private static Task task(Long id, String name, String description) {
+        Task task = new Task(name, description);
+        task.setId(id);
+        task.setLastModified(LocalDateTime.now());
+        return task;
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+}
@@ -0,0 +1,64 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The Flyway migrations on H2: Hibernate validates the entities against the migrated schema (a mismatch fails
+// the context), and the queries behind paging and deletes by age use the access indexes instead of a table scan
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String plan(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+    }
+
+    @Test
+    void migrations_shouldCreateTheAccessIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select index_name from information_schema.indexes where table_name = 'TASKS'", String.class);
+
+        assertTrue(indexes.contains("IDX_TASKS_LAST_MODIFIED_ID"));
+        assertTrue(indexes.contains("IDX_TASKS_NAME_ID"));
+        assertFalse(indexes.contains("IDX_TASKS_NAME")); // Replaced by (name, id) in V3
+    }
+
+    @Test
+    void keysetPage_shouldReadTheLastModifiedIdIndex() {
+        String plan = plan("select * from tasks where (last_modified, id) > (timestamp '2024-01-01 00:00:00', 0)"
+                + " order by last_modified, id fetch first 50 rows only");
+
+        assertTrue(plan.contains("IDX_TASKS_LAST_MODIFIED_ID"), plan);
+    }
+
+    @Test
+    void deleteModifiedBefore_shouldReadTheLastModifiedIdIndex() {
+        String plan = plan("select id from tasks where last_modified < timestamp '2024-01-01 00:00:00'");
+
+        assertTrue(plan.contains("IDX_TASKS_LAST_MODIFIED_ID"), plan);
+    }
+
+    @Test
+    void namePrefix_shouldReadTheNameIndex() {
+        String plan = plan("select * from tasks where name like 'Report%'");
+
+        assertTrue(plan.contains("IDX_TASKS_NAME_ID"), plan);
+    }
+
+    @Test
+    void sortedByName_shouldReadTheNameIdIndexInOrder() {
+        String plan = plan("select * from tasks where name >= 'Report' and (name > 'Report' or id > 10)"
+                + " order by name, id fetch first 50 rows only");
+
+        assertTrue(plan.contains("IDX_TASKS_NAME_ID"), plan);
+        assertTrue(plan.contains("index sorted"), plan); // No sort step
+    }
+}
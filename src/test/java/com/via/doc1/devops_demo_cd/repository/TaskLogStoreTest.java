@@ -0,0 +1,199 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.config.LogStoreProperties;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskTombstone;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskLogStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    // A clock that moves one second per write, so every record has its own timestamp
+    private final AtomicReference<LocalDateTime> clock = new AtomicReference<>(LocalDateTime.of(2024, 1, 1, 12, 0));
+    private final DateTimeProvider dateTimeProvider = () -> Optional.of(clock.getAndUpdate(now -> now.plusSeconds(1)));
+
+    private TaskLogStore store;
+
+    private TaskLogStore open() {
+        store = new TaskLogStore(new LogStoreProperties(directory, DataSize.ofKilobytes(64), true, 0.5,
+                DataSize.ofBytes(0), Duration.ofHours(1)), dateTimeProvider);
+        return store;
+    }
+
+    private TaskLogStore reopen() throws IOException {
+        store.close();
+        return open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    private static List<String> names(List<Task> tasks) {
+        return tasks.stream().map(Task::getName).toList();
+    }
+
+    @Test
+    void reopen_shouldReplayTheLog() throws IOException {
+        // Arrange
+        TaskLogStore log = open();
+        log.insertAll(List.of(new Task("a", "first"), new Task("b", null), new Task("c", "third")));
+        log.updateReturning(1L, new Task("a2", null), true);
+        log.deleteAllByIds(List.of(2L));
+
+        // Act
+        TaskLogStore replayed = reopen();
+
+        // Assert
+        assertEquals(List.of("c", "a2"), names(replayed.findAll())); // (lastModified, id) order
+        assertEquals("first", replayed.findById(1L).orElseThrow().getDescription()); // Kept by the partial update
+        assertTrue(replayed.findById(2L).isEmpty());
+        assertEquals(List.of(2L), replayed.findTombstones(null, null, 10).stream().map(TaskTombstone::getId).toList());
+        assertEquals(4L, replayed.insert(new Task("d", null)).getId()); // Ids are never reused
+    }
+
+    @Test
+    void reopen_shouldCutOffATornRecord() throws IOException {
+        // Arrange
+        TaskLogStore log = open();
+        log.insert(new Task("kept", null));
+        log.insert(new Task("torn", "abc"));
+        log.close();
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve(TaskLogStore.LOG_FILE).toFile(), "rw")) {
+            long last = file.length() - 1;
+            while (last > 0) { // Last byte of the last record, as if the crash hit in the middle of writing it
+                file.seek(last);
+                if (file.read() != 0) {
+                    break;
+                }
+                last--;
+            }
+            file.seek(last);
+            file.write(0);
+        }
+
+        // Act
+        TaskLogStore recovered = open();
+        recovered.insert(new Task("after", null));
+
+        // Assert
+        assertEquals(List.of("kept", "after"), names(recovered.findAll()));
+        assertEquals(List.of("kept", "after"), names(reopen().findAll()));
+    }
+
+    @Test
+    void compact_shouldKeepLiveTasksAndTombstones() throws IOException {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TaskLogStore log = open();
+        log.bindTo(registry);
+        log.insertAll(List.of(new Task("a", null), new Task("b", null), new Task("c", null)));
+        for (int i = 0; i < 20; i++) {
+            log.updateReturning(1L, new Task("a" + i, "version " + i), false);
+        }
+        log.deleteAllByIds(List.of(2L));
+        double before = registry.get("tasks.log-store.bytes").tag("kind", "total").gauge().value();
+
+        // Act
+        log.compact();
+
+        // Assert
+        double after = registry.get("tasks.log-store.bytes").tag("kind", "total").gauge().value();
+        assertTrue(after < before / 4);
+        assertEquals(after - 8, registry.get("tasks.log-store.bytes").tag("kind", "live").gauge().value()); // File header only
+        assertEquals(1.0, registry.get("tasks.log-store.compactions").tag("result", "success").functionCounter().count());
+        for (TaskLogStore compacted : List.of(log, reopen())) {
+            assertEquals(List.of("c", "a19"), names(compacted.findAll()));
+            assertEquals("version 19", compacted.findById(1L).orElseThrow().getDescription());
+            assertEquals(List.of(2L), compacted.findTombstones(null, null, 10).stream().map(TaskTombstone::getId).toList());
+        }
+        assertEquals(4L, store.insert(new Task("d", null)).getId());
+    }
+
+    @Test
+    void pruneTombstones_shouldDropOldDeletionsButNeverReuseIds() throws IOException {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TaskLogStore log = open();
+        log.bindTo(registry);
+        log.insertAll(List.of(new Task("a", null), new Task("b", null), new Task("c", null)));
+        log.deleteAllByIds(List.of(1L));
+        log.deleteAllByIds(List.of(3L)); // The highest id
+
+        // Act
+        int pruned = log.pruneTombstones(clock.get());
+        log.compact();
+
+        // Assert
+        assertEquals(1, pruned);
+        double total = registry.get("tasks.log-store.bytes").tag("kind", "total").gauge().value();
+        assertEquals(total - 8, registry.get("tasks.log-store.bytes").tag("kind", "live").gauge().value());
+        for (TaskLogStore compacted : List.of(log, reopen())) {
+            assertEquals(List.of("b"), names(compacted.findAll()));
+            assertEquals(List.of(3L), compacted.findTombstones(null, null, 10).stream().map(TaskTombstone::getId).toList());
+        }
+        assertEquals(4L, store.insert(new Task("d", null)).getId());
+    }
+
+    @Test
+    void idZero_shouldNeverMatchATask() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TaskLogStore log = open();
+        log.bindTo(registry);
+        assertTrue(log.findById(0L).isEmpty()); // Empty store: every slot of the index is empty
+        log.insertAll(List.of(new Task("a", null), new Task("b", null)));
+        double live = registry.get("tasks.log-store.bytes").tag("kind", "live").gauge().value();
+
+        // Act
+        Optional<Task> found = log.findById(0L);
+        Optional<Task> updated = log.updateReturning(0L, new Task("ghost", null), false);
+        List<TaskTombstone> deleted = log.deleteAllByIds(List.of(0L, -1L));
+
+        // Assert
+        assertTrue(found.isEmpty());
+        assertTrue(updated.isEmpty());
+        assertTrue(deleted.isEmpty());
+        assertEquals(live, registry.get("tasks.log-store.bytes").tag("kind", "live").gauge().value());
+        assertEquals(List.of("a", "b"), names(log.findAll()));
+    }
+
+    @Test
+    void findPageAndDeleteAllModifiedBefore_shouldFollowLastModifiedOrder() {
+        // Arrange
+        TaskLogStore log = open();
+        List<Task> tasks = List.of(log.insert(new Task("a", null)), log.insert(new Task("b", null)), log.insert(new Task("c", null)));
+        log.updateReturning(1L, new Task("a2", null), false); // Moves to the end
+
+        // Act
+        List<Task> firstPage = log.findPage(null, null, 2);
+        Task last = firstPage.get(1);
+        List<Task> secondPage = log.findPage(last.getLastModified(), last.getId(), 2);
+        List<TaskTombstone> deleted = log.deleteAllModifiedBefore(tasks.get(2).getLastModified());
+
+        // Assert
+        assertEquals(List.of("b", "c"), names(firstPage));
+        assertEquals(List.of("a2"), names(secondPage));
+        assertEquals(List.of(2L), deleted.stream().map(TaskTombstone::getId).toList());
+        assertEquals(List.of("c", "a2"), names(log.findAll()));
+    }
+}
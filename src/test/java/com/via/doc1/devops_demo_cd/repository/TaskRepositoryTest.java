@@ -0,0 +1,264 @@
+package com.via.doc1.devops_demo_cd.repository;
+
+import com.via.doc1.devops_demo_cd.config.JpaAuditingConfig;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskProjection;
+import com.via.doc1.devops_demo_cd.model.TaskQuery;
+import com.via.doc1.devops_demo_cd.model.TaskTombstone;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest // Runs against an embedded H2 database; each test is rolled back
+@Import(JpaAuditingConfig.class) // Slices skip @Configuration classes; auditing sets lastModified
+class TaskRepositoryTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private List<Task> expectedOrder;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= 5; i++) {
+            taskRepository.save(new Task("Task " + i, "Description " + i));
+        }
+        entityManager.flush();
+        entityManager.clear(); // Page through rows as stored, not through cached instances
+        expectedOrder = taskRepository.findAll().stream()
+                .sorted(Comparator.comparing(Task::getLastModified).thenComparing(Task::getId))
+                .toList();
+    }
+
+    @Test
+    void keysetPages_shouldVisitEveryTaskOnceInOrder() {
+        List<Task> visited = new ArrayList<>(taskRepository.findFirstPage(Limit.of(2)));
+        assertEquals(2, visited.size());
+
+        List<Task> page;
+        int pages = 1;
+        do {
+            Task last = visited.get(visited.size() - 1);
+            page = taskRepository.findPageAfter(last.getLastModified(), last.getId(), Limit.of(2));
+            visited.addAll(page);
+            assertTrue(++pages <= 4, "Keyset pagination did not terminate");
+        } while (!page.isEmpty());
+
+        assertEquals(expectedOrder.stream().map(Task::getId).toList(), visited.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void streamAllOrdered_shouldReturnAllTasksInKeysetOrder() {
+        try (Stream<Task> tasks = taskRepository.streamAllOrdered()) {
+            assertEquals(expectedOrder.stream().map(Task::getId).toList(), tasks.map(Task::getId).toList());
+        }
+    }
+
+    @Test
+    void insertAll_shouldAssignIdsAndTimestampsInInputOrder() {
+        List<Task> created = taskRepository.insertAll(List.of(new Task("Batch A", "A"), new Task("Batch B", null)));
+        entityManager.clear();
+
+        assertEquals(2, created.size());
+        assertNotNull(created.get(0).getLastModified());
+        assertEquals("Batch A", taskRepository.findById(created.get(0).getId()).orElseThrow().getName());
+        assertEquals("Batch B", taskRepository.findById(created.get(1).getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void updateAll_shouldReportAffectedRowsPerTask() {
+        Task existing = expectedOrder.get(0);
+        Task update = new Task("Renamed", "Changed");
+        update.setId(existing.getId());
+        Task missing = new Task("Ghost", null);
+        missing.setId(-1L);
+
+        int[] counts = taskRepository.updateAll(List.of(update, missing));
+        entityManager.clear();
+
+        assertArrayEquals(new int[] {1, 0}, counts);
+        Task reloaded = taskRepository.findById(existing.getId()).orElseThrow();
+        assertEquals("Renamed", reloaded.getName());
+        assertEquals(update.getLastModified(), reloaded.getLastModified());
+    }
+
+    @Test
+    void updateReturning_shouldReplaceBothFieldsAndReturnNewRow() {
+        Task existing = expectedOrder.get(0);
+
+        Task updated = taskRepository.updateReturning(existing.getId(), new Task("Renamed", null), false).orElseThrow();
+        entityManager.clear();
+
+        assertEquals(existing.getId(), updated.getId());
+        assertEquals("Renamed", updated.getName());
+        assertNull(updated.getDescription()); // PUT replaces the description too
+        assertFalse(updated.getLastModified().isBefore(existing.getLastModified()));
+        assertEquals(updated, taskRepository.findById(existing.getId()).orElseThrow());
+    }
+
+    @Test
+    void updateReturning_partial_shouldKeepNullFields() {
+        Task existing = expectedOrder.get(0);
+
+        Task patched = taskRepository.updateReturning(existing.getId(), new Task(null, "Patched"), true).orElseThrow();
+
+        assertEquals(existing.getName(), patched.getName());
+        assertEquals("Patched", patched.getDescription());
+    }
+
+    @Test
+    void updateReturning_whenIdMissing_shouldReturnEmpty() {
+        assertTrue(taskRepository.updateReturning(-1L, new Task("Ghost", null), false).isEmpty());
+    }
+
+    @Test
+    void deleteAllByIds_shouldReportAffectedRowsPerId() {
+        Long id = expectedOrder.get(0).getId();
+
+        int[] counts = taskRepository.deleteAllByIds(List.of(id, -1L));
+
+        assertArrayEquals(new int[] {1, 0}, counts);
+        assertFalse(taskRepository.existsById(id));
+    }
+
+    @Test
+    void deleteDirectlyById_shouldReportWhetherARowWasDeleted() {
+        Long id = expectedOrder.get(0).getId();
+
+        assertEquals(1, taskRepository.deleteDirectlyById(id));
+        assertEquals(0, taskRepository.deleteDirectlyById(id));
+        assertFalse(taskRepository.existsById(id));
+    }
+
+    @Test
+    void deleteAllModifiedBefore_shouldDeleteOnlyOlderTasksAndReturnTheirIds() {
+        LocalDateTime cutoff = expectedOrder.get(2).getLastModified();
+        List<Long> older = expectedOrder.stream().filter(t -> t.getLastModified().isBefore(cutoff)).map(Task::getId).toList();
+
+        List<Long> deleted = taskRepository.deleteAllModifiedBefore(cutoff);
+
+        assertEquals(Set.copyOf(older), Set.copyOf(deleted));
+        assertEquals(expectedOrder.size() - older.size(), taskRepository.count());
+    }
+
+    @Test
+    void recordDeletions_shouldWriteTombstonesPageableInDeletionOrder() {
+        LocalDateTime first = taskRepository.recordDeletions(List.of(11L, 10L));
+        LocalDateTime second = taskRepository.recordDeletions(List.of(12L)); // Ordered last even within the same microsecond
+
+        List<TaskTombstone> all = taskTombstoneRepository.findFirstPage(Limit.unlimited());
+        assertEquals(List.of(10L, 11L, 12L), all.stream().map(TaskTombstone::getId).toList()); // (deletedAt, id) order
+        assertEquals(first, all.get(0).getDeletedAt());
+        assertEquals(second, all.get(2).getDeletedAt());
+        List<TaskTombstone> after = taskTombstoneRepository.findPageAfter(first, 10L, Limit.of(5));
+        assertEquals(List.of(11L, 12L), after.stream().map(TaskTombstone::getId).toList());
+    }
+
+    @Test
+    void deleteDeletedBefore_shouldPruneOnlyOlderTombstones() {
+        LocalDateTime cutoff = LocalDateTime.of(2026, 1, 1, 0, 0);
+        taskTombstoneRepository.saveAll(List.of(new TaskTombstone(20L, cutoff.minusDays(1)), new TaskTombstone(21L, cutoff)));
+
+        assertEquals(1, taskTombstoneRepository.deleteDeletedBefore(cutoff));
+        assertEquals(List.of(21L), taskTombstoneRepository.findFirstPage(Limit.unlimited()).stream().map(TaskTombstone::getId).toList());
+    }
+
+    @Test
+    void findProjected_shouldReturnRequestedColumnsWithoutManagedEntities() {
+        Set<TaskField> fields = new LinkedHashSet<>(List.of(TaskField.NAME, TaskField.ID));
+        entityManager.clear(); // Drop the entities setUp() loaded
+
+        List<TaskProjection> all = taskRepository.findProjected(fields, null, null, Limit.unlimited());
+
+        assertEquals(expectedOrder.stream().map(Task::getId).toList(), all.stream().map(TaskProjection::id).toList());
+        TaskProjection first = all.get(0);
+        assertEquals(List.of("name", "id"), List.copyOf(first.fields().keySet())); // Request order
+        assertEquals(expectedOrder.get(0).getName(), first.fields().get("name"));
+        assertEquals(expectedOrder.get(0).getLastModified(), first.lastModified()); // Always read, for ETags and cursors
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        assertEquals(0, session.getStatistics().getEntityCount()); // Tuples, not entities
+    }
+
+    @Test
+    void findProjected_withPosition_shouldSeekPastIt() {
+        Task second = expectedOrder.get(1);
+
+        List<TaskProjection> page = taskRepository.findProjected(Set.of(TaskField.ID), second.getLastModified(), second.getId(), Limit.of(2));
+
+        assertEquals(expectedOrder.subList(2, 4).stream().map(Task::getId).toList(), page.stream().map(TaskProjection::id).toList());
+    }
+
+    @Test
+    void findLastModifiedById_shouldReturnStoredTimestampOnly() {
+        Task task = expectedOrder.get(0);
+
+        assertEquals(task.getLastModified(), taskRepository.findLastModifiedById(task.getId()).orElseThrow());
+        assertTrue(taskRepository.findLastModifiedById(-1L).isEmpty());
+    }
+
+    @Test
+    void specifications_shouldMatchNamesLiterally_prefixWithCase_containsWithoutCase() {
+        taskRepository.save(new Task("100% done", null));
+        taskRepository.save(new Task("1000 steps", null));
+
+        List<Task> prefix = taskRepository.findAll(TaskSpecifications.matching(query("100%", null, null)));
+        List<Task> contains = taskRepository.findAll(TaskSpecifications.matching(query(null, "TASK 3", null)));
+        List<Task> wrongCase = taskRepository.findAll(TaskSpecifications.matching(query("task", null, null)));
+
+        assertEquals(List.of("100% done"), prefix.stream().map(Task::getName).toList()); // % is not a wildcard
+        assertEquals(List.of("Task 3"), contains.stream().map(Task::getName).toList());
+        assertTrue(wrongCase.isEmpty());
+    }
+
+    @Test
+    void specifications_shouldPageInSortOrder_seekingPastEachPosition() {
+        TaskQuery byNameDescending = query(null, null, "-name");
+        List<String> visited = new ArrayList<>();
+        Task last = null;
+
+        for (int pages = 0; pages < 3; pages++) {
+            Specification<Task> specification = TaskSpecifications.matching(byNameDescending);
+            if (last != null) {
+                specification = specification.and(TaskSpecifications.after(byNameDescending, last.getName(), last.getId()));
+            }
+            List<Task> page = taskRepository.findBy(specification,
+                    rows -> rows.sortBy(TaskSpecifications.sort(byNameDescending)).limit(2).all());
+            page.forEach(task -> visited.add(task.getName()));
+            last = page.get(page.size() - 1);
+        }
+
+        assertEquals(List.of("Task 5", "Task 4", "Task 3", "Task 2", "Task 1"), visited);
+    }
+
+    @Test
+    void escape_shouldEscapeLikeWildcardsAndTheEscapeCharacter() {
+        assertEquals("50\\% off\\_\\\\", TaskSpecifications.escape("50% off_\\"));
+    }
+
+    private static TaskQuery query(String namePrefix, String nameContains, String sort) {
+        return TaskQuery.of(namePrefix, nameContains, null, null, sort);
+    }
+}
@@ -0,0 +1,142 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.config.BatchLoaderProperties;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskBatchLoaderTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TaskBatchLoader loader(boolean enabled, Duration window, int maxBatchSize) {
+        return new TaskBatchLoader(taskRepository, TransactionOperations.withoutTransaction(),
+                new BatchLoaderProperties(enabled, window, maxBatchSize), meterRegistry);
+    }
+
+    // findAllById answers with a task for every id below 100
+    private void stubFindAllById() {
+        when(taskRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            return StreamSupport.stream(ids.spliterator(), false).filter(id -> id < 100).map(TaskBatchLoaderTest::task).toList();
+        });
+    }
+
+    private static Task task(Long id) {
+        Task task = new Task("Task " + id, null);
+        task.setId(id);
+        return task;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Long>> queriedIds() {
+        ArgumentCaptor<Iterable<Long>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(taskRepository, atLeastOnce()).findAllById(captor.capture());
+        return captor.getAllValues().stream()
+                .map(ids -> StreamSupport.stream(ids.spliterator(), false).toList())
+                .toList();
+    }
+
+    @Test
+    void concurrentLookups_shouldShareOneQueryAndMergeDuplicates() throws Exception {
+        // Arrange
+        stubFindAllById();
+        TaskBatchLoader loader = loader(true, Duration.ofMillis(500), 100);
+        List<Long> ids = List.of(1L, 2L, 3L, 4L, 1L, 2L, 150L);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(ids.size());
+        List<Future<Optional<Task>>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (Long id : ids) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return loader.load(id);
+                }));
+            }
+            start.countDown();
+
+            // Assert
+            for (int i = 0; i < ids.size(); i++) {
+                Long id = ids.get(i);
+                Optional<Task> result = results.get(i).get();
+                assertEquals(id < 100, result.isPresent());
+                result.ifPresent(task -> assertEquals(id, task.getId())); // Each caller gets its own task
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        List<List<Long>> queries = queriedIds();
+        assertEquals(1, queries.size());
+        assertEquals(5, queries.get(0).size()); // Distinct ids only
+        assertEquals(2.0, meterRegistry.get("tasks.lookup.deduplicated").counter().count());
+    }
+
+    @Test
+    void loadAll_shouldSplitIntoBatchesWithoutWaitingOutTheWindow() {
+        // Arrange
+        stubFindAllById();
+        TaskBatchLoader loader = loader(true, Duration.ofSeconds(30), 2);
+
+        // Act
+        long started = System.nanoTime();
+        Map<Long, Task> found = loader.loadAll(List.of(5L, 3L, 150L, 3L, 1L, 2L));
+
+        // Assert
+        assertTrue(System.nanoTime() - started < Duration.ofSeconds(10).toNanos()); // Sent at once, even the partial batch
+        assertEquals(List.of(5L, 3L, 1L, 2L), List.copyOf(found.keySet())); // Request order, unknown id left out
+        assertEquals(List.of(List.of(5L, 3L), List.of(150L, 1L), List.of(2L)), queriedIds());
+    }
+
+    @Test
+    void failedQuery_shouldFailEveryLookupInTheBatch() {
+        // Arrange
+        when(taskRepository.findAllById(anyIterable())).thenThrow(new IllegalStateException("db down"));
+        TaskBatchLoader loader = loader(true, Duration.ZERO, 100);
+
+        // Act & Assert
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> loader.load(1L));
+        assertEquals("db down", e.getMessage());
+        assertThrows(IllegalStateException.class, () -> loader.loadAll(List.of(1L, 2L)));
+    }
+
+    @Test
+    void disabled_shouldLookUpEachIdDirectly() {
+        // Arrange
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task(1L)));
+        TaskBatchLoader loader = loader(false, Duration.ofMillis(500), 100);
+
+        // Act
+        Optional<Task> result = loader.load(1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        verify(taskRepository, never()).findAllById(anyIterable());
+    }
+}
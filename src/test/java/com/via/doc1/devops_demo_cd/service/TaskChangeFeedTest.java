@@ -0,0 +1,141 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.config.ChangeFeedProperties;
+import com.via.doc1.devops_demo_cd.exception.ChangesExpiredException;
+import com.via.doc1.devops_demo_cd.exception.InvalidRequestException;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskChanges;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskChangeFeedTest {
+
+    @Mock
+    private TaskService taskService;
+
+    @Spy
+    private TaskChangeWindow taskChangeWindow = new TaskChangeWindow(
+            new ChangeFeedProperties(Duration.ZERO, Duration.ofDays(30), Duration.ofHours(1)),
+            () -> Optional.of(LocalDateTime.now()));
+
+    @InjectMocks
+    private TaskChangeFeed changeFeed;
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.destroy();
+    }
+
+    @Test
+    void subscribe_withPosition_shouldReplayEveryPageOfMissedChanges() {
+        // Arrange
+        Task task = new Task("Missed", null);
+        task.setId(1L);
+        task.setLastModified(LocalDateTime.now());
+        String since = LocalDateTime.now().minusDays(1).toString();
+        when(taskService.getChanges(since, 500, true))
+                .thenReturn(new TaskChanges(List.of(task), List.of(), "page-2", true));
+        when(taskService.getChanges("page-2", 500, true))
+                .thenReturn(new TaskChanges(List.of(), List.of(), "page-2", false));
+
+        // Act
+        changeFeed.subscribe(since);
+
+        // Assert: replayed on the sender thread until no more changes are waiting
+        verify(taskService, timeout(5000)).getChanges("page-2", 500, true);
+        assertEquals(1, changeFeed.subscriberCount());
+    }
+
+    @Test
+    void subscribe_withoutPosition_shouldOnlyRegisterForLiveEvents() {
+        changeFeed.subscribe(null);
+
+        assertEquals(1, changeFeed.subscriberCount());
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void subscribe_withMalformedPosition_shouldRejectBeforeStreaming() {
+        assertThrows(InvalidRequestException.class, () -> changeFeed.subscribe("not-a-position"));
+        assertThrows(ChangesExpiredException.class, () -> changeFeed.subscribe("2000-01-01T00:00:00"));
+        assertEquals(0, changeFeed.subscriberCount());
+    }
+
+    @Test
+    void replay_shouldNotHoldUpAnotherSubscribersReplay() {
+        // Arrange: the first replay's query does not return until released
+        String slowSince = LocalDateTime.now().minusDays(2).toString();
+        String since = LocalDateTime.now().minusDays(1).toString();
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskService.getChanges(slowSince, 500, true)).thenAnswer(invocation -> awaitThenNoChanges(release, slowSince));
+        when(taskService.getChanges(since, 500, true))
+                .thenReturn(new TaskChanges(List.of(), List.of(), since, false));
+
+        try {
+            // Act
+            changeFeed.subscribe(slowSince);
+            verify(taskService, timeout(5000)).getChanges(slowSince, 500, true);
+            changeFeed.subscribe(since);
+
+            // Assert
+            verify(taskService, timeout(5000)).getChanges(since, 500, true);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void onTaskChange_whenASubscriberFallsTooFarBehind_shouldEndItWithoutWaiting() {
+        // Arrange: a subscriber stuck in its replay, so nothing drains its queue
+        String since = LocalDateTime.now().minusDays(1).toString();
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskService.getChanges(since, 500, true)).thenAnswer(invocation -> awaitThenNoChanges(release, since));
+        changeFeed.subscribe(since);
+        verify(taskService, timeout(5000)).getChanges(since, 500, true);
+        List<Task> tasks = LongStream.rangeClosed(1, TaskChangeFeed.MAX_PENDING_EVENTS / 2 + 1).mapToObj(id -> {
+            Task task = new Task("Task " + id, null);
+            task.setId(id);
+            task.setLastModified(LocalDateTime.now());
+            return task;
+        }).toList();
+
+        try {
+            // Act
+            changeFeed.onTaskChange(TaskChangeEvent.saved(tasks));
+            int afterFirst = changeFeed.subscriberCount();
+            changeFeed.onTaskChange(TaskChangeEvent.saved(tasks));
+
+            // Assert: the writer returned both times, and the second batch did not fit
+            assertEquals(1, afterFirst);
+            assertEquals(0, changeFeed.subscriberCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    // A replay query that takes until the test releases it (or the feed shuts down)
+    private static TaskChanges awaitThenNoChanges(CountDownLatch release, String since) {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new TaskChanges(List.of(), List.of(), since, false);
+    }
+}
@@ -0,0 +1,155 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.config.BatchLoaderProperties;
+import com.via.doc1.devops_demo_cd.config.CacheConfig;
+import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.repository.TaskRepository;
+import com.via.doc1.devops_demo_cd.repository.TaskSearchRepository;
+import com.via.doc1.devops_demo_cd.repository.TaskTombstoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Exercises the caching advice around TaskServiceImpl through a real Spring proxy
+@SpringJUnitConfig(TaskServiceCachingTest.Config.class)
+class TaskServiceCachingTest {
+
+    @Configuration
+    @Import({CacheConfig.class, TaskServiceImpl.class})
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfig.TASKS_CACHE);
+        }
+
+        @Bean // Batching off: lookups go straight to findById
+        TaskBatchLoader taskBatchLoader(TaskRepository taskRepository) {
+            return new TaskBatchLoader(taskRepository, TransactionOperations.withoutTransaction(),
+                    new BatchLoaderProperties(false, Duration.ZERO, 1), new SimpleMeterRegistry());
+        }
+    }
+
+    @MockitoBean
+    private TaskRepository taskRepository;
+
+    @MockitoBean
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private TaskSearchRepository taskSearchRepository;
+
+    @MockitoBean
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @MockitoBean
+    private TaskChangeWindow taskChangeWindow;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Task task1;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.TASKS_CACHE).clear();
+        task1 = new Task("Task One", "Desc One");
+        task1.setId(1L);
+        task1.setLastModified(LocalDateTime.now());
+    }
+
+    @Test
+    void getTaskById_shouldServeRepeatedReadsFromCache() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
+
+        assertEquals(Optional.of(task1), taskService.getTaskById(1L));
+        assertEquals(Optional.of(task1), taskService.getTaskById(1L));
+
+        verify(taskRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getTaskById_shouldNotCacheMisses() {
+        when(taskRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertTrue(taskService.getTaskById(99L).isEmpty());
+        assertTrue(taskService.getTaskById(99L).isEmpty());
+
+        verify(taskRepository, times(2)).findById(99L);
+    }
+
+    @Test
+    void updateTask_shouldRefreshOnlyTheUpdatedTask() {
+        Task task2 = new Task("Task Two", "Desc Two");
+        task2.setId(2L);
+        Task renamed = new Task("Renamed", "Desc One");
+        renamed.setId(1L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(task2));
+        when(taskRepository.updateReturning(eq(1L), any(Task.class), eq(false))).thenReturn(Optional.of(renamed));
+        taskService.getTaskById(1L);
+        taskService.getTaskById(2L);
+
+        taskService.updateTask(1L, new Task("Renamed", "Desc One"));
+
+        assertEquals(Optional.of(renamed), taskService.getTaskById(1L)); // Cache holds the row returned by the update
+        taskService.getTaskById(2L);
+        verify(taskRepository, times(1)).findById(1L);
+        verify(taskRepository, times(1)).findById(2L);
+    }
+
+    @Test
+    void updateTask_whenTaskMissing_shouldNotCacheAnything() {
+        when(taskRepository.updateReturning(eq(99L), any(Task.class), eq(false))).thenReturn(Optional.empty());
+        when(taskRepository.findById(99L)).thenReturn(Optional.empty());
+
+        taskService.updateTask(99L, new Task("Ghost", null));
+
+        assertTrue(taskService.getTaskById(99L).isEmpty());
+        verify(taskRepository, times(1)).findById(99L);
+    }
+
+    @Test
+    void deleteTask_shouldEvictTheDeletedTask() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
+        when(taskRepository.deleteDirectlyById(1L)).thenReturn(1);
+        taskService.getTaskById(1L);
+
+        taskService.deleteTask(1L);
+        taskService.getTaskById(1L);
+
+        verify(taskRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void deleteTasksModifiedBefore_shouldClearTheCache() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
+        taskService.getTaskById(1L);
+
+        taskService.deleteTasksModifiedBefore(LocalDateTime.now());
+        taskService.getTaskById(1L);
+
+        verify(taskRepository, times(2)).findById(1L);
+    }
+}
@@ -1,23 +1,48 @@
 package com.via.doc1.devops_demo_cd.service;
 
+import com.via.doc1.devops_demo_cd.config.ChangeFeedProperties;
+import com.via.doc1.devops_demo_cd.exception.ChangesExpiredException;
+import com.via.doc1.devops_demo_cd.exception.InvalidRequestException;
+import com.via.doc1.devops_demo_cd.model.BatchItemResult;
 import com.via.doc1.devops_demo_cd.model.Task;
+import com.via.doc1.devops_demo_cd.model.TaskChanges;
+import com.via.doc1.devops_demo_cd.model.TaskField;
+import com.via.doc1.devops_demo_cd.model.TaskPage;
+import com.via.doc1.devops_demo_cd.model.TaskProjection;
+import com.via.doc1.devops_demo_cd.model.TaskProjectionPage;
+import com.via.doc1.devops_demo_cd.model.TaskTombstone;
 import com.via.doc1.devops_demo_cd.repository.TaskRepository;
+import com.via.doc1.devops_demo_cd.repository.TaskSearchRepository;
+import com.via.doc1.devops_demo_cd.repository.TaskTombstoneRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class) // Initialize Mockito annotations
@@ -26,6 +51,26 @@ class TaskServiceImplTest {
     @Mock // Create a mock TaskRepository
     private TaskRepository taskRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TaskSearchRepository taskSearchRepository;
+
+    @Mock
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskBatchLoader taskBatchLoader;
+
+    @Spy // Real bounds: a minute of settle time, 30 days of tombstones
+    private TaskChangeWindow taskChangeWindow = new TaskChangeWindow(
+            new ChangeFeedProperties(Duration.ofMinutes(1), Duration.ofDays(30), Duration.ofHours(1)),
+            () -> Optional.of(LocalDateTime.now()));
+
     @InjectMocks // Create an instance of TaskServiceImpl and inject the mocks
     private TaskServiceImpl taskService;
 
@@ -76,31 +121,95 @@ class TaskServiceImplTest {
         verify(taskRepository).save(taskCaptor.capture());
         assertNull(taskCaptor.getValue().getId(), "Service should ensure ID is null before saving for creation");
         assertEquals("New Task", taskCaptor.getValue().getName());
+
+        // Listeners (e.g. the in-memory search index) are told about the persisted task
+        verify(eventPublisher).publishEvent(TaskChangeEvent.saved(List.of(createdTask)));
     }
 
     @Test
-    void getAllTasks_shouldReturnListOfTasks() {
+    void searchTasks_shouldDelegateToSearchRepository() {
         // Arrange
-        List<Task> expectedTasks = Arrays.asList(task1, task2);
-        when(taskRepository.findAll()).thenReturn(expectedTasks);
+        when(taskSearchRepository.search("report", 20, 40)).thenReturn(List.of(task2, task1));
+
+        // Act & Assert
+        assertEquals(List.of(task2, task1), taskService.searchTasks("report", 20, 40));
+    }
+
+    @Test
+    void getTasksPage_whenMoreRowsFollow_shouldReturnPageWithCursorAfterLastRow() {
+        // Arrange: the repository is asked for one extra row to detect the next page
+        when(taskRepository.findFirstPage(Limit.of(2))).thenReturn(Arrays.asList(task1, task2));
 
         // Act
-        List<Task> actualTasks = taskService.getAllTasks();
+        TaskPage page = taskService.getTasksPage(null, 1);
 
         // Assert
-        assertNotNull(actualTasks);
-        assertEquals(2, actualTasks.size());
-        assertEquals(expectedTasks, actualTasks);
+        assertEquals(List.of(task1), page.tasks());
+        assertNotNull(page.nextCursor());
+        TaskCursor cursor = TaskCursor.decode(page.nextCursor());
+        assertEquals(task1.getLastModified(), cursor.lastModified());
+        assertEquals(task1.getId(), cursor.id());
+    }
 
-        // Verify
-        verify(taskRepository, times(1)).findAll();
+    @Test
+    void getTasksPage_withCursor_shouldSeekPastCursorAndEndOnLastPage() {
+        // Arrange
+        String token = TaskCursor.after(task1).encode();
+        when(taskRepository.findPageAfter(task1.getLastModified(), task1.getId(), Limit.of(3)))
+                .thenReturn(List.of(task2));
+
+        // Act
+        TaskPage page = taskService.getTasksPage(token, 2);
+
+        // Assert
+        assertEquals(List.of(task2), page.tasks());
+        assertNull(page.nextCursor()); // Fewer rows than requested: this is the last page
+        verify(taskRepository, never()).findFirstPage(any());
+    }
+
+    @Test
+    void getTasksPage_withMalformedCursor_shouldThrowInvalidRequest() {
+        assertThrows(InvalidRequestException.class, () -> taskService.getTasksPage("not-a-cursor", 10));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void getTasksPage_withFields_shouldProjectAndCursorAfterLastRow() {
+        // Arrange
+        Set<TaskField> fields = Set.of(TaskField.NAME);
+        TaskProjection first = new TaskProjection(1L, task1.getLastModified(), Map.of("name", "Test Task 1"));
+        TaskProjection second = new TaskProjection(2L, task2.getLastModified(), Map.of("name", "Test Task 2"));
+        when(taskRepository.findProjected(fields, null, null, Limit.of(2))).thenReturn(List.of(first, second));
+
+        // Act
+        TaskProjectionPage page = taskService.getTasksPage(null, 1, fields);
+
+        // Assert
+        assertEquals(List.of(first), page.tasks());
+        assertEquals(TaskCursor.after(task1), TaskCursor.decode(page.nextCursor()));
+        verify(taskRepository, never()).findFirstPage(any()); // No entities loaded
+    }
+
+    @Test
+    void streamAllTasks_shouldPassEachTaskToConsumerAndDetachIt() {
+        // Arrange
+        when(taskRepository.streamAllOrdered()).thenReturn(Stream.of(task1, task2));
+        List<Task> received = new ArrayList<>();
+
+        // Act
+        taskService.streamAllTasks(received::add);
+
+        // Assert
+        assertEquals(List.of(task1, task2), received);
+        verify(entityManager).detach(task1);
+        verify(entityManager).detach(task2);
     }
 
     @Test
     void getTaskById_whenTaskExists_shouldReturnTask() {
         // Arrange
         Long taskId = 1L;
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task1));
+        when(taskBatchLoader.load(taskId)).thenReturn(Optional.of(task1));
 
         // Act
         Optional<Task> foundTask = taskService.getTaskById(taskId);
@@ -111,14 +220,15 @@ class TaskServiceImplTest {
         assertEquals(taskId, foundTask.get().getId());
 
         // Verify
-        verify(taskRepository, times(1)).findById(taskId);
+        verify(taskBatchLoader, times(1)).load(taskId);
+        verifyNoInteractions(taskRepository); // Looked up through the batch loader
     }
 
     @Test
     void getTaskById_whenTaskDoesNotExist_shouldReturnEmptyOptional() {
         // Arrange
         Long taskId = 99L;
-        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskBatchLoader.load(taskId)).thenReturn(Optional.empty());
 
         // Act
         Optional<Task> foundTask = taskService.getTaskById(taskId);
@@ -127,51 +237,52 @@ class TaskServiceImplTest {
         assertTrue(foundTask.isEmpty());
 
         // Verify
-        verify(taskRepository, times(1)).findById(taskId);
+        verify(taskBatchLoader, times(1)).load(taskId);
     }
 
     @Test
-    void updateTask_whenTaskExists_shouldUpdateAndReturnTask() {
+    void getTasksByIds_shouldReturnFoundTasksInLoaderOrder() {
         // Arrange
-        Long taskId = 1L;
-        LocalDateTime originalLastModified = task1.getLastModified();
-        Task updateDetails = new Task("Updated Name", "Updated Desc");
-        Task existingTask = task1; // Use the task from setUp
+        Map<Long, Task> found = new LinkedHashMap<>();
+        found.put(2L, task2);
+        found.put(1L, task1);
+        when(taskBatchLoader.loadAll(List.of(2L, 1L, 99L))).thenReturn(found);
 
-        // Mock findById to return the existing task
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(existingTask));
+        // Act
+        List<Task> tasks = taskService.getTasksByIds(List.of(2L, 1L, 99L));
 
-        // Mock save to return the saved entity (important for verifying the result)
-        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
-            Task savedTask = invocation.getArgument(0);
-             // Simulate auditing updating the timestamp on save
-            savedTask.setLastModified(LocalDateTime.now().plusMinutes(1));
-            return savedTask;
-           });
+        // Assert
+        assertEquals(List.of(task2, task1), tasks);
+    }
 
+    @Test
+    void getTaskVersion_shouldLookUpTimestampWithoutLoadingTask() {
+        // Arrange
+        when(taskRepository.findLastModifiedById(1L)).thenReturn(Optional.of(task1.getLastModified()));
+
+        // Act & Assert
+        assertEquals(Optional.of(task1.getLastModified()), taskService.getTaskVersion(1L));
+        verify(taskRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void updateTask_whenTaskExists_shouldUpdateInOneStatementAndReturnNewRow() {
+        // Arrange
+        Long taskId = 1L;
+        Task updateDetails = new Task("Updated Name", "Updated Desc");
+        Task updatedRow = new Task("Updated Name", "Updated Desc");
+        updatedRow.setId(taskId);
+        updatedRow.setLastModified(task1.getLastModified().plusMinutes(1));
+        when(taskRepository.updateReturning(taskId, updateDetails, false)).thenReturn(Optional.of(updatedRow));
 
         // Act
         Optional<Task> updatedTaskOptional = taskService.updateTask(taskId, updateDetails);
 
         // Assert
-        assertTrue(updatedTaskOptional.isPresent());
-        Task updatedTask = updatedTaskOptional.get();
-        assertEquals(taskId, updatedTask.getId()); // ID should remain the same
-        assertEquals("Updated Name", updatedTask.getName()); // Name should be updated
-        assertEquals("Updated Desc", updatedTask.getDescription()); // Description should be updated
-        assertNotEquals(originalLastModified, updatedTask.getLastModified()); // Timestamp should change
-
-        // Verify findById and save were called
-        verify(taskRepository, times(1)).findById(taskId);
-
-        // Verify save was called with the updated details merged into the existing task
-        ArgumentCaptor<Task> taskCaptor = ArgumentCaptor.forClass(Task.class);
-        verify(taskRepository, times(1)).save(taskCaptor.capture());
-
-        Task savedTask = taskCaptor.getValue();
-        assertEquals(taskId, savedTask.getId());
-        assertEquals("Updated Name", savedTask.getName());
-        assertEquals("Updated Desc", savedTask.getDescription());
+        assertEquals(Optional.of(updatedRow), updatedTaskOptional);
+        // No read-modify-save round trip
+        verify(taskRepository, never()).findById(anyLong());
+        verify(taskRepository, never()).save(any(Task.class));
     }
 
     @Test
@@ -179,52 +290,207 @@ class TaskServiceImplTest {
         // Arrange
         Long taskId = 99L;
         Task updateDetails = new Task("Updated Name", "Updated Desc");
-        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskRepository.updateReturning(taskId, updateDetails, false)).thenReturn(Optional.empty());
 
         // Act
         Optional<Task> updatedTaskOptional = taskService.updateTask(taskId, updateDetails);
 
         // Assert
         assertTrue(updatedTaskOptional.isEmpty());
+    }
 
-        // Verify findById was called, but save was not
-        verify(taskRepository, times(1)).findById(taskId);
-        verify(taskRepository, never()).save(any(Task.class));
+    @Test
+    void patchTask_shouldRequestPartialUpdate() {
+        // Arrange
+        Task changes = new Task("Renamed", null);
+        Task patchedRow = new Task("Renamed", task1.getDescription());
+        patchedRow.setId(1L);
+        when(taskRepository.updateReturning(1L, changes, true)).thenReturn(Optional.of(patchedRow));
+
+        // Act
+        Optional<Task> patched = taskService.patchTask(1L, changes);
+
+        // Assert
+        assertEquals(Optional.of(patchedRow), patched);
+        verify(taskRepository, never()).findById(anyLong());
     }
 
     @Test
     void deleteTask_whenTaskExists_shouldDeleteAndReturnTrue() {
         // Arrange
         Long taskId = 1L;
-        when(taskRepository.existsById(taskId)).thenReturn(true);
-        // Mock void method deleteById - doNothing is default, but explicit is clearer
-        doNothing().when(taskRepository).deleteById(taskId);
+        LocalDateTime deletedAt = LocalDateTime.now();
+        when(taskRepository.deleteDirectlyById(taskId)).thenReturn(1);
+        when(taskRepository.recordDeletions(List.of(taskId))).thenReturn(deletedAt);
 
         // Act
         boolean deleted = taskService.deleteTask(taskId);
 
         // Assert
         assertTrue(deleted);
+        verify(eventPublisher).publishEvent(TaskChangeEvent.deleted(List.of(taskId), deletedAt)); // Tombstone written for delta sync
 
-        // Verify existsById and deleteById were called
-        verify(taskRepository, times(1)).existsById(taskId);
-        verify(taskRepository, times(1)).deleteById(taskId);
+        // One DELETE statement: no existsById check and no load-then-remove via deleteById
+        verify(taskRepository, never()).existsById(anyLong());
+        verify(taskRepository, never()).deleteById(anyLong());
     }
 
     @Test
     void deleteTask_whenTaskDoesNotExist_shouldReturnFalse() {
         // Arrange
         Long taskId = 99L;
-        when(taskRepository.existsById(taskId)).thenReturn(false);
+        when(taskRepository.deleteDirectlyById(taskId)).thenReturn(0); // No row affected
 
         // Act
         boolean deleted = taskService.deleteTask(taskId);
 
         // Assert
         assertFalse(deleted);
+        verify(taskRepository, never()).recordDeletions(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void deleteTasksModifiedBefore_shouldReturnDeletedCountAndRecordTombstones() {
+        // Arrange
+        LocalDateTime cutoff = LocalDateTime.now();
+        when(taskRepository.deleteAllModifiedBefore(cutoff)).thenReturn(List.of(3L, 4L, 5L));
+        when(taskRepository.recordDeletions(List.of(3L, 4L, 5L))).thenReturn(cutoff);
+
+        // Act & Assert
+        assertEquals(3, taskService.deleteTasksModifiedBefore(cutoff));
+        verify(taskRepository, never()).findAll();
+        verify(eventPublisher).publishEvent(TaskChangeEvent.deleted(List.of(3L, 4L, 5L), cutoff));
+    }
+
+    @Test
+    void getChanges_shouldMergeChangedTasksAndTombstonesInChangeOrder() {
+        // Arrange: task1 (yesterday) < tombstone (an hour ago) < task2 (ten minutes ago); fetched with one extra row each
+        TaskTombstone tombstone = new TaskTombstone(9L, task2.getLastModified().minusHours(1));
+        task2.setLastModified(task2.getLastModified().minusMinutes(10));
+        when(taskRepository.findPageAfter(any(LocalDateTime.class), eq(Long.MAX_VALUE), eq(Limit.of(3))))
+                .thenReturn(List.of(task1, task2));
+        when(taskTombstoneRepository.findPageAfter(any(LocalDateTime.class), eq(Long.MAX_VALUE), eq(Limit.of(3))))
+                .thenReturn(List.of(tombstone));
+
+        // Act
+        TaskChanges changes = taskService.getChanges(LocalDateTime.now().minusDays(2).toString(), 2, false);
+
+        // Assert
+        assertEquals(List.of(task1), changes.changed());
+        assertEquals(List.of(tombstone), changes.deleted());
+        assertTrue(changes.hasMore()); // task2 did not fit
+        assertEquals(TaskCursor.after(tombstone), TaskCursor.decode(changes.since()));
+    }
+
+    @Test
+    void getChanges_withNothingNew_shouldEchoThePosition() {
+        // Arrange
+        String since = new TaskCursor(LocalDateTime.now(), 5L).encode();
+        when(taskRepository.findPageAfter(any(LocalDateTime.class), eq(5L), any(Limit.class))).thenReturn(List.of());
+        when(taskTombstoneRepository.findPageAfter(any(LocalDateTime.class), eq(5L), any(Limit.class))).thenReturn(List.of());
+
+        // Act
+        TaskChanges changes = taskService.getChanges(since, 100, false);
+
+        // Assert
+        assertEquals(since, changes.since());
+        assertFalse(changes.hasMore());
+        assertThrows(InvalidRequestException.class, () -> taskService.getChanges("yesterday", 100, false));
+    }
+
+    @Test
+    void getChanges_shouldHoldBackChangesYoungerThanTheSettleTime() {
+        // Arrange: task2 was stamped just now, so a transaction stamped before it may not have committed yet
+        when(taskRepository.findFirstPage(Limit.of(101))).thenReturn(List.of(task1, task2));
+        when(taskTombstoneRepository.findFirstPage(Limit.of(101))).thenReturn(List.of());
+
+        // Act
+        TaskChanges settled = taskService.getChanges(null, 100, false);
+        TaskChanges unsettled = taskService.getChanges(null, 100, true);
+
+        // Assert: the cursor stops at task1, so the next poll starts before task2
+        assertEquals(List.of(task1), settled.changed());
+        assertEquals(TaskCursor.after(task1), TaskCursor.decode(settled.since()));
+        assertFalse(settled.hasMore());
+        assertEquals(List.of(task1, task2), unsettled.changed()); // For SSE replays, which live events continue
+    }
+
+    @Test
+    void getChanges_fromBeforeTheTombstoneRetention_shouldAskForAResync() {
+        // Act & Assert: tombstones that old may be pruned, so the changes after it are incomplete
+        assertThrows(ChangesExpiredException.class,
+                () -> taskService.getChanges(LocalDateTime.now().minusDays(31).toString(), 100, false));
+        verifyNoInteractions(taskRepository, taskTombstoneRepository);
+    }
+
+    @Test
+    void pruneTombstones_shouldDeleteTombstonesOlderThanTheRetention() {
+        // Act
+        taskService.pruneTombstones();
+
+        // Assert
+        verify(taskTombstoneRepository).deleteDeletedBefore(argThat(cutoff ->
+                cutoff.isBefore(LocalDateTime.now().minusDays(29)) && cutoff.isAfter(LocalDateTime.now().minusDays(31))));
+    }
+
+    @Test
+    void createTasks_shouldInsertValidItemsInOneBatchAndReportInvalidOnes() {
+        // Arrange
+        Task invalid = new Task(" ", "Blank name");
+        when(taskRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Task> batch = invocation.getArgument(0);
+            batch.get(0).setId(10L);
+            batch.get(1).setId(11L);
+            return batch;
+        });
+
+        // Act
+        List<BatchItemResult> results = taskService.createTasks(List.of(taskInput, invalid, new Task("Other", null)));
 
-        // Verify existsById was called, but deleteById was not
-        verify(taskRepository, times(1)).existsById(taskId);
-        verify(taskRepository, never()).deleteById(taskId);
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals(201, results.get(0).status());
+        assertEquals(10L, results.get(0).id());
+        assertEquals(400, results.get(1).status());
+        assertEquals(1, results.get(1).index());
+        assertEquals(201, results.get(2).status());
+        assertEquals(11L, results.get(2).id());
+        verify(taskRepository, times(1)).insertAll(argThat(batch -> batch.size() == 2));
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void updateTasks_shouldMapAffectedRowCountsToStatuses() {
+        // Arrange
+        Task missingId = new Task("No id", null);
+        Task unknown = new Task("Unknown", null);
+        unknown.setId(99L);
+        when(taskRepository.updateAll(List.of(task1, unknown))).thenReturn(new int[] {1, 0});
+
+        // Act
+        List<BatchItemResult> results = taskService.updateTasks(List.of(task1, missingId, unknown));
+
+        // Assert
+        assertEquals(200, results.get(0).status());
+        assertEquals(task1, results.get(0).task());
+        assertEquals(400, results.get(1).status());
+        assertEquals(404, results.get(2).status());
+        assertEquals(99L, results.get(2).id());
+    }
+
+    @Test
+    void deleteTasks_shouldMapAffectedRowCountsToStatuses() {
+        // Arrange
+        when(taskRepository.deleteAllByIds(List.of(1L, 99L))).thenReturn(new int[] {1, 0});
+
+        // Act
+        List<BatchItemResult> results = taskService.deleteTasks(Arrays.asList(1L, null, 99L));
+
+        // Assert
+        assertEquals(204, results.get(0).status());
+        assertEquals(400, results.get(1).status());
+        assertEquals(404, results.get(2).status());
+        verify(taskRepository, never()).deleteById(anyLong());
     }
-}
\ No newline at end of file
+}
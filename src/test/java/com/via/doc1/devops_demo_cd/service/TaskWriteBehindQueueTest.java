@@ -0,0 +1,126 @@
+package com.via.doc1.devops_demo_cd.service;
+
+import com.via.doc1.devops_demo_cd.config.WriteBehindProperties;
+import com.via.doc1.devops_demo_cd.exception.TooManyRequestsException;
+import com.via.doc1.devops_demo_cd.model.BatchItemResult;
+import com.via.doc1.devops_demo_cd.model.IngestionStatus;
+import com.via.doc1.devops_demo_cd.model.Task;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskWriteBehindQueueTest {
+
+    @Mock
+    private TaskService taskService;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private TaskWriteBehindQueue queue;
+
+    @AfterEach
+    void tearDown() {
+        queue.stop();
+    }
+
+    private TaskWriteBehindQueue queue(int capacity, int batchSize, Duration maxDelay) {
+        queue = new TaskWriteBehindQueue(taskService,
+                new WriteBehindProperties(true, capacity, batchSize, maxDelay, Duration.ofMinutes(1)), registry);
+        return queue;
+    }
+
+    // Answers createTasks like the real service: one 201 result per task, ids 100, 101, ...
+    private static List<BatchItemResult> created(List<Task> tasks) {
+        List<BatchItemResult> results = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            results.add(BatchItemResult.success(i, 100L + i, 201, tasks.get(i)));
+        }
+        return results;
+    }
+
+    @Test
+    void stop_shouldDrainQueuedTasksInBatches() {
+        // Arrange: a long delay, so only the batch size or the shutdown drain triggers flushes
+        queue(100, 2, Duration.ofSeconds(30));
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+        queue.start();
+        List<String> tickets = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            tickets.add(queue.submit(new Task("Task " + i, null)));
+        }
+
+        // Act
+        queue.stop();
+
+        // Assert
+        assertFalse(queue.isRunning());
+        tickets.forEach(ticket -> assertEquals(IngestionStatus.State.CREATED, queue.status(ticket).orElseThrow().state()));
+        verify(taskService, atLeast(2)).createTasks(anyList()); // 3 tasks never fit one batch of 2
+        assertEquals(0, registry.get("tasks.ingest.queue.depth").gauge().value());
+        assertEquals(3, registry.get("tasks.ingest.flush.size").summary().totalAmount());
+    }
+
+    @Test
+    void flush_shouldReportPerItemFailuresAndFailedBatches() {
+        // Arrange
+        queue(10, 10, Duration.ofMillis(10));
+        when(taskService.createTasks(anyList()))
+                .thenReturn(List.of(BatchItemResult.success(0, 5L, 201, null), BatchItemResult.failure(1, null, 400, "name is required")))
+                .thenThrow(new IllegalStateException("db down"));
+
+        // Act
+        queue.flush(List.of(new TaskWriteBehindQueue.Pending("a", new Task("A", null)),
+                new TaskWriteBehindQueue.Pending("b", new Task("", null))));
+        queue.flush(List.of(new TaskWriteBehindQueue.Pending("c", new Task("C", null))));
+
+        // Assert
+        assertEquals(IngestionStatus.created("a", 5L), queue.status("a").orElseThrow());
+        assertEquals(IngestionStatus.failed("b", "name is required"), queue.status("b").orElseThrow());
+        assertEquals(IngestionStatus.failed("c", "db down"), queue.status("c").orElseThrow());
+        assertEquals(2, registry.get("tasks.ingest.flush").timer().count());
+    }
+
+    @Test
+    void submit_whenQueueFull_shouldRejectWithTooManyRequests() throws Exception {
+        // Arrange: block the first flush so the single queue slot stays occupied
+        queue(1, 1, Duration.ofMillis(10));
+        CountDownLatch inFlush = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> {
+            inFlush.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return created(invocation.getArgument(0));
+        });
+        queue.start();
+        queue.submit(new Task("Flushing", null));
+        assertTrue(inFlush.await(5, TimeUnit.SECONDS));
+        queue.submit(new Task("Queued", null));
+
+        // Act & Assert
+        assertThrows(TooManyRequestsException.class, () -> queue.submit(new Task("Rejected", null)));
+        assertEquals(1, registry.get("tasks.ingest.rejected").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void submit_whenNotRunning_shouldReject() {
+        queue(10, 10, Duration.ofMillis(10)); // Never started (e.g. already stopped for shutdown)
+
+        assertThrows(TooManyRequestsException.class, () -> queue.submit(new Task("Late", null)));
+        verifyNoInteractions(taskService);
+    }
+}